@@ -0,0 +1,200 @@
+package com.company.management.company_crud.benchmark;
+
+import com.company.management.company_crud.mapper.CompanyMapper;
+import com.company.management.company_crud.mapper.CompanyMapperImpl;
+import com.company.management.company_crud.mapper.DepartmentMapper;
+import com.company.management.company_crud.mapper.DepartmentMapperImpl;
+import com.company.management.company_crud.mapper.ManagerMapper;
+import com.company.management.company_crud.mapper.ManagerMapperImpl;
+import com.company.management.company_crud.mapper.ProjectMapper;
+import com.company.management.company_crud.mapper.ProjectMapperImpl;
+import com.company.management.company_crud.mapper.TeamMapper;
+import com.company.management.company_crud.mapper.TeamMapperImpl;
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.dao.Manager;
+import com.company.management.company_crud.model.dao.Project;
+import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.model.dto.CompanyDTO;
+import com.company.management.company_crud.model.dto.DepartmentDTO;
+import com.company.management.company_crud.model.dto.ManagerDTO;
+import com.company.management.company_crud.model.dto.ProjectDTO;
+import com.company.management.company_crud.model.dto.TeamDTO;
+import com.company.management.company_crud.model.projection.CompanyView;
+import com.company.management.company_crud.model.projection.DepartmentView;
+import com.company.management.company_crud.model.projection.ManagerView;
+import com.company.management.company_crud.model.projection.ProjectView;
+import com.company.management.company_crud.model.projection.TeamView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the MapStruct mappers on the paths every request goes through. Collection benchmarks
+ * declare one operation per mapped element, so with {@code -prof gc} the
+ * {@code gc.alloc.rate.norm} column reads as bytes allocated per mapped entity.
+ * <p>
+ * Views are Spring Data projection proxies over a map, like the tuple-backed proxies the
+ * repositories return.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    static final int DEPARTMENTS = 5_000;
+
+    private final CompanyMapper companyMapper = new CompanyMapperImpl();
+    private final DepartmentMapper departmentMapper = new DepartmentMapperImpl();
+    private final TeamMapper teamMapper = new TeamMapperImpl();
+    private final ProjectMapper projectMapper = new ProjectMapperImpl();
+    private final ManagerMapper managerMapper = new ManagerMapperImpl();
+
+    private Company company;
+    private Company largeCompany;
+    private Department department;
+    private Team team;
+    private Project project;
+    private Manager manager;
+    private CompanyDTO companyDTO;
+
+    private CompanyView companyView;
+    private List<String> departmentNames;
+    private List<DepartmentView> departmentViews;
+    private List<String> teamNames;
+    private TeamView teamView;
+    private ProjectView projectView;
+    private ManagerView managerView;
+
+    @Setup
+    public void setUp() {
+        company = company("Company", 3);
+        largeCompany = company("Large Company", DEPARTMENTS);
+        department = company.getDepartments().get(0);
+        for (int t = 0; t < 5; t++) {
+            Team child = new Team();
+            child.setId((long) t);
+            child.setName("Team " + t);
+            child.setDepartment(department);
+            department.getTeams().add(child);
+        }
+        team = department.getTeams().get(0);
+        manager = new Manager(1L, "Anna", "anna@test.com", 0L, null);
+        project = new Project(1L, "Project X", 0L, null, team, manager);
+        companyDTO = new CompanyDTO(null, "New Company", null);
+
+        ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+        companyView = projections.createProjection(CompanyView.class, Map.of("id", 1L, "name", "Company"));
+        departmentNames = largeCompany.getDepartments().stream().map(Department::getName).toList();
+        departmentViews = new ArrayList<>(DEPARTMENTS);
+        for (Department child : largeCompany.getDepartments()) {
+            departmentViews.add(projections.createProjection(DepartmentView.class,
+                    Map.of("id", child.getId(), "name", child.getName(), "companyName", "Large Company")));
+        }
+        teamNames = List.of("Team 0", "Team 1", "Team 2", "Team 3", "Team 4");
+        teamView = projections.createProjection(TeamView.class,
+                Map.of("id", 1L, "name", "Team 0", "departmentName", "Department 0"));
+        projectView = projections.createProjection(ProjectView.class,
+                Map.of("id", 1L, "name", "Project X", "teamName", "Team 0", "managerName", "Anna"));
+        managerView = projections.createProjection(ManagerView.class,
+                Map.of("id", 1L, "name", "Anna", "email", "anna@test.com"));
+    }
+
+    @Benchmark
+    public CompanyDTO companyToCompanyDTO() {
+        return companyMapper.companyToCompanyDTO(company);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEPARTMENTS)
+    public CompanyDTO largeCompanyToCompanyDTO() {
+        return companyMapper.companyToCompanyDTO(largeCompany);
+    }
+
+    @Benchmark
+    public CompanyDTO companyViewToCompanyDTO() {
+        return companyMapper.companyViewToCompanyDTO(companyView, departmentNames.subList(0, 3));
+    }
+
+    @Benchmark
+    public Company companyDTOToCompany() {
+        return companyMapper.companyDTOToCompany(companyDTO);
+    }
+
+    @Benchmark
+    public DepartmentDTO departmentToDepartmentDTO() {
+        return departmentMapper.departmentToDepartmentDTO(department);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEPARTMENTS)
+    public List<DepartmentDTO> departmentViewsToDepartmentDTOs() {
+        List<DepartmentDTO> result = new ArrayList<>(departmentViews.size());
+        for (DepartmentView view : departmentViews) {
+            result.add(departmentMapper.departmentViewToDepartmentDTO(view, teamNames));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public TeamDTO teamToTeamDTO() {
+        return teamMapper.teamToTeamDTO(team);
+    }
+
+    @Benchmark
+    public TeamDTO teamViewToTeamDTO() {
+        return teamMapper.teamViewToTeamDTO(teamView);
+    }
+
+    @Benchmark
+    public ProjectDTO projectToProjectDTO() {
+        return projectMapper.projectToProjectDTO(project);
+    }
+
+    @Benchmark
+    public ProjectDTO projectViewToProjectDTO() {
+        return projectMapper.projectViewToProjectDTO(projectView);
+    }
+
+    @Benchmark
+    public ManagerDTO managerToManagerDTO() {
+        return managerMapper.managerToManagerDTO(manager);
+    }
+
+    @Benchmark
+    public ManagerDTO managerViewToManagerDTO() {
+        return managerMapper.managerViewToManagerDTO(managerView);
+    }
+
+    private static Company company(String name, int departments) {
+        Company company = new Company();
+        company.setId(1L);
+        company.setName(name);
+        for (int d = 0; d < departments; d++) {
+            Department department = new Department();
+            department.setId((long) d);
+            department.setName(name + " Department " + d);
+            department.setCompany(company);
+            company.getDepartments().add(department);
+        }
+        return company;
+    }
+}
@@ -0,0 +1,100 @@
+package com.company.management.company_crud.benchmark;
+
+import com.company.management.company_crud.model.dto.CompanyDTO;
+import com.company.management.company_crud.model.dto.DepartmentDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Jackson serialization of the list payloads. A page holds as many DTOs as the list endpoints
+ * return by default, and each benchmark counts one operation per DTO, so {@code gc.alloc.rate.norm}
+ * is bytes per serialized entity. The stream variants write to a discarding stream, as the
+ * servlet response does, to separate encoding cost from building the byte array.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    static final int PAGE = 100;
+
+    private ObjectWriter companyWriter;
+    private ObjectWriter departmentWriter;
+    private ObjectWriter singleCompanyWriter;
+    private List<CompanyDTO> companies;
+    private List<DepartmentDTO> departments;
+    private CompanyDTO largeCompany;
+
+    @Setup
+    public void setUp() {
+        JsonMapper mapper = JsonMapper.builder().build();
+        companyWriter = mapper.writerFor(new TypeReference<List<CompanyDTO>>() {
+        });
+        departmentWriter = mapper.writerFor(new TypeReference<List<DepartmentDTO>>() {
+        });
+        singleCompanyWriter = mapper.writerFor(CompanyDTO.class);
+
+        companies = new ArrayList<>(PAGE);
+        departments = new ArrayList<>(PAGE);
+        for (int i = 0; i < PAGE; i++) {
+            companies.add(new CompanyDTO((long) i, "Company " + i, names("Department", 3)));
+            departments.add(new DepartmentDTO((long) i, "Department " + i, "Company", names("Team", 5)));
+        }
+        largeCompany = new CompanyDTO(1L, "Large Company", names("Department", MapperBenchmark.DEPARTMENTS));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE)
+    public byte[] companyPageToBytes() throws IOException {
+        return companyWriter.writeValueAsBytes(companies);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE)
+    public void companyPageToStream() throws IOException {
+        companyWriter.writeValue(OutputStream.nullOutputStream(), companies);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE)
+    public byte[] departmentPageToBytes() throws IOException {
+        return departmentWriter.writeValueAsBytes(departments);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE)
+    public void departmentPageToStream() throws IOException {
+        departmentWriter.writeValue(OutputStream.nullOutputStream(), departments);
+    }
+
+    @Benchmark
+    public byte[] largeCompanyToBytes() throws IOException {
+        return singleCompanyWriter.writeValueAsBytes(largeCompany);
+    }
+
+    private static List<String> names(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + " " + i).toList();
+    }
+}
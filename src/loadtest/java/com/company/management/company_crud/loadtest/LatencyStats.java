@@ -0,0 +1,87 @@
+package com.company.management.company_crud.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-route latency histograms in microseconds, written concurrently by the workers. Each
+ * {@link #snapshot()} returns what was recorded since the previous one, which is how the warmup
+ * is discarded.
+ */
+final class LatencyStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Route, Recorder> recorders = new EnumMap<>(Route.class);
+    private final Map<Route, LongAdder> errors = new EnumMap<>(Route.class);
+
+    LatencyStats() {
+        for (Route route : Route.values()) {
+            recorders.put(route, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(route, new LongAdder());
+        }
+    }
+
+    void record(Route route, long elapsedNanos, boolean failed) {
+        recorders.get(route).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS));
+        if (failed) {
+            errors.get(route).increment();
+        }
+    }
+
+    Snapshot snapshot() {
+        Map<Route, Histogram> histograms = new EnumMap<>(Route.class);
+        Map<Route, Long> failures = new EnumMap<>(Route.class);
+        for (Route route : Route.values()) {
+            histograms.put(route, recorders.get(route).getIntervalHistogram());
+            failures.put(route, errors.get(route).sumThenReset());
+        }
+        return new Snapshot(histograms, failures);
+    }
+
+    record Snapshot(Map<Route, Histogram> histograms, Map<Route, Long> errors) {
+
+        Histogram total() {
+            Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+            histograms.values().forEach(total::add);
+            return total;
+        }
+
+        long totalErrors() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        void print(PrintStream out, Duration elapsed) {
+            out.printf("%-46s %9s %7s %9s %9s %9s %9s %9s%n",
+                    "route", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+            histograms.forEach((route, histogram) -> {
+                if (histogram.getTotalCount() > 0) {
+                    row(out, route.toString(), histogram, errors.get(route), elapsed);
+                }
+            });
+            row(out, "total", total(), totalErrors(), elapsed);
+        }
+
+        private static void row(PrintStream out, String name, Histogram histogram, long errors, Duration elapsed) {
+            out.printf("%-46s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(), errors,
+                    throughput(histogram, elapsed), millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        static double throughput(Histogram histogram, Duration elapsed) {
+            return histogram.getTotalCount() * 1_000_000_000.0 / elapsed.toNanos();
+        }
+
+        static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
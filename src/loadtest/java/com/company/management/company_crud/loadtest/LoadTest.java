@@ -0,0 +1,164 @@
+package com.company.management.company_crud.loadtest;
+
+import com.company.management.company_crud.CompanyCrudApplication;
+import com.company.management.company_crud.model.dto.CompanyImportDTO;
+import com.company.management.company_crud.model.dto.DepartmentImportDTO;
+import com.company.management.company_crud.model.dto.ManagerDTO;
+import com.company.management.company_crud.model.dto.ProjectImportDTO;
+import com.company.management.company_crud.model.dto.TeamImportDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Starts the application with the {@code loadtest} profile, seeds a synthetic org tree through
+ * {@code POST /api/import} and drives the {@link Workload} with {@code loadtest.concurrency}
+ * closed-loop clients. After the warmup it measures for {@code loadtest.duration} and prints
+ * throughput and latency percentiles per route. Arguments are Spring Boot command-line properties:
+ * <pre>
+ * ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.args="--loadtest.concurrency=64 --loadtest.duration=2m"
+ * </pre>
+ * Each client waits for its response before sending the next request, so under saturation the
+ * percentiles show service time rather than the queueing an open-loop client would see.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean passed;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CompanyCrudApplication.class)
+                .profiles("loadtest")
+                .run(args)) {
+            LoadTestProperties properties = Binder.get(context.getEnvironment())
+                    .bindOrCreate("loadtest", LoadTestProperties.class);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            passed = run(properties, URI.create("http://localhost:" + port + "/"), context.getBean(ObjectMapper.class),
+                    context.getBean(JdbcTemplate.class));
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static boolean run(LoadTestProperties properties, URI baseUri, ObjectMapper objectMapper,
+                               JdbcTemplate jdbcTemplate) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        long seedStart = System.nanoTime();
+        seed(client, baseUri, objectMapper, properties.seed());
+        Workload.SeededIds seeded = new Workload.SeededIds(ids(jdbcTemplate, "company"),
+                ids(jdbcTemplate, "department"), ids(jdbcTemplate, "team"), ids(jdbcTemplate, "project"),
+                ids(jdbcTemplate, "manager"));
+        System.out.printf("Seeded %d companies, %d departments, %d teams, %d projects and %d managers in %d ms%n",
+                seeded.companies().length, seeded.departments().length, seeded.teams().length,
+                seeded.projects().length, seeded.managers().length,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+        LatencyStats stats = new LatencyStats();
+        Workload workload = new Workload(client, baseUri, objectMapper, seeded, properties.writePercent(), stats);
+        System.out.printf("Running %d clients with %d%% writes: %ds warmup, %ds measured%n",
+                properties.concurrency(), properties.writePercent(), properties.warmup().toSeconds(),
+                properties.duration().toSeconds());
+
+        LatencyStats.Snapshot result;
+        Duration measured;
+        AtomicBoolean running = new AtomicBoolean(true);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < properties.concurrency(); i++) {
+                executor.execute(workload.worker(running::get));
+            }
+            Thread.sleep(properties.warmup().toMillis());
+            stats.snapshot();
+            long start = System.nanoTime();
+            Thread.sleep(properties.duration().toMillis());
+            result = stats.snapshot();
+            measured = Duration.ofNanos(System.nanoTime() - start);
+            running.set(false);
+        }
+
+        result.print(System.out, measured);
+        return check(properties, result.total(), measured);
+    }
+
+    /**
+     * Generates {@code companies} NDJSON documents, each with {@code departments} departments of
+     * {@code teams} teams, and every team with a project and its manager.
+     */
+    private static void seed(HttpClient client, URI baseUri, ObjectMapper objectMapper, LoadTestProperties.Seed seed)
+            throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder();
+        for (int c = 0; c < seed.companies(); c++) {
+            List<DepartmentImportDTO> departments = new ArrayList<>(seed.departments());
+            for (int d = 0; d < seed.departments(); d++) {
+                List<TeamImportDTO> teams = new ArrayList<>(seed.teams());
+                for (int t = 0; t < seed.teams(); t++) {
+                    String suffix = c + "-" + d + "-" + t;
+                    ManagerDTO manager = new ManagerDTO(null, "Manager " + suffix, "manager-" + suffix + "@loadtest.example");
+                    teams.add(new TeamImportDTO("Team " + suffix, new ProjectImportDTO("Project " + suffix, manager)));
+                }
+                departments.add(new DepartmentImportDTO("Department " + c + "-" + d, teams));
+            }
+            body.append(objectMapper.writeValueAsString(new CompanyImportDTO("Company " + c, departments))).append('\n');
+        }
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(baseUri.resolve("/api/import"))
+                        .header("Content-Type", "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private static long[] ids(JdbcTemplate jdbcTemplate, String table) {
+        long[] ids = jdbcTemplate.queryForList("select id from " + table, Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        if (ids.length == 0) {
+            throw new IllegalStateException("No rows in " + table + " to run against; check loadtest.seed");
+        }
+        return ids;
+    }
+
+    private static boolean check(LoadTestProperties properties, Histogram total, Duration measured) {
+        boolean passed = true;
+        if (properties.maxP99() != null) {
+            long p99 = total.getValueAtPercentile(99);
+            if (p99 > TimeUnit.NANOSECONDS.toMicros(properties.maxP99().toNanos())) {
+                System.out.printf("FAILED: p99 %.2f ms is above loadtest.max-p99 %d ms%n",
+                        LatencyStats.Snapshot.millis(p99), properties.maxP99().toMillis());
+                passed = false;
+            }
+        }
+        if (properties.minThroughput() != null) {
+            double throughput = LatencyStats.Snapshot.throughput(total, measured);
+            if (throughput < properties.minThroughput()) {
+                System.out.printf("FAILED: %.1f req/s is below loadtest.min-throughput %.1f%n",
+                        throughput, properties.minThroughput());
+                passed = false;
+            }
+        }
+        return passed;
+    }
+}
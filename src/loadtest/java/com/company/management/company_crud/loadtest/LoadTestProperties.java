@@ -0,0 +1,16 @@
+package com.company.management.company_crud.loadtest;
+
+import java.time.Duration;
+
+/**
+ * The {@code loadtest.*} settings; defaults are in {@code application-loadtest.yml}.
+ *
+ * @param maxP99        fail the run when the overall p99 is above this, or {@code null}
+ * @param minThroughput fail the run when fewer requests per second completed, or {@code null}
+ */
+record LoadTestProperties(int concurrency, Duration warmup, Duration duration, int writePercent, Seed seed,
+                          Duration maxP99, Double minThroughput) {
+
+    record Seed(int companies, int departments, int teams) {
+    }
+}
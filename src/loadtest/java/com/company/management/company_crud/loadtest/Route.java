@@ -0,0 +1,73 @@
+package com.company.management.company_crud.loadtest;
+
+/**
+ * Every {@code CompanyController} mapping the workload drives, named like the {@code uri} tag of
+ * {@code http.server.requests} so the two can be compared.
+ */
+enum Route {
+
+    LIST_COMPANIES("GET", "/api/companies"),
+    GET_COMPANY("GET", "/api/companies/{id}"),
+    GET_COMPANY_TREE("GET", "/api/companies/{id}/tree"),
+    GET_COMPANY_STATS("GET", "/api/companies/{id}/stats"),
+    LIST_DEPARTMENTS("GET", "/api/companies/{companyId}/departments"),
+    GET_DEPARTMENT("GET", "/api/departments/{id}"),
+    GET_DEPARTMENT_STATS("GET", "/api/departments/{id}/stats"),
+    GET_DEPARTMENTS_BY_IDS("GET", "/api/departments"),
+    LIST_TEAMS("GET", "/api/departments/{departmentId}/teams"),
+    GET_TEAM("GET", "/api/teams/{id}"),
+    GET_TEAMS_BY_IDS("GET", "/api/teams"),
+    GET_PROJECT("GET", "/api/projects/{id}"),
+    GET_PROJECTS_BY_IDS("GET", "/api/projects"),
+    GET_MANAGER("GET", "/api/managers/{id}"),
+    GET_MANAGERS_BY_IDS("GET", "/api/managers"),
+
+    CREATE_COMPANY("POST", "/api/companies"),
+    UPDATE_COMPANY("PUT", "/api/companies/{id}"),
+    PATCH_COMPANY("PATCH", "/api/companies/{id}"),
+    DELETE_COMPANY("DELETE", "/api/companies/{id}"),
+    CREATE_DEPARTMENT("POST", "/api/companies/{companyId}/departments"),
+    UPDATE_DEPARTMENT("PUT", "/api/departments/{id}"),
+    PATCH_DEPARTMENT("PATCH", "/api/departments/{id}"),
+    DELETE_DEPARTMENT("DELETE", "/api/departments/{id}"),
+    CREATE_TEAM("POST", "/api/departments/{departmentId}/teams"),
+    UPDATE_TEAM("PUT", "/api/teams/{id}"),
+    PATCH_TEAM("PATCH", "/api/teams/{id}"),
+    DELETE_TEAM("DELETE", "/api/teams/{id}"),
+    CREATE_PROJECT("POST", "/api/teams/{teamId}/projects"),
+    UPDATE_PROJECT("PUT", "/api/projects/{id}"),
+    PATCH_PROJECT("PATCH", "/api/projects/{id}"),
+    DELETE_PROJECT("DELETE", "/api/projects/{id}"),
+    CREATE_MANAGER("POST", "/api/managers"),
+    UPDATE_MANAGER("PUT", "/api/managers/{id}"),
+    PATCH_MANAGER("PATCH", "/api/managers/{id}"),
+    DELETE_MANAGER("DELETE", "/api/managers/{id}");
+
+    private final String method;
+    private final String pattern;
+
+    Route(String method, String pattern) {
+        this.method = method;
+        this.pattern = pattern;
+    }
+
+    String method() {
+        return method;
+    }
+
+    boolean isWrite() {
+        return !"GET".equals(method);
+    }
+
+    /**
+     * Expands the single path variable of the pattern.
+     */
+    String path(long id) {
+        return pattern.replaceFirst("\\{[^}]+}", Long.toString(id));
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + pattern;
+    }
+}
@@ -0,0 +1,209 @@
+package com.company.management.company_crud.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The mixed workload. Reads pick uniformly among the read routes and hit random seeded rows;
+ * writes pick uniformly among the write routes. Updates and patches rename seeded rows, so they contend with
+ * reads for the same rows and cache entries, while creates and deletes only touch rows the same
+ * worker created, so the seeded tree stays intact for the whole run.
+ */
+final class Workload {
+
+    private static final List<Route> READS = Arrays.stream(Route.values()).filter(route -> !route.isWrite()).toList();
+    private static final List<Route> WRITES = Arrays.stream(Route.values()).filter(Route::isWrite).toList();
+    private static final int IDS_PER_MULTI_GET = 20;
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final SeededIds seeded;
+    private final int writePercent;
+    private final LatencyStats stats;
+
+    Workload(HttpClient client, URI baseUri, ObjectMapper objectMapper, SeededIds seeded, int writePercent,
+             LatencyStats stats) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.seeded = seeded;
+        this.writePercent = writePercent;
+        this.stats = stats;
+    }
+
+    Runnable worker(BooleanSupplier running) {
+        return () -> {
+            Worker worker = new Worker();
+            while (running.getAsBoolean()) {
+                worker.next();
+            }
+        };
+    }
+
+    /**
+     * Ids of the rows the harness seeded before the run.
+     */
+    record SeededIds(long[] companies, long[] departments, long[] teams, long[] projects, long[] managers) {
+    }
+
+    private final class Worker {
+
+        private final ThreadLocalRandom random = ThreadLocalRandom.current();
+        private final Deque<Long> companies = new ArrayDeque<>();
+        private final Deque<Long> departments = new ArrayDeque<>();
+        private final Deque<Long> teams = new ArrayDeque<>();
+        private final Deque<long[]> projects = new ArrayDeque<>();
+        private final Deque<Long> managers = new ArrayDeque<>();
+        private int sequence;
+
+        void next() {
+            boolean write = random.nextInt(100) < writePercent;
+            Route route = write ? WRITES.get(random.nextInt(WRITES.size())) : READS.get(random.nextInt(READS.size()));
+            execute(feasible(route));
+        }
+
+        /**
+         * Deletes of rows this worker does not own yet, and projects without a free team, become the
+         * matching create, so over a run creates and deletes roughly balance.
+         */
+        private Route feasible(Route route) {
+            return switch (route) {
+                case DELETE_COMPANY -> companies.isEmpty() ? Route.CREATE_COMPANY : route;
+                case DELETE_DEPARTMENT -> departments.isEmpty() ? Route.CREATE_DEPARTMENT : route;
+                case DELETE_TEAM, CREATE_PROJECT -> teams.isEmpty() ? Route.CREATE_TEAM : route;
+                case DELETE_PROJECT -> projects.isEmpty() ? (teams.isEmpty() ? Route.CREATE_TEAM : Route.CREATE_PROJECT) : route;
+                case DELETE_MANAGER -> managers.isEmpty() ? Route.CREATE_MANAGER : route;
+                default -> route;
+            };
+        }
+
+        private void execute(Route route) {
+            String name = "Load " + route.name().toLowerCase() + " " + ++sequence;
+            HttpRequest request = switch (route) {
+                case LIST_COMPANIES -> get(route.path(0));
+                case GET_COMPANY, GET_COMPANY_TREE, GET_COMPANY_STATS, LIST_DEPARTMENTS ->
+                        get(route.path(pick(seeded.companies())));
+                case GET_DEPARTMENT, GET_DEPARTMENT_STATS, LIST_TEAMS -> get(route.path(pick(seeded.departments())));
+                case GET_TEAM -> get(route.path(pick(seeded.teams())));
+                case GET_PROJECT -> get(route.path(pick(seeded.projects())));
+                case GET_MANAGER -> get(route.path(pick(seeded.managers())));
+                case GET_DEPARTMENTS_BY_IDS -> get(route.path(0) + "?ids=" + pickMany(seeded.departments()));
+                case GET_TEAMS_BY_IDS -> get(route.path(0) + "?ids=" + pickMany(seeded.teams()));
+                case GET_PROJECTS_BY_IDS -> get(route.path(0) + "?ids=" + pickMany(seeded.projects()));
+                case GET_MANAGERS_BY_IDS -> get(route.path(0) + "?ids=" + pickMany(seeded.managers()));
+
+                case CREATE_COMPANY -> send(route, route.path(0), Map.of("name", name));
+                case UPDATE_COMPANY -> send(route, route.path(pick(seeded.companies())), Map.of("name", name));
+                case PATCH_COMPANY -> send(route, route.path(pick(seeded.companies())), Map.of("name", name));
+                case DELETE_COMPANY -> send(route, route.path(companies.pop()), null);
+                case CREATE_DEPARTMENT -> send(route, route.path(pick(seeded.companies())), Map.of("name", name));
+                case UPDATE_DEPARTMENT -> send(route, route.path(pick(seeded.departments())), Map.of("name", name));
+                case PATCH_DEPARTMENT -> send(route, route.path(pick(seeded.departments())), Map.of("name", name));
+                case DELETE_DEPARTMENT -> send(route, route.path(departments.pop()), null);
+                case CREATE_TEAM -> send(route, route.path(pick(seeded.departments())), Map.of("name", name));
+                case UPDATE_TEAM -> send(route, route.path(pick(seeded.teams())), Map.of("name", name));
+                case PATCH_TEAM -> send(route, route.path(pick(seeded.teams())), Map.of("name", name));
+                case DELETE_TEAM -> send(route, route.path(teams.pop()), null);
+                case CREATE_PROJECT -> send(route, route.path(teams.peek()), Map.of("name", name));
+                case UPDATE_PROJECT -> send(route, route.path(pick(seeded.projects())), Map.of("name", name));
+                case PATCH_PROJECT -> send(route, route.path(pick(seeded.projects())), Map.of("name", name));
+                case DELETE_PROJECT -> send(route, route.path(projects.peek()[0]), null);
+                case CREATE_MANAGER -> send(route, route.path(0), manager(name));
+                case UPDATE_MANAGER -> send(route, route.path(pick(seeded.managers())), manager(name));
+                case PATCH_MANAGER -> send(route, route.path(pick(seeded.managers())), manager(name));
+                case DELETE_MANAGER -> send(route, route.path(managers.pop()), null);
+            };
+
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response;
+            try {
+                response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            } catch (IOException e) {
+                stats.record(route, System.nanoTime() - start, true);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            boolean failed = response.statusCode() >= 400;
+            stats.record(route, System.nanoTime() - start, failed);
+            if (!failed) {
+                succeeded(route, response.body());
+            }
+        }
+
+        private void succeeded(Route route, byte[] body) {
+            switch (route) {
+                case CREATE_COMPANY -> companies.push(id(body));
+                case CREATE_DEPARTMENT -> departments.push(id(body));
+                case CREATE_TEAM -> teams.push(id(body));
+                case CREATE_PROJECT -> projects.push(new long[]{id(body), teams.pop()});
+                case DELETE_PROJECT -> teams.push(projects.pop()[1]);
+                case CREATE_MANAGER -> managers.push(id(body));
+                default -> {
+                }
+            }
+        }
+
+        private long pick(long[] ids) {
+            return ids[random.nextInt(ids.length)];
+        }
+
+        private String pickMany(long[] ids) {
+            StringJoiner joined = new StringJoiner(",");
+            for (int i = 0; i < IDS_PER_MULTI_GET; i++) {
+                joined.add(Long.toString(pick(ids)));
+            }
+            return joined.toString();
+        }
+
+        private Map<String, String> manager(String name) {
+            return Map.of("name", name, "email", "manager" + sequence + "@loadtest.example");
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(baseUri.resolve(path)).GET().build();
+        }
+
+        private HttpRequest send(Route route, String path, Object body) {
+            HttpRequest.BodyPublisher publisher = body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(json(body));
+            return HttpRequest.newBuilder(baseUri.resolve(path))
+                    .header("Content-Type", "application/json")
+                    .method(route.method(), publisher)
+                    .build();
+        }
+
+        private byte[] json(Object body) {
+            try {
+                return objectMapper.writeValueAsBytes(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private long id(byte[] body) {
+            try {
+                return objectMapper.readTree(body).get("id").asLong();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.company.management.company_crud.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the Hibernate work of each request as {@code hibernate.request.*} distribution summaries,
+ * tagged with the same {@code method} and {@code uri} as {@code http.server.requests}, so a slow
+ * endpoint can be matched with the number of statements it issues.
+ */
+public class HibernateRequestMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry registry;
+
+    public HibernateRequestMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        HibernateRequestStatistics.begin();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // the async dispatch runs the interceptor again; don't leave counts on this pooled thread
+        HibernateRequestStatistics.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        HibernateRequestStatistics.Counts counts = HibernateRequestStatistics.end();
+        if (counts == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        record("hibernate.request.statements", "statements", request, uri, counts.getStatements());
+        record("hibernate.request.entity.loads", "entities", request, uri, counts.getEntityLoads());
+        record("hibernate.request.collection.fetches", "collections", request, uri, counts.getCollectionFetches());
+    }
+
+    private void record(String name, String unit, HttpServletRequest request, String uri, long amount) {
+        DistributionSummary.builder(name)
+                .baseUnit(unit)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(amount);
+    }
+}
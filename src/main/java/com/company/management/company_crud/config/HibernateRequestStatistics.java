@@ -0,0 +1,94 @@
+package com.company.management.company_crud.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the JDBC statements, entity loads and collection fetches of the request on the current
+ * thread, through Hibernate's public extension points: a {@link StatementInspector} sees every SQL
+ * statement Hibernate prepares, and event listeners every entity it materializes and every lazy
+ * collection it initializes. The factory-wide totals are Hibernate's own statistics, which
+ * hibernate-micrometer exports. Counting starts with {@link #begin()} and ends with {@link #end()};
+ * work done outside that window, or on another thread, only shows up in the totals.
+ */
+public final class HibernateRequestStatistics
+        implements StatementInspector, PostLoadEventListener, InitializeCollectionEventListener {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    public static void begin() {
+        CURRENT.set(new Counts());
+    }
+
+    /**
+     * Stops counting on the current thread and returns what was counted, or {@code null} when
+     * {@link #begin()} was not called.
+     */
+    public static Counts end() {
+        Counts counts = CURRENT.get();
+        CURRENT.remove();
+        return counts;
+    }
+
+    /**
+     * Adds the entity load and collection fetch listeners to a factory built with this class as its
+     * statement inspector. Hibernate's own listeners stay first, so these only count.
+     */
+    void register(EntityManagerFactory entityManagerFactory) {
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_LOAD, this);
+        listeners.appendListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+        return sql;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.entityLoads++;
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.collectionFetches++;
+        }
+    }
+
+    public static final class Counts {
+
+        private long statements;
+        private long entityLoads;
+        private long collectionFetches;
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getEntityLoads() {
+            return entityLoads;
+        }
+
+        public long getCollectionFetches() {
+            return collectionFetches;
+        }
+    }
+}
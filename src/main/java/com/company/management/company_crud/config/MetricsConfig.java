@@ -0,0 +1,66 @@
+package com.company.management.company_crud.config;
+
+import com.company.management.company_crud.service.WriteBehindService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.JdbcSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Metrics that Spring Boot does not register on its own. Request latency, Hikari, JVM and
+ * factory-wide Hibernate metrics come from Actuator's auto-configuration; service timers from
+ * {@code @Timed} on the service implementations.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<MeterRegistry> registry;
+    private final HibernateRequestStatistics requestStatistics = new HibernateRequestStatistics();
+
+    public MetricsConfig(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer requestStatisticsCustomizer() {
+        return properties -> properties.put(JdbcSettings.STATEMENT_INSPECTOR, requestStatistics);
+    }
+
+    @Bean
+    SmartInitializingSingleton requestStatisticsListeners(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return () -> entityManagerFactory.ifAvailable(requestStatistics::register);
+    }
+
+    @Bean
+    MeterBinder writeBehindMetrics(WriteBehindService writeBehindService) {
+        return meters -> {
+            Gauge.builder("app.write-behind.depth", writeBehindService, service -> service.getStatus().getDepth())
+                    .description("Renames waiting in the write-behind buffer")
+                    .register(meters);
+            FunctionCounter.builder("app.write-behind.coalesced", writeBehindService,
+                            service -> service.getStatus().getCoalesced())
+                    .description("Renames that replaced a queued rename of the same row")
+                    .register(meters);
+            FunctionCounter.builder("app.write-behind.written", writeBehindService,
+                            service -> service.getStatus().getWritten())
+                    .description("Rows renamed by write-behind flushes")
+                    .register(meters);
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        registry.ifAvailable(meters -> interceptors
+                .addInterceptor(new HibernateRequestMetricsInterceptor(meters))
+                .addPathPatterns("/api/**"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.company.management.company_crud.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Extra wiring for {@code spring.threads.virtual.enabled=true}. Spring Boot itself then serves
+ * Tomcat requests, {@code @Async} work and streamed MVC responses on virtual threads; this adds a
+ * connection limiter matched to the Hikari pool and a pinning monitor.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    return new ConnectionLimitingDataSource(hikari, hikari.getMaximumPoolSize(),
+                            Duration.ofMillis(hikari.getConnectionTimeout()));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${app.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(threshold);
+    }
+
+    @Bean
+    MeterBinder virtualThreadMetrics(DataSource dataSource, VirtualThreadPinningMonitor pinningMonitor) {
+        return registry -> {
+            if (dataSource instanceof ConnectionLimitingDataSource limited) {
+                Gauge.builder("app.db.limiter.available", limited, ConnectionLimitingDataSource::getAvailablePermits)
+                        .description("Connection permits not held by a request")
+                        .register(registry);
+                Gauge.builder("app.db.limiter.waiting", limited, ConnectionLimitingDataSource::getQueueLength)
+                        .description("Virtual threads waiting for a connection permit")
+                        .register(registry);
+            }
+            FunctionCounter.builder("app.virtual.threads.pinned", pinningMonitor,
+                            VirtualThreadPinningMonitor::getPinnedCount)
+                    .description("Virtual thread pins longer than app.virtual-threads.pinning-threshold")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.company.management.company_crud.controller;
+
+import com.company.management.company_crud.model.dto.BatchOperationDTO;
+import com.company.management.company_crud.model.dto.BatchResultDTO;
+import com.company.management.company_crud.model.dto.ImportResultDTO;
+import com.company.management.company_crud.model.dto.WriteBehindStatusDTO;
+import com.company.management.company_crud.service.BatchService;
+import com.company.management.company_crud.service.ExportService;
+import com.company.management.company_crud.service.ImportService;
+import com.company.management.company_crud.service.WriteBehindService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@Tag(name = "Bulk Data", description = "Endpoints for exporting and importing the whole company hierarchy and for batched changes")
+public class BulkDataController {
+
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ExportService exportService;
+    private final ImportService importService;
+    private final BatchService batchService;
+    private final WriteBehindService writeBehindService;
+
+    @GetMapping("/export")
+    @Operation(summary = "Export all data", description = "Streams every company, department, team, project and manager as newline-delimited JSON, managers without a project last. The response is gzip-encoded when the client sends Accept-Encoding: gzip.")
+    public ResponseEntity<StreamingResponseBody> exportHierarchy(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(exportService::exportHierarchy);
+        }
+        return response
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(out -> {
+                    try (GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024)) {
+                        exportService.exportHierarchy(compressed);
+                    }
+                });
+    }
+
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Import companies", description = "Reads newline-delimited JSON, one company document with its nested departments, teams, projects and managers per line, and commits it in batches while the body is still being received. A document that cannot be read or is invalid answers 400; the batches before it stay committed, and the problem's committed member counts their rows.")
+    public ResponseEntity<ImportResultDTO> importCompanies(InputStream body) throws IOException {
+        return new ResponseEntity<>(importService.importCompanies(body), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Run a batch of changes", description = "Runs an ordered list of create, update and delete operations on companies, departments, teams, projects and managers in one transaction and returns a result per operation. A create can name an earlier create in the same batch as its parent with parentRef. If any operation fails, none of them is applied.")
+    public ResponseEntity<List<BatchResultDTO>> executeBatch(@RequestBody List<BatchOperationDTO> operations) {
+        return ResponseEntity.ok(batchService.execute(operations));
+    }
+
+    @GetMapping("/write-behind")
+    @Operation(summary = "Write-behind status", description = "Reports how many queued renames are waiting to be written, how old the oldest one is, and counters of accepted, coalesced, written, dropped and failed renames.")
+    public ResponseEntity<WriteBehindStatusDTO> getWriteBehindStatus() {
+        return ResponseEntity.ok(writeBehindService.getStatus());
+    }
+}
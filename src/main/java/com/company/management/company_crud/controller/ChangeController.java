@@ -0,0 +1,159 @@
+package com.company.management.company_crud.controller;
+
+import com.company.management.company_crud.model.dto.ChangeDTO;
+import com.company.management.company_crud.service.ChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The change feed, read either by long-polling, where each response carries the cursor of the next
+ * request in {@code X-Next-Cursor}, or as a stream of server-sent events whose ids are the same
+ * cursors, so a reconnecting client resumes from {@code Last-Event-ID}. Neither holds a request
+ * thread while it waits.
+ */
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Change Feed", description = "Creates, updates and deletes of all entities in sequence order")
+public class ChangeController {
+
+    static final int MAX_WAIT_SECONDS = 60;
+    static final Duration STREAM_TIMEOUT = Duration.ofMinutes(5);
+    static final Duration STREAM_WAIT = Duration.ofSeconds(30);
+    static final String CHANGE_EVENT = "change";
+
+    private final ChangeFeedService changeFeedService;
+    private final Executor executor;
+
+    public ChangeController(ChangeFeedService changeFeedService,
+                            @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.changeFeedService = changeFeedService;
+        this.executor = executor;
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Read changes", description = "Lists the creates, updates and deletes after the since cursor, oldest first. When there are none yet the request is held for up to wait seconds (0 to " + MAX_WAIT_SECONDS + ") and answered as soon as one commits, or with an empty list. The cursor for the next request is returned in X-Next-Cursor; leave since out to read from the start.")
+    public DeferredResult<ResponseEntity<List<ChangeDTO>>> getChanges(@RequestParam(required = false) String since,
+                                                                      @RequestParam(defaultValue = KeysetCursor.DEFAULT_LIMIT) int limit,
+                                                                      @RequestParam(defaultValue = "30") int wait) {
+        KeysetCursor.checkLimit(limit);
+        if (wait < 0 || wait > MAX_WAIT_SECONDS) {
+            throw new IllegalArgumentException("wait must be between 0 and " + MAX_WAIT_SECONDS);
+        }
+        long after = KeysetCursor.decode(since);
+        DeferredResult<ResponseEntity<List<ChangeDTO>>> result = new DeferredResult<>(
+                Duration.ofSeconds(wait + 10L).toMillis(), () -> response(after, List.of()));
+        CompletableFuture<List<ChangeDTO>> changes =
+                changeFeedService.awaitChanges(after, limit, Duration.ofSeconds(wait));
+        changes.whenComplete((list, failure) -> {
+            if (failure != null) {
+                result.setErrorResult(failure);
+            } else {
+                result.setResult(response(after, list));
+            }
+        });
+        result.onCompletion(() -> changes.cancel(false));
+        return result;
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream changes", description = "Streams the creates, updates and deletes after the since cursor, or after the Last-Event-ID of a reconnecting client, as server-sent events named change whose ids are cursors. A comment is sent after every 30 seconds without changes, and the stream ends after 5 minutes for the client to reconnect.")
+    public SseEmitter streamChanges(@RequestParam(required = false) String since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                    @RequestParam(defaultValue = KeysetCursor.DEFAULT_LIMIT) int limit) {
+        KeysetCursor.checkLimit(limit);
+        long after = KeysetCursor.decode(lastEventId != null && !lastEventId.isEmpty() ? lastEventId : since);
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+        Stream stream = new Stream(emitter, limit);
+        emitter.onTimeout(emitter::complete);
+        emitter.onCompletion(stream::close);
+        emitter.onError(failure -> stream.close());
+        stream.next(after);
+        return emitter;
+    }
+
+    private static ResponseEntity<List<ChangeDTO>> response(long after, List<ChangeDTO> changes) {
+        long next = changes.isEmpty() ? after : changes.get(changes.size() - 1).getSequence();
+        return ResponseEntity.ok()
+                .header(KeysetCursor.NEXT_CURSOR_HEADER, KeysetCursor.encode(next))
+                .body(changes);
+    }
+
+    /**
+     * Waits for the changes after a cursor, sends them on the task executor and waits again, until
+     * the emitter closes, which also stops the wait in progress.
+     */
+    private final class Stream {
+
+        private final SseEmitter emitter;
+        private final int limit;
+        private volatile boolean open = true;
+        private volatile CompletableFuture<List<ChangeDTO>> pending;
+
+        Stream(SseEmitter emitter, int limit) {
+            this.emitter = emitter;
+            this.limit = limit;
+        }
+
+        void next(long after) {
+            if (!open) {
+                return;
+            }
+            CompletableFuture<List<ChangeDTO>> changes = changeFeedService.awaitChanges(after, limit, STREAM_WAIT);
+            pending = changes;
+            if (!open) {
+                changes.cancel(false);
+            }
+            changes.thenAcceptAsync(list -> send(after, list), executor)
+                    .exceptionally(failure -> {
+                        if (open) {
+                            emitter.completeWithError(failure);
+                        }
+                        return null;
+                    });
+        }
+
+        void close() {
+            open = false;
+            CompletableFuture<List<ChangeDTO>> waiting = pending;
+            if (waiting != null) {
+                waiting.cancel(false);
+            }
+        }
+
+        private void send(long after, List<ChangeDTO> changes) {
+            long next = after;
+            try {
+                if (changes.isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+                for (ChangeDTO change : changes) {
+                    next = change.getSequence();
+                    emitter.send(SseEmitter.event()
+                            .id(KeysetCursor.encode(next))
+                            .name(CHANGE_EVENT)
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                close();
+                return;
+            }
+            next(next);
+        }
+    }
+}
@@ -6,9 +6,11 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -18,25 +20,51 @@ import java.util.List;
 @Tag(name = "Company Management", description = "Endpoints for managing companies, departments, teams, projects, and managers")
 public class CompanyController {
 
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+    private static final String IF_MATCH_DESCRIPTION = "With If-Match, answers 412 when the ETag no longer matches"
+            + " and 409 when the row changes while the request runs.";
+
     private final CompanyService companyService;
     private final DepartmentService departmentService;
     private final TeamService teamService;
     private final ProjectService projectService;
     private final ManagerService managerService;
+    private final TreeService treeService;
+    private final StatsService statsService;
+    private final WriteBehindService writeBehindService;
 
     // ===================== Company Endpoints =====================
     @GetMapping("/companies")
-    @Operation(summary = "Get all companies", description = "Fetches a list of all companies.")
-    public ResponseEntity<List<CompanyDTO>> getAllCompanies() {
-        return ResponseEntity.ok(companyService.getAllCompanies());
+    @Operation(summary = "Get all companies", description = "Fetches a page of companies ordered by ID. The cursor for the next page is returned in the X-Next-Cursor and Link headers.")
+    public ResponseEntity<List<CompanyDTO>> getAllCompanies(@RequestParam(required = false) String after,
+                                                            @RequestParam(defaultValue = KeysetCursor.DEFAULT_LIMIT) int limit) {
+        KeysetCursor.checkLimit(limit);
+        return KeysetCursor.toResponse(companyService.getAllCompanies(KeysetCursor.decode(after), limit), limit);
     }
 
     @GetMapping("/companies/{id}")
-    @Operation(summary = "Get a company by ID", description = "Fetches details of a company by its ID.")
-    public ResponseEntity<CompanyDTO> getCompanyById(@PathVariable Long id) {
+    @Operation(summary = "Get a company by ID", description = "Fetches details of a company by its ID. Responses carry an ETag and Last-Modified; a matching If-None-Match or If-Modified-Since is answered with 304 Not Modified.")
+    public ResponseEntity<CompanyDTO> getCompanyById(@PathVariable Long id, WebRequest request) {
+        if (isNotModified(request, companyService.getCompanyVersion(id))) {
+            return null;
+        }
         return ResponseEntity.ok(companyService.getCompanyById(id));
     }
 
+    @GetMapping("/companies/{id}/tree")
+    @Operation(summary = "Get a company's whole structure", description = "Fetches a company with all of its departments, teams, projects and managers nested, read with one query per level.")
+    public ResponseEntity<CompanyTreeDTO> getCompanyTree(@PathVariable Long id) {
+        return ResponseEntity.ok(treeService.getCompanyTree(id));
+    }
+
+    @GetMapping("/companies/{id}/stats")
+    @Operation(summary = "Get a company's counts", description = "Counts the departments, teams, projects and distinct managers of a company, with the same per department. The counts are kept up to date by every write, so reading them costs the same for any size of company.")
+    public ResponseEntity<CompanyStatsDTO> getCompanyStats(@PathVariable Long id) {
+        return ResponseEntity.ok(statsService.getCompanyStats(id));
+    }
+
     @PostMapping("/companies")
     @Operation(summary = "Create a new company", description = "Creates a new company.")
     public ResponseEntity<CompanyDTO> createCompany(@Valid @RequestBody CompanyDTO companyDTO) {
@@ -44,31 +72,59 @@ public class CompanyController {
     }
 
     @PutMapping("/companies/{id}")
-    @Operation(summary = "Update a company", description = "Updates details of a specific company.")
-    public ResponseEntity<CompanyDTO> updateCompany(@PathVariable Long id, @RequestBody CompanyDTO companyDTO) {
-        return ResponseEntity.ok(companyService.updateCompany(id, companyDTO));
+    @Operation(summary = "Update a company", description = "Updates details of a specific company. " + IF_MATCH_DESCRIPTION)
+    public ResponseEntity<CompanyDTO> updateCompany(@PathVariable Long id, @RequestBody CompanyDTO companyDTO,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return ResponseEntity.ok(companyService.updateCompany(id, companyDTO, IfMatch.entityTag(ifMatch)));
+    }
+
+    @PatchMapping("/companies/{id}")
+    @Operation(summary = "Partially update a company", description = "Renames a company with a single UPDATE and no prior read. The name is required and checked as on PUT; other fields are ignored. Answers 204 without a body.")
+    public ResponseEntity<Void> patchCompany(@PathVariable Long id, @RequestBody CompanyDTO patch) {
+        companyService.patchCompany(id, patch);
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/companies/{id}")
-    @Operation(summary = "Delete a company", description = "Deletes a company by its ID.")
-    public ResponseEntity<Void> deleteCompany(@PathVariable Long id) {
-        companyService.deleteCompany(id);
+    @Operation(summary = "Delete a company", description = "Deletes a company with its departments, teams and projects. Answers 404 when there is none. " + IF_MATCH_DESCRIPTION)
+    public ResponseEntity<Void> deleteCompany(@PathVariable Long id,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        companyService.deleteCompany(id, IfMatch.entityTag(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     // ===================== Department Endpoints =====================
     @GetMapping("/companies/{companyId}/departments")
-    @Operation(summary = "Get all departments of a company", description = "Fetches all departments under a specific company.")
-    public ResponseEntity<List<DepartmentDTO>> getDepartmentsByCompanyId(@PathVariable Long companyId) {
-        return ResponseEntity.ok(departmentService.getDepartmentsByCompanyId(companyId));
+    @Operation(summary = "Get all departments of a company", description = "Fetches a page of departments under a specific company, ordered by ID.")
+    public ResponseEntity<List<DepartmentDTO>> getDepartmentsByCompanyId(@PathVariable Long companyId,
+                                                                         @RequestParam(required = false) String after,
+                                                                         @RequestParam(defaultValue = KeysetCursor.DEFAULT_LIMIT) int limit) {
+        KeysetCursor.checkLimit(limit);
+        return KeysetCursor.toResponse(
+                departmentService.getDepartmentsByCompanyId(companyId, KeysetCursor.decode(after), limit), limit);
     }
 
     @GetMapping("/departments/{id}")
-    @Operation(summary = "Get a department by ID", description = "Fetches details of a department by its ID.")
-    public ResponseEntity<DepartmentDTO> getDepartmentById(@PathVariable Long id) {
+    @Operation(summary = "Get a department by ID", description = "Fetches details of a department by its ID. Responses carry an ETag and Last-Modified; a matching If-None-Match or If-Modified-Since is answered with 304 Not Modified.")
+    public ResponseEntity<DepartmentDTO> getDepartmentById(@PathVariable Long id, WebRequest request) {
+        if (isNotModified(request, departmentService.getDepartmentVersion(id))) {
+            return null;
+        }
         return ResponseEntity.ok(departmentService.getDepartmentById(id));
     }
 
+    @GetMapping("/departments/{id}/stats")
+    @Operation(summary = "Get a department's counts", description = "Counts the teams, projects and distinct managers of a department, kept up to date by every write.")
+    public ResponseEntity<DepartmentStatsDTO> getDepartmentStats(@PathVariable Long id) {
+        return ResponseEntity.ok(statsService.getDepartmentStats(id));
+    }
+
+    @GetMapping(value = "/departments", params = "ids")
+    @Operation(summary = "Get departments by IDs", description = "Fetches up to " + IdList.MAX_IDS + " departments with their team names, in the order of the comma-separated ids. Unknown ids are left out.")
+    public ResponseEntity<List<DepartmentDTO>> getDepartmentsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(departmentService.getDepartmentsByIds(IdList.check(ids)));
+    }
+
     @PostMapping("/companies/{companyId}/departments")
     @Operation(summary = "Create a department", description = "Creates a new department under a specific company.")
     public ResponseEntity<DepartmentDTO> createDepartment(@PathVariable Long companyId, @Valid @RequestBody DepartmentDTO departmentDTO) {
@@ -76,31 +132,59 @@ public class CompanyController {
     }
 
     @PutMapping("/departments/{id}")
-    @Operation(summary = "Update a department", description = "Updates a department's details.")
-    public ResponseEntity<DepartmentDTO> updateDepartment(@PathVariable Long id, @RequestBody DepartmentDTO departmentDTO) {
-        return ResponseEntity.ok(departmentService.updateDepartment(id, departmentDTO));
+    @Operation(summary = "Update a department", description = "Updates a department's details. With Prefer: respond-async and write-behind enabled, and no If-Match, a valid name is queued and answered with 202 Accepted. " + IF_MATCH_DESCRIPTION)
+    public ResponseEntity<DepartmentDTO> updateDepartment(@PathVariable Long id, @RequestBody DepartmentDTO departmentDTO,
+                                                          @RequestHeader(value = PREFER, required = false) String prefer,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        String entityTag = IfMatch.entityTag(ifMatch);
+        if (entityTag == null && respondAsync(prefer)) {
+            writeBehindService.enqueueRename(EntityType.DEPARTMENT, id, departmentDTO.getName());
+            return ResponseEntity.accepted().header(PREFERENCE_APPLIED, RESPOND_ASYNC).build();
+        }
+        return ResponseEntity.ok(departmentService.updateDepartment(id, departmentDTO, entityTag));
+    }
+
+    @PatchMapping("/departments/{id}")
+    @Operation(summary = "Partially update a department", description = "Renames a department with a single UPDATE and no prior read. The name is required and checked as on PUT; other fields are ignored. Answers 204 without a body.")
+    public ResponseEntity<Void> patchDepartment(@PathVariable Long id, @RequestBody DepartmentDTO patch) {
+        departmentService.patchDepartment(id, patch);
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/departments/{id}")
-    @Operation(summary = "Delete a department", description = "Deletes a department by its ID.")
-    public ResponseEntity<Void> deleteDepartment(@PathVariable Long id) {
-        departmentService.deleteDepartment(id);
+    @Operation(summary = "Delete a department", description = "Deletes a department with its teams and projects. Answers 404 when there is none. " + IF_MATCH_DESCRIPTION)
+    public ResponseEntity<Void> deleteDepartment(@PathVariable Long id,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        departmentService.deleteDepartment(id, IfMatch.entityTag(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     // ===================== Team Endpoints =====================
     @GetMapping("/departments/{departmentId}/teams")
-    @Operation(summary = "Get all teams of a department", description = "Fetches all teams under a specific department.")
-    public ResponseEntity<List<TeamDTO>> getTeamsByDepartmentId(@PathVariable Long departmentId) {
-        return ResponseEntity.ok(teamService.getTeamsByDepartmentId(departmentId));
+    @Operation(summary = "Get all teams of a department", description = "Fetches a page of teams under a specific department, ordered by ID.")
+    public ResponseEntity<List<TeamDTO>> getTeamsByDepartmentId(@PathVariable Long departmentId,
+                                                                @RequestParam(required = false) String after,
+                                                                @RequestParam(defaultValue = KeysetCursor.DEFAULT_LIMIT) int limit) {
+        KeysetCursor.checkLimit(limit);
+        return KeysetCursor.toResponse(
+                teamService.getTeamsByDepartmentId(departmentId, KeysetCursor.decode(after), limit), limit);
     }
 
     @GetMapping("/teams/{id}")
-    @Operation(summary = "Get a team by ID", description = "Fetches details of a team by its ID.")
-    public ResponseEntity<TeamDTO> getTeamById(@PathVariable Long id) {
+    @Operation(summary = "Get a team by ID", description = "Fetches details of a team by its ID. Responses carry an ETag and Last-Modified; a matching If-None-Match or If-Modified-Since is answered with 304 Not Modified.")
+    public ResponseEntity<TeamDTO> getTeamById(@PathVariable Long id, WebRequest request) {
+        if (isNotModified(request, teamService.getTeamVersion(id))) {
+            return null;
+        }
         return ResponseEntity.ok(teamService.getTeamById(id));
     }
 
+    @GetMapping(value = "/teams", params = "ids")
+    @Operation(summary = "Get teams by IDs", description = "Fetches up to " + IdList.MAX_IDS + " teams in one query, in the order of the comma-separated ids. Unknown ids are left out.")
+    public ResponseEntity<List<TeamDTO>> getTeamsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(teamService.getTeamsByIds(IdList.check(ids)));
+    }
+
     @PostMapping("/departments/{departmentId}/teams")
     @Operation(summary = "Create a team", description = "Creates a new team under a specific department.")
     public ResponseEntity<TeamDTO> createTeam(@PathVariable Long departmentId, @Valid @RequestBody TeamDTO teamDTO) {
@@ -108,25 +192,49 @@ public class CompanyController {
     }
 
     @PutMapping("/teams/{id}")
-    @Operation(summary = "Update a team", description = "Updates a team's details.")
-    public ResponseEntity<TeamDTO> updateTeam(@PathVariable Long id, @RequestBody TeamDTO teamDTO) {
-        return ResponseEntity.ok(teamService.updateTeam(id, teamDTO));
+    @Operation(summary = "Update a team", description = "Updates a team's details. With Prefer: respond-async and write-behind enabled, and no If-Match, a valid name is queued and answered with 202 Accepted. " + IF_MATCH_DESCRIPTION)
+    public ResponseEntity<TeamDTO> updateTeam(@PathVariable Long id, @RequestBody TeamDTO teamDTO,
+                                              @RequestHeader(value = PREFER, required = false) String prefer,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        String entityTag = IfMatch.entityTag(ifMatch);
+        if (entityTag == null && respondAsync(prefer)) {
+            writeBehindService.enqueueRename(EntityType.TEAM, id, teamDTO.getName());
+            return ResponseEntity.accepted().header(PREFERENCE_APPLIED, RESPOND_ASYNC).build();
+        }
+        return ResponseEntity.ok(teamService.updateTeam(id, teamDTO, entityTag));
+    }
+
+    @PatchMapping("/teams/{id}")
+    @Operation(summary = "Partially update a team", description = "Renames a team with a single UPDATE and no prior read. The name is required and checked as on PUT; other fields are ignored. Answers 204 without a body.")
+    public ResponseEntity<Void> patchTeam(@PathVariable Long id, @RequestBody TeamDTO patch) {
+        teamService.patchTeam(id, patch);
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/teams/{id}")
-    @Operation(summary = "Delete a team", description = "Deletes a team by its ID.")
-    public ResponseEntity<Void> deleteTeam(@PathVariable Long id) {
-        teamService.deleteTeam(id);
+    @Operation(summary = "Delete a team", description = "Deletes a team with its project. Answers 404 when there is none. " + IF_MATCH_DESCRIPTION)
+    public ResponseEntity<Void> deleteTeam(@PathVariable Long id,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        teamService.deleteTeam(id, IfMatch.entityTag(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     // ===================== Project Endpoints =====================
     @GetMapping("/projects/{id}")
-    @Operation(summary = "Get a project by ID", description = "Fetches details of a project by its ID.")
-    public ResponseEntity<ProjectDTO> getProjectById(@PathVariable Long id) {
+    @Operation(summary = "Get a project by ID", description = "Fetches details of a project by its ID. Responses carry an ETag and Last-Modified; a matching If-None-Match or If-Modified-Since is answered with 304 Not Modified.")
+    public ResponseEntity<ProjectDTO> getProjectById(@PathVariable Long id, WebRequest request) {
+        if (isNotModified(request, projectService.getProjectVersion(id))) {
+            return null;
+        }
         return ResponseEntity.ok(projectService.getProjectById(id));
     }
 
+    @GetMapping(value = "/projects", params = "ids")
+    @Operation(summary = "Get projects by IDs", description = "Fetches up to " + IdList.MAX_IDS + " projects in one query, in the order of the comma-separated ids. Unknown ids are left out.")
+    public ResponseEntity<List<ProjectDTO>> getProjectsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(projectService.getProjectsByIds(IdList.check(ids)));
+    }
+
     @PostMapping("/teams/{teamId}/projects")
     @Operation(summary = "Create a project", description = "Creates a new project under a specific team.")
     public ResponseEntity<ProjectDTO> createProject(@PathVariable Long teamId, @Valid @RequestBody ProjectDTO projectDTO) {
@@ -134,25 +242,43 @@ public class CompanyController {
     }
 
     @PutMapping("/projects/{id}")
-    @Operation(summary = "Update a project", description = "Updates a project's details.")
-    public ResponseEntity<ProjectDTO> updateProject(@PathVariable Long id, @RequestBody ProjectDTO projectDTO) {
-        return ResponseEntity.ok(projectService.updateProject(id, projectDTO));
+    @Operation(summary = "Update a project", description = "Updates a project's details. " + IF_MATCH_DESCRIPTION)
+    public ResponseEntity<ProjectDTO> updateProject(@PathVariable Long id, @RequestBody ProjectDTO projectDTO,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return ResponseEntity.ok(projectService.updateProject(id, projectDTO, IfMatch.entityTag(ifMatch)));
+    }
+
+    @PatchMapping("/projects/{id}")
+    @Operation(summary = "Partially update a project", description = "Renames a project with a single UPDATE and no prior read. The name is required and checked as on PUT; other fields are ignored. Answers 204 without a body.")
+    public ResponseEntity<Void> patchProject(@PathVariable Long id, @RequestBody ProjectDTO patch) {
+        projectService.patchProject(id, patch);
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/projects/{id}")
-    @Operation(summary = "Delete a project", description = "Deletes a project by its ID.")
-    public ResponseEntity<Void> deleteProject(@PathVariable Long id) {
-        projectService.deleteProject(id);
+    @Operation(summary = "Delete a project", description = "Deletes a project with its manager. Answers 404 when there is none. " + IF_MATCH_DESCRIPTION)
+    public ResponseEntity<Void> deleteProject(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        projectService.deleteProject(id, IfMatch.entityTag(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     // ===================== Manager Endpoints =====================
     @GetMapping("/managers/{id}")
-    @Operation(summary = "Get a manager by ID", description = "Fetches details of a manager by their ID.")
-    public ResponseEntity<ManagerDTO> getManagerById(@PathVariable Long id) {
+    @Operation(summary = "Get a manager by ID", description = "Fetches details of a manager by their ID. Responses carry an ETag and Last-Modified; a matching If-None-Match or If-Modified-Since is answered with 304 Not Modified.")
+    public ResponseEntity<ManagerDTO> getManagerById(@PathVariable Long id, WebRequest request) {
+        if (isNotModified(request, managerService.getManagerVersion(id))) {
+            return null;
+        }
         return ResponseEntity.ok(managerService.getManagerById(id));
     }
 
+    @GetMapping(value = "/managers", params = "ids")
+    @Operation(summary = "Get managers by IDs", description = "Fetches up to " + IdList.MAX_IDS + " managers in one query, in the order of the comma-separated ids. Unknown ids are left out.")
+    public ResponseEntity<List<ManagerDTO>> getManagersByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(managerService.getManagersByIds(IdList.check(ids)));
+    }
+
     @PostMapping("/managers")
     @Operation(summary = "Create a manager", description = "Creates a new manager.")
     public ResponseEntity<ManagerDTO> createManager(@Valid @RequestBody ManagerDTO managerDTO) {
@@ -160,17 +286,51 @@ public class CompanyController {
     }
 
     @PutMapping("/managers/{id}")
-    @Operation(summary = "Update a manager", description = "Updates a manager's details.")
-    public ResponseEntity<ManagerDTO> updateManager(@PathVariable Long id, @RequestBody ManagerDTO managerDTO) {
-        return ResponseEntity.ok(managerService.updateManager(id, managerDTO));
+    @Operation(summary = "Update a manager", description = "Updates a manager's details. " + IF_MATCH_DESCRIPTION)
+    public ResponseEntity<ManagerDTO> updateManager(@PathVariable Long id, @RequestBody ManagerDTO managerDTO,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return ResponseEntity.ok(managerService.updateManager(id, managerDTO, IfMatch.entityTag(ifMatch)));
+    }
+
+    @PatchMapping("/managers/{id}")
+    @Operation(summary = "Partially update a manager", description = "Changes the name, the email or both of a manager with a single UPDATE and no prior read. Fields left out or null keep their values. Answers 204 without a body.")
+    public ResponseEntity<Void> patchManager(@PathVariable Long id, @RequestBody ManagerDTO patch) {
+        managerService.patchManager(id, patch);
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/managers/{id}")
-    @Operation(summary = "Delete a manager", description = "Deletes a manager by their ID.")
-    public ResponseEntity<Void> deleteManager(@PathVariable Long id) {
-        managerService.deleteManager(id);
+    @Operation(summary = "Delete a manager", description = "Deletes a manager. Answers 404 when there is none, and 409 while a project still references the manager. " + IF_MATCH_DESCRIPTION)
+    public ResponseEntity<Void> deleteManager(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        managerService.deleteManager(id, IfMatch.entityTag(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Checks the request's validators against a version read before the body. A write that lands in
+     * between can only make the body newer than its ETag, which costs the client one extra 200 later
+     * but never a stale 304. Also sets the ETag and Last-Modified response headers.
+     */
+    private static boolean isNotModified(WebRequest request, VersionDTO version) {
+        return version.getLastModified() == null
+                ? request.checkNotModified(version.getEntityTag())
+                : request.checkNotModified(version.getEntityTag(), version.getLastModified().toEpochMilli());
+    }
 
+    /**
+     * RFC 7240: a client that sends {@code Prefer: respond-async} accepts a 202 in place of the
+     * result. The preference is ignored, and the update runs synchronously, unless write-behind is on.
+     */
+    private boolean respondAsync(String prefer) {
+        if (prefer == null || !writeBehindService.isEnabled()) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            if (preference.trim().equalsIgnoreCase(RESPOND_ASYNC)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,27 @@
+package com.company.management.company_crud.controller;
+
+import java.util.List;
+
+/**
+ * Checks the {@code ids} parameter of the multi-get endpoints. Repeated ids are dropped, keeping
+ * the first occurrence, so the response holds each entity once in request order. Public for the
+ * reactive API, which mirrors these endpoints.
+ */
+public final class IdList {
+
+    public static final int MAX_IDS = 100;
+
+    private IdList() {
+    }
+
+    public static List<Long> check(List<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        if (distinct.isEmpty() || distinct.size() > MAX_IDS) {
+            throw new IllegalArgumentException("ids must contain between 1 and " + MAX_IDS + " distinct ids");
+        }
+        if (distinct.contains(null)) {
+            throw new IllegalArgumentException("ids must not contain empty values");
+        }
+        return distinct;
+    }
+}
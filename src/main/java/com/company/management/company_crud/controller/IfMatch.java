@@ -0,0 +1,39 @@
+package com.company.management.company_crud.controller;
+
+import com.company.management.company_crud.exception.PreconditionFailedException;
+import org.springframework.http.ETag;
+
+import java.util.List;
+
+/**
+ * Reads the {@code If-Match} header of a PUT or DELETE. The services compare the tag with the
+ * current one in the transaction that writes, so only the syntax is checked here. {@code *} asks
+ * for nothing beyond the resource existing, which every write checks anyway.
+ */
+final class IfMatch {
+
+    private IfMatch() {
+    }
+
+    /**
+     * The entity tag the write is conditional on, or {@code null} when it is unconditional. A weak
+     * tag never matches under the strong comparison RFC 9110 requires for If-Match.
+     */
+    static String entityTag(String header) {
+        if (header == null) {
+            return null;
+        }
+        List<ETag> tags = ETag.parse(header);
+        if (tags.size() != 1) {
+            throw new IllegalArgumentException("If-Match must hold a single entity tag or *");
+        }
+        ETag tag = tags.get(0);
+        if (tag.isWildcard()) {
+            return null;
+        }
+        if (tag.weak()) {
+            throw new PreconditionFailedException("If-Match does not match the current entity tag");
+        }
+        return tag.tag();
+    }
+}
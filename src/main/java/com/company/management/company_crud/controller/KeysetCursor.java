@@ -0,0 +1,72 @@
+package com.company.management.company_crud.controller;
+
+import com.company.management.company_crud.model.dto.KeysetPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Encodes and decodes the opaque {@code after} cursors used by the list endpoints and turns a
+ * {@link KeysetPage} into a response. The body stays a plain JSON array; the next cursor travels
+ * in the {@code X-Next-Cursor} header and as a {@code Link: rel="next"} header.
+ */
+final class KeysetCursor {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String DEFAULT_LIMIT = "100";
+    static final int MAX_LIMIT = 1000;
+
+    private static final String PREFIX = "id:";
+
+    private KeysetCursor() {
+    }
+
+    static String encode(long afterId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + afterId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the id to seek past, {@code 0} for the first page.
+     */
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (raw.startsWith(PREFIX)) {
+                return Long.parseLong(raw.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException ignored) {
+            // falls through to the error below; NumberFormatException is an IllegalArgumentException
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    static <T> ResponseEntity<List<T>> toResponse(KeysetPage<T> page, int limit) {
+        if (!page.hasNext()) {
+            return ResponseEntity.ok(page.getItems());
+        }
+        String cursor = encode(page.getNextAfterId());
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", cursor)
+                .replaceQueryParam("limit", limit)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, cursor)
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(page.getItems());
+    }
+}
@@ -0,0 +1,55 @@
+package com.company.management.company_crud.controller;
+
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.SearchHitDTO;
+import com.company.management.company_crud.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@Tag(name = "Search", description = "Type-ahead search over the names of all entities")
+public class SearchController {
+
+    static final int MAX_HITS = 100;
+
+    private final SearchService searchService;
+
+    @GetMapping("/search")
+    @Operation(summary = "Search names", description = "Finds companies, departments, teams, projects and managers whose name contains q, ignoring case, served from an in-memory index. Queries shorter than three characters match name prefixes only. types is a comma-separated subset of company, department, team, project and manager; prefix matches come first.")
+    public ResponseEntity<List<SearchHitDTO>> search(@RequestParam String q,
+                                                     @RequestParam(required = false) List<String> types,
+                                                     @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_HITS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_HITS);
+        }
+        return ResponseEntity.ok(searchService.searchNames(q, parseTypes(types), limit));
+    }
+
+    private static Set<EntityType> parseTypes(List<String> types) {
+        Set<EntityType> parsed = EnumSet.noneOf(EntityType.class);
+        if (types == null) {
+            return parsed;
+        }
+        for (String type : types) {
+            try {
+                parsed.add(EntityType.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unknown type: " + type.trim());
+            }
+        }
+        return parsed;
+    }
+}
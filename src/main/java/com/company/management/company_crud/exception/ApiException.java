@@ -0,0 +1,20 @@
+package com.company.management.company_crud.exception;
+
+/**
+ * An expected outcome that a request ends with, such as an id that does not exist. These are
+ * thrown without a stack trace: the response never shows one, and capturing it would be most of
+ * the cost of answering a client that probes missing ids.
+ */
+public abstract class ApiException extends RuntimeException {
+
+    private final ErrorCode errorCode;
+
+    protected ApiException(ErrorCode errorCode, String message) {
+        super(message, null, false, false);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
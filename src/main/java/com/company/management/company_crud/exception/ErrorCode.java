@@ -0,0 +1,45 @@
+package com.company.management.company_crud.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * The error codes of the API, each with its status and RFC 7807 problem type. The code itself is
+ * sent as the {@code error} member of the problem, where clients of the earlier error body find it.
+ */
+public enum ErrorCode {
+
+    NOT_FOUND(HttpStatus.NOT_FOUND),
+    INVALID_REQUEST(HttpStatus.BAD_REQUEST),
+    VALIDATION_ERROR(HttpStatus.BAD_REQUEST),
+    PRECONDITION_FAILED(HttpStatus.PRECONDITION_FAILED),
+    CONFLICT(HttpStatus.CONFLICT),
+    UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE),
+    ERROR(HttpStatus.INTERNAL_SERVER_ERROR);
+
+    private final HttpStatus status;
+    private final URI type;
+
+    ErrorCode(HttpStatus status) {
+        this.status = status;
+        this.type = URI.create("urn:company-crud:problem:" + name().toLowerCase(Locale.ROOT).replace('_', '-'));
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * A new problem for one response; problems are not shared, since Spring fills in their
+     * {@code instance} with the request path.
+     */
+    public ProblemDetail problem(String detail) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        problem.setType(type);
+        problem.setProperty("error", name());
+        return problem;
+    }
+}
@@ -1,33 +0,0 @@
-package com.company.management.company_crud.exception;
-
-import com.fasterxml.jackson.annotation.JsonProperty;
-
-public class ErrorResponse {
-
-    @JsonProperty("error")
-    private String error;
-
-    @JsonProperty("message")
-    private String message;
-
-    public ErrorResponse(String error, String message) {
-        this.error = error;
-        this.message = message;
-    }
-
-    public String getError() {
-        return error;
-    }
-
-    public void setError(String error) {
-        this.error = error;
-    }
-
-    public String getMessage() {
-        return message;
-    }
-
-    public void setMessage(String message) {
-        this.message = message;
-    }
-}
@@ -1,36 +1,124 @@
 package com.company.management.company_crud.exception;
 
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+/**
+ * Answers failures with RFC 7807 problems and counts them per error code in {@code app.errors}.
+ * The counters are registered up front, so answering an error does no meter lookup.
+ */
+@Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
-    @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex) {
-        ErrorResponse errorResponse = new ErrorResponse("ERROR", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    private final Map<ErrorCode, Counter> errors = new EnumMap<>(ErrorCode.class);
+
+    public GlobalExceptionHandler(ObjectProvider<MeterRegistry> registry) {
+        MeterRegistry meters = registry.getIfAvailable(SimpleMeterRegistry::new);
+        for (ErrorCode code : ErrorCode.values()) {
+            errors.put(code, Counter.builder("app.errors")
+                    .description("Error responses by error code")
+                    .tag("code", code.name())
+                    .register(meters));
+        }
+    }
+
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<ProblemDetail> handleApiException(ApiException ex) {
+        return respond(ex.getErrorCode(), ex.getMessage());
+    }
+
+    /**
+     * Also reports what the import committed before the document it stopped at, so the client
+     * knows where to resume.
+     */
+    @ExceptionHandler(ImportFailedException.class)
+    public ResponseEntity<ProblemDetail> handleImportFailedException(ImportFailedException ex) {
+        ResponseEntity<ProblemDetail> response = respond(ex.getErrorCode(), ex.getMessage());
+        response.getBody().setProperty("committed", ex.getCommitted());
+        return response;
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
-        ErrorResponse errorResponse = new ErrorResponse("INVALID_REQUEST", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    public ResponseEntity<ProblemDetail> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return respond(ErrorCode.INVALID_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler({MethodArgumentTypeMismatchException.class, HttpMessageNotReadableException.class})
+    public ResponseEntity<ProblemDetail> handleUnreadableRequest(RuntimeException ex) {
+        return respond(ErrorCode.INVALID_REQUEST, "The request could not be read");
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ProblemDetail> handleDatabaseUnavailable(RuntimeException ex) {
+        return respond(ErrorCode.UNAVAILABLE, "Database connection not available");
+    }
+
+    /**
+     * A versioned write that lost a race: the row changed between being read, or matched against
+     * If-Match, and being written.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return respond(ErrorCode.CONFLICT, "The resource was changed by another request");
+    }
+
+    /**
+     * A write the database refused for a constraint, such as deleting a manager a project still
+     * references. The constraint's message names tables and columns, so it is not passed on.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ProblemDetail> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        log.debug("Constraint violation", ex);
+        return respond(ErrorCode.CONFLICT, "The request conflicts with data that depends on the resource");
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
-        String errors = ex.getBindingResult().getFieldErrors().stream()
+    public ResponseEntity<ProblemDetail> handleValidationException(MethodArgumentNotValidException ex) {
+        String message = ex.getBindingResult().getFieldErrors().stream()
                 .map(error -> error.getField() + ": " + error.getDefaultMessage())
                 .collect(Collectors.joining(", "));
 
-        ErrorResponse errorResponse = new ErrorResponse("VALIDATION_ERROR", errors);
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        return respond(ErrorCode.VALIDATION_ERROR, message);
+    }
+
+    /**
+     * Anything else is a fault, not an outcome a client caused, so it is logged with its stack
+     * trace and answered without its message.
+     */
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<ProblemDetail> handleRuntimeException(RuntimeException ex) {
+        log.error("Request failed", ex);
+        return respond(ErrorCode.ERROR, "The request failed");
+    }
+
+    private ResponseEntity<ProblemDetail> respond(ErrorCode code, String detail) {
+        errors.get(code).increment();
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(code.getStatus());
+        if (code.getStatus() == HttpStatus.SERVICE_UNAVAILABLE) {
+            response.header(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return response.body(code.problem(detail));
     }
 }
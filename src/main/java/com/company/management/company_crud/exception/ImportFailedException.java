@@ -0,0 +1,21 @@
+package com.company.management.company_crud.exception;
+
+import com.company.management.company_crud.model.dto.ImportResultDTO;
+
+/**
+ * An import that stopped at a document it could not read or that failed validation. The batches
+ * before that document are already committed; {@link #getCommitted()} counts what they hold.
+ */
+public class ImportFailedException extends ApiException {
+
+    private final transient ImportResultDTO committed;
+
+    public ImportFailedException(String message, ImportResultDTO committed) {
+        super(ErrorCode.INVALID_REQUEST, message);
+        this.committed = committed;
+    }
+
+    public ImportResultDTO getCommitted() {
+        return committed;
+    }
+}
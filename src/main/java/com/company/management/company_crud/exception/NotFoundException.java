@@ -0,0 +1,8 @@
+package com.company.management.company_crud.exception;
+
+public class NotFoundException extends ApiException {
+
+    public NotFoundException(String message) {
+        super(ErrorCode.NOT_FOUND, message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.company.management.company_crud.exception;
+
+public class PreconditionFailedException extends ApiException {
+
+    public PreconditionFailedException(String message) {
+        super(ErrorCode.PRECONDITION_FAILED, message);
+    }
+}
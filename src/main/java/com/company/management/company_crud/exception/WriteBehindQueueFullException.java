@@ -0,0 +1,8 @@
+package com.company.management.company_crud.exception;
+
+public class WriteBehindQueueFullException extends ApiException {
+
+    public WriteBehindQueueFullException(String message) {
+        super(ErrorCode.UNAVAILABLE, message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.company.management.company_crud.mapper;
+
+import com.company.management.company_crud.model.dao.ChangeRecord;
+import com.company.management.company_crud.model.dto.ChangeDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface ChangeMapper {
+
+    @Mapping(source = "id", target = "sequence")
+    @Mapping(source = "entityType", target = "type")
+    @Mapping(source = "entityId", target = "id")
+    ChangeDTO changeRecordToChangeDTO(ChangeRecord changeRecord);
+
+    List<ChangeDTO> changeRecordsToChangeDTOs(List<ChangeRecord> changeRecords);
+}
@@ -3,6 +3,8 @@ package com.company.management.company_crud.mapper;
 import com.company.management.company_crud.model.dao.Company;
 import com.company.management.company_crud.model.dao.Department;
 import com.company.management.company_crud.model.dto.CompanyDTO;
+import com.company.management.company_crud.model.dto.CompanyImportDTO;
+import com.company.management.company_crud.model.projection.CompanyView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -17,9 +19,24 @@ public interface CompanyMapper {
     @Mapping(source = "departments", target = "departmentNames", qualifiedByName = "mapDepartmentNames")
     CompanyDTO companyToCompanyDTO(Company company);
 
+    @Mapping(source = "view.id", target = "id")
+    @Mapping(source = "view.name", target = "name")
+    @Mapping(source = "departmentNames", target = "departmentNames")
+    CompanyDTO companyViewToCompanyDTO(CompanyView view, List<String> departmentNames);
+
     @Mapping(target = "departments", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "childrenVersion", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
     Company companyDTOToCompany(CompanyDTO companyDTO);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "departments", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "childrenVersion", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
+    Company companyImportDTOToCompany(CompanyImportDTO companyImportDTO);
+
     @Named("mapDepartmentNames")
     default List<String> mapDepartmentNames(List<Department> departments) {
         return departments != null
@@ -3,6 +3,8 @@ package com.company.management.company_crud.mapper;
 import com.company.management.company_crud.model.dao.Department;
 import com.company.management.company_crud.model.dao.Team;
 import com.company.management.company_crud.model.dto.DepartmentDTO;
+import com.company.management.company_crud.model.dto.DepartmentImportDTO;
+import com.company.management.company_crud.model.projection.DepartmentView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -18,11 +20,28 @@ public interface DepartmentMapper {
     @Mapping(source = "teams", target = "teamNames", qualifiedByName = "mapTeamNames")
     DepartmentDTO departmentToDepartmentDTO(Department department);
 
+    @Mapping(source = "view.id", target = "id")
+    @Mapping(source = "view.name", target = "name")
+    @Mapping(source = "view.companyName", target = "companyName")
+    @Mapping(source = "teamNames", target = "teamNames")
+    DepartmentDTO departmentViewToDepartmentDTO(DepartmentView view, List<String> teamNames);
+
 
     @Mapping(target = "company", ignore = true)
     @Mapping(target = "teams", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "childrenVersion", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
     Department departmentDTOToDepartment(DepartmentDTO departmentDTO);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "company", ignore = true)
+    @Mapping(target = "teams", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "childrenVersion", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
+    Department departmentImportDTOToDepartment(DepartmentImportDTO departmentImportDTO);
+
 
     @Named("mapTeamNames")
     default List<String> mapTeamNames(List<Team> teams) {
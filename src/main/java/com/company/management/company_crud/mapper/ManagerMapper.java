@@ -2,7 +2,9 @@ package com.company.management.company_crud.mapper;
 
 import com.company.management.company_crud.model.dao.Manager;
 import com.company.management.company_crud.model.dto.ManagerDTO;
+import com.company.management.company_crud.model.projection.ManagerView;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface ManagerMapper {
@@ -10,6 +12,10 @@ public interface ManagerMapper {
 
     ManagerDTO managerToManagerDTO(Manager manager);
 
+    ManagerDTO managerViewToManagerDTO(ManagerView view);
 
+
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
     Manager managerDTOToManager(ManagerDTO managerDTO);
 }
@@ -2,6 +2,8 @@ package com.company.management.company_crud.mapper;
 
 import com.company.management.company_crud.model.dao.Project;
 import com.company.management.company_crud.model.dto.ProjectDTO;
+import com.company.management.company_crud.model.dto.ProjectImportDTO;
+import com.company.management.company_crud.model.projection.ProjectView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -12,7 +14,20 @@ public interface ProjectMapper {
     @Mapping(source = "manager.name", target = "managerName")
     ProjectDTO projectToProjectDTO(Project project);
 
+    ProjectDTO projectViewToProjectDTO(ProjectView view);
+
     @Mapping(target = "team", ignore = true)
     @Mapping(target = "manager", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
     Project projectDTOToProject(ProjectDTO projectDTO);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "team", ignore = true)
+    @Mapping(target = "manager.id", ignore = true)
+    @Mapping(target = "manager.version", ignore = true)
+    @Mapping(target = "manager.lastModified", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
+    Project projectImportDTOToProject(ProjectImportDTO projectImportDTO);
 }
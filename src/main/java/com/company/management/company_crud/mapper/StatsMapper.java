@@ -0,0 +1,19 @@
+package com.company.management.company_crud.mapper;
+
+import com.company.management.company_crud.model.dao.CompanyStats;
+import com.company.management.company_crud.model.dao.DepartmentStats;
+import com.company.management.company_crud.model.dto.CompanyStatsDTO;
+import com.company.management.company_crud.model.dto.DepartmentStatsDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface StatsMapper {
+
+    @Mapping(source = "departmentStats", target = "departmentStats")
+    CompanyStatsDTO companyStatsToCompanyStatsDTO(CompanyStats companyStats, List<DepartmentStats> departmentStats);
+
+    DepartmentStatsDTO departmentStatsToDepartmentStatsDTO(DepartmentStats departmentStats);
+}
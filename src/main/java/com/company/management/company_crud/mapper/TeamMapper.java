@@ -2,6 +2,8 @@ package com.company.management.company_crud.mapper;
 
 import com.company.management.company_crud.model.dao.Team;
 import com.company.management.company_crud.model.dto.TeamDTO;
+import com.company.management.company_crud.model.dto.TeamImportDTO;
+import com.company.management.company_crud.model.projection.TeamView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -11,6 +13,17 @@ public interface TeamMapper {
     @Mapping(source = "department.name", target = "departmentName")
     TeamDTO teamToTeamDTO(Team team);
 
+    @Mapping(target = "projectName", ignore = true)
+    TeamDTO teamViewToTeamDTO(TeamView view);
+
     @Mapping(target = "department", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
     Team teamDTOToTeam(TeamDTO teamDTO);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "department", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
+    Team teamImportDTOToTeam(TeamImportDTO teamImportDTO);
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.company.management.company_crud.model.dao;
+
+import com.company.management.company_crud.model.dto.ChangeOperation;
+import com.company.management.company_crud.model.dto.EntityType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One entry of the change feed: which row was created, updated or deleted, and when its
+ * transaction wrote the entry. The id orders the feed. Rows are inserted with plain SQL.
+ */
+@Entity
+@Table(name = "change_record", indexes = @Index(name = "idx_change_record_occurred_at", columnList = "occurred_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", length = 16)
+    private EntityType entityType;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private ChangeOperation operation;
+
+    @Column(name = "occurred_at")
+    private Instant occurredAt;
+}
@@ -0,0 +1,29 @@
+package com.company.management.company_crud.model.dao;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counts of what a company holds, changed by the writes that change them rather than counted when
+ * read. The columns are updated with plain SQL, so the entity is never cached.
+ */
+@Entity
+@Table(name = "company_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyStats {
+    @Id
+    @Column(name = "company_id")
+    private Long companyId;
+
+    private long departments;
+    private long teams;
+    private long projects;
+    private long managers;
+}
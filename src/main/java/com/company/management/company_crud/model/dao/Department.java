@@ -4,11 +4,18 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "department")
+@Table(indexes = @Index(name = "idx_department_company_id", columnList = "company_id, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,6 +26,22 @@ public class Department {
 
     private String name;
 
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    /**
+     * Moved by an atomic update whenever a team is added, renamed or removed, since the representation
+     * lists their names. Kept apart from {@link #version} so that writes to siblings do not conflict on
+     * this row, and never written by an entity update, which would put back a stale value.
+     */
+    @ColumnDefault("0")
+    @Column(updatable = false)
+    private Long childrenVersion = 0L;
+
+    @UpdateTimestamp
+    private Instant lastModified;
+
     @ManyToOne
     @JoinColumn(name = "company_id")
     private Company company;
@@ -0,0 +1,32 @@
+package com.company.management.company_crud.model.dao;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counts of what a department holds; see {@link CompanyStats}.
+ */
+@Entity
+@Table(name = "department_stats",
+        indexes = @Index(name = "idx_department_stats_company_id", columnList = "company_id, department_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentStats {
+    @Id
+    @Column(name = "department_id")
+    private Long departmentId;
+
+    @Column(name = "company_id")
+    private Long companyId;
+
+    private long teams;
+    private long projects;
+    private long managers;
+}
@@ -4,11 +4,19 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "manager")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,4 +27,11 @@ public class Manager {
 
     private String name;
     private String email;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant lastModified;
 }
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 
 @Entity
 @Data
@@ -17,6 +20,13 @@ public class Project {
 
     private String name;
 
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant lastModified;
+
     @OneToOne
     @JoinColumn(name = "team_id")
     private Team team;
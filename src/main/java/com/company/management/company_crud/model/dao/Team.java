@@ -4,8 +4,13 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
+@Table(indexes = @Index(name = "idx_team_department_id", columnList = "department_id, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,6 +21,13 @@ public class Team {
 
     private String name;
 
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant lastModified;
+
     @ManyToOne
     @JoinColumn(name = "department_id")
     private Department department;
@@ -0,0 +1,33 @@
+package com.company.management.company_crud.model.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One step of {@code POST /api/batch}. {@code id} names the row an update or delete targets;
+ * {@code parentId} the company, department or team a department, team or project is created
+ * under. {@code parentRef} may replace {@code parentId} with the index of an earlier create in
+ * the same batch. {@code data} is the body the single-row endpoint takes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationDTO {
+    @NotNull(message = "Action cannot be null")
+    private Action action;
+    @NotNull(message = "Entity cannot be null")
+    private EntityType entity;
+    private Long id;
+    private Long parentId;
+    private Integer parentRef;
+    private JsonNode data;
+
+    public enum Action {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+}
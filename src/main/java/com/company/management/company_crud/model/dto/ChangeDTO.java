@@ -0,0 +1,18 @@
+package com.company.management.company_crud.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeDTO {
+    private long sequence;
+    private EntityType type;
+    private Long id;
+    private ChangeOperation operation;
+    private Instant occurredAt;
+}
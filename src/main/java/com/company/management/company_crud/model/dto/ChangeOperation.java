@@ -0,0 +1,7 @@
+package com.company.management.company_crud.model.dto;
+
+public enum ChangeOperation {
+    CREATED,
+    UPDATED,
+    DELETED
+}
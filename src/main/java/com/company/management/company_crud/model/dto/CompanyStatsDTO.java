@@ -0,0 +1,19 @@
+package com.company.management.company_crud.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyStatsDTO {
+    private Long companyId;
+    private long departments;
+    private long teams;
+    private long projects;
+    private long managers;
+    private List<DepartmentStatsDTO> departmentStats;
+}
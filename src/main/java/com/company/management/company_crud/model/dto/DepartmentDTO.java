@@ -1,6 +1,7 @@
 package com.company.management.company_crud.model.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,6 +14,7 @@ import java.util.List;
 public class DepartmentDTO {
     private Long id;
     @NotBlank(message = "Name cannot be blank")
+    @Size(max = 255, message = "Name must be at most 255 characters")
     private String name;
     private String companyName;
     private List<String> teamNames;
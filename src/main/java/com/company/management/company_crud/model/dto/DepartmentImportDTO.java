@@ -0,0 +1,20 @@
+package com.company.management.company_crud.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentImportDTO {
+    @NotBlank(message = "Name cannot be blank")
+    private String name;
+    @Valid
+    private List<TeamImportDTO> teams = new ArrayList<>();
+}
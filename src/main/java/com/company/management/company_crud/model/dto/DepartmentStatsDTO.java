@@ -0,0 +1,15 @@
+package com.company.management.company_crud.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentStatsDTO {
+    private Long departmentId;
+    private long teams;
+    private long projects;
+    private long managers;
+}
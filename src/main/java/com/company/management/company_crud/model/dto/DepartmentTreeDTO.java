@@ -0,0 +1,17 @@
+package com.company.management.company_crud.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentTreeDTO {
+    private Long id;
+    private String name;
+    private List<TeamTreeDTO> teams = new ArrayList<>();
+}
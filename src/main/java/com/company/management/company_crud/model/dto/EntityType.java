@@ -0,0 +1,9 @@
+package com.company.management.company_crud.model.dto;
+
+public enum EntityType {
+    COMPANY,
+    DEPARTMENT,
+    TEAM,
+    PROJECT,
+    MANAGER
+}
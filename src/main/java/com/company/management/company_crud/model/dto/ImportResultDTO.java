@@ -0,0 +1,19 @@
+package com.company.management.company_crud.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDTO {
+    private long companies;
+    private long departments;
+    private long teams;
+    private long projects;
+    private long managers;
+    private long rows;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
@@ -0,0 +1,41 @@
+package com.company.management.company_crud.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextAfterId} is the id to seek past for the
+ * following page, or {@code null} when this is the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private List<T> items;
+    private Long nextAfterId;
+
+    public boolean hasNext() {
+        return nextAfterId != null;
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        return new KeysetPage<>(items.stream().map(mapper).collect(Collectors.toList()), nextAfterId);
+    }
+
+    /**
+     * Builds a page from a query that fetched up to {@code limit + 1} rows; the extra row only
+     * signals that another page exists and is dropped.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int limit, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new KeysetPage<>(items, idOf.apply(items.get(limit - 1)));
+    }
+}
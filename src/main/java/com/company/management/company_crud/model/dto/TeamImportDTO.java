@@ -0,0 +1,17 @@
+package com.company.management.company_crud.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamImportDTO {
+    @NotBlank(message = "Name cannot be blank")
+    private String name;
+    @Valid
+    private ProjectImportDTO project;
+}
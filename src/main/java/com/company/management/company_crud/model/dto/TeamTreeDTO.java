@@ -0,0 +1,14 @@
+package com.company.management.company_crud.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamTreeDTO {
+    private Long id;
+    private String name;
+    private ProjectTreeDTO project;
+}
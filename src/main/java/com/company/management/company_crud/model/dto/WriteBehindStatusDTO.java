@@ -0,0 +1,21 @@
+package com.company.management.company_crud.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WriteBehindStatusDTO {
+    private boolean enabled;
+    private int depth;
+    private int capacity;
+    private long oldestPendingMillis;
+    private long accepted;
+    private long coalesced;
+    private long written;
+    private long dropped;
+    private long failed;
+    private long failedFlushes;
+}
@@ -0,0 +1,23 @@
+package com.company.management.company_crud.model.projection;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Name of a child row together with its parent's id, used to fill the name lists of a whole page
+ * of parents with a single query.
+ */
+public interface ChildName {
+    Long getParentId();
+
+    String getName();
+
+    static Map<Long, List<String>> groupByParent(Collection<ChildName> names) {
+        return names.stream()
+                .collect(Collectors.groupingBy(ChildName::getParentId, LinkedHashMap::new,
+                        Collectors.mapping(ChildName::getName, Collectors.toList())));
+    }
+}
@@ -0,0 +1,7 @@
+package com.company.management.company_crud.model.projection;
+
+public interface CompanyView {
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,9 @@
+package com.company.management.company_crud.model.projection;
+
+public interface DepartmentView {
+    Long getId();
+
+    String getName();
+
+    String getCompanyName();
+}
@@ -0,0 +1,29 @@
+package com.company.management.company_crud.model.projection;
+
+/**
+ * One row of the flattened company hierarchy. Parent columns repeat for every descendant, and
+ * child columns are {@code null} where a branch ends.
+ */
+public interface HierarchyRow {
+    Long getCompanyId();
+
+    String getCompanyName();
+
+    Long getDepartmentId();
+
+    String getDepartmentName();
+
+    Long getTeamId();
+
+    String getTeamName();
+
+    Long getProjectId();
+
+    String getProjectName();
+
+    Long getManagerId();
+
+    String getManagerName();
+
+    String getManagerEmail();
+}
@@ -0,0 +1,13 @@
+package com.company.management.company_crud.model.projection;
+
+/**
+ * Id and name of a row with the id of the row it belongs to, read to build the name search index.
+ * The parent of a manager is the project it manages.
+ */
+public interface IndexedName {
+    Long getId();
+
+    String getName();
+
+    Long getParentId();
+}
@@ -0,0 +1,10 @@
+package com.company.management.company_crud.model.projection;
+
+/**
+ * The department and company a team or project belongs to.
+ */
+public interface OwnerIds {
+    Long getDepartmentId();
+
+    Long getCompanyId();
+}
@@ -0,0 +1,13 @@
+package com.company.management.company_crud.model.projection;
+
+/**
+ * A project of the company tree with its team as parent and its manager's columns, which share the
+ * project's row because the two are one-to-one.
+ */
+public interface ProjectNode extends TreeNode {
+    Long getManagerId();
+
+    String getManagerName();
+
+    String getManagerEmail();
+}
@@ -0,0 +1,11 @@
+package com.company.management.company_crud.model.projection;
+
+public interface ProjectView {
+    Long getId();
+
+    String getName();
+
+    String getTeamName();
+
+    String getManagerName();
+}
@@ -0,0 +1,13 @@
+package com.company.management.company_crud.model.projection;
+
+/**
+ * One row of a level of the company tree. A whole level is loaded with one query and each row is
+ * attached to its parent by {@code parentId}.
+ */
+public interface TreeNode {
+    Long getId();
+
+    Long getParentId();
+
+    String getName();
+}
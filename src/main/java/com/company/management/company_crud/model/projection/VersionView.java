@@ -0,0 +1,40 @@
+package com.company.management.company_crud.model.projection;
+
+import java.time.Instant;
+
+/**
+ * Version and modification time of a row, the version of its children when the row's representation
+ * lists their names, and the version of its parent when the representation shows the parent's name.
+ * Read on its own so conditional GETs can be answered without loading the body.
+ */
+public interface VersionView {
+    Long getVersion();
+
+    Instant getLastModified();
+
+    Long getChildrenVersion();
+
+    Long getParentVersion();
+
+    Instant getParentLastModified();
+
+    default String entityTag() {
+        return entityTag(getVersion(), getChildrenVersion(), getParentVersion());
+    }
+
+    /**
+     * The entity tag of a row with the given versions, also for rows loaded as entities.
+     */
+    static String entityTag(Long version, Long childrenVersion, Long parentVersion) {
+        String tag = childrenVersion == null ? String.valueOf(version) : version + "." + childrenVersion;
+        return parentVersion == null ? tag : tag + "-" + parentVersion;
+    }
+
+    default Instant latestModification() {
+        if (getParentLastModified() == null) {
+            return getLastModified();
+        }
+        return getLastModified() == null || getParentLastModified().isAfter(getLastModified())
+                ? getParentLastModified() : getLastModified();
+    }
+}
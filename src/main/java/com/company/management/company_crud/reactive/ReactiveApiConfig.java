@@ -0,0 +1,50 @@
+package com.company.management.company_crud.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+
+/**
+ * Wiring for {@code app.reactive.enabled=true}. The R2DBC pool is deliberately not a bean: a
+ * {@code ConnectionFactory} bean would make Spring Boot back off from configuring the JDBC
+ * {@code DataSource} the JPA stack runs on.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveApiConfig {
+
+    @Bean
+    ReactiveReadServer reactiveReadServer(ObjectMapper objectMapper,
+                                          @Value("${app.reactive.url}") String url,
+                                          @Value("${app.reactive.username:${spring.datasource.username}}") String username,
+                                          @Value("${app.reactive.password:${spring.datasource.password:}}") String password,
+                                          @Value("${app.reactive.pool-size:10}") int poolSize,
+                                          @Value("${app.reactive.port:8083}") int port,
+                                          @Value("${app.reactive.event-loop-threads:0}") int eventLoopThreads) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive-api")
+                .initialSize(1)
+                .maxSize(poolSize)
+                .build());
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        return new ReactiveReadServer(pool, strategies, port, eventLoopThreads);
+    }
+}
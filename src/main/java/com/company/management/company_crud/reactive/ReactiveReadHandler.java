@@ -0,0 +1,138 @@
+package com.company.management.company_crud.reactive;
+
+import com.company.management.company_crud.controller.IdList;
+import com.company.management.company_crud.exception.ErrorCode;
+import com.company.management.company_crud.model.dto.DepartmentDTO;
+import com.company.management.company_crud.model.dto.ManagerDTO;
+import com.company.management.company_crud.model.dto.ProjectDTO;
+import com.company.management.company_crud.model.dto.TeamDTO;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Handlers for the reactive read routes. Lists are written as they are read: as a JSON array, or
+ * one document per line when the client accepts {@code application/x-ndjson}. Instead of the
+ * opaque cursor of the servlet API they take the last id seen as {@code afterId}, and stream every
+ * remaining row unless {@code limit} is given.
+ */
+class ReactiveReadHandler {
+
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ReactiveReadRepository repository;
+
+    ReactiveReadHandler(ReactiveReadRepository repository) {
+        this.repository = repository;
+    }
+
+    Mono<ServerResponse> getAllCompanies(ServerRequest request) {
+        return list(request, repository.findCompanies(afterId(request), limit(request)));
+    }
+
+    Mono<ServerResponse> getCompanyById(ServerRequest request) {
+        return single(repository.findCompanyById(id(request, "id")), "Company not found");
+    }
+
+    Mono<ServerResponse> getDepartmentsByCompanyId(ServerRequest request) {
+        return list(request, repository.findDepartmentsByCompanyId(id(request, "companyId"), afterId(request),
+                limit(request)));
+    }
+
+    Mono<ServerResponse> getDepartmentById(ServerRequest request) {
+        return single(repository.findDepartmentById(id(request, "id")), "Department not found");
+    }
+
+    Mono<ServerResponse> getDepartmentsByIds(ServerRequest request) {
+        List<Long> ids = ids(request);
+        return list(request, inRequestOrder(ids, repository.findDepartmentsByIds(ids), DepartmentDTO::getId));
+    }
+
+    Mono<ServerResponse> getTeamsByDepartmentId(ServerRequest request) {
+        return list(request, repository.findTeamsByDepartmentId(id(request, "departmentId"), afterId(request),
+                limit(request)));
+    }
+
+    Mono<ServerResponse> getTeamById(ServerRequest request) {
+        return single(repository.findTeamById(id(request, "id")), "Team not found");
+    }
+
+    Mono<ServerResponse> getTeamsByIds(ServerRequest request) {
+        List<Long> ids = ids(request);
+        return list(request, inRequestOrder(ids, repository.findTeamsByIds(ids), TeamDTO::getId));
+    }
+
+    Mono<ServerResponse> getProjectById(ServerRequest request) {
+        return single(repository.findProjectById(id(request, "id")), "Project not found");
+    }
+
+    Mono<ServerResponse> getProjectsByIds(ServerRequest request) {
+        List<Long> ids = ids(request);
+        return list(request, inRequestOrder(ids, repository.findProjectsByIds(ids), ProjectDTO::getId));
+    }
+
+    Mono<ServerResponse> getManagerById(ServerRequest request) {
+        return single(repository.findManagerById(id(request, "id")), "Manager not found");
+    }
+
+    Mono<ServerResponse> getManagersByIds(ServerRequest request) {
+        List<Long> ids = ids(request);
+        return list(request, inRequestOrder(ids, repository.findManagersByIds(ids), ManagerDTO::getId));
+    }
+
+    static Mono<ServerResponse> error(ErrorCode code, String detail) {
+        return ServerResponse.status(code.getStatus()).contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .bodyValue(code.problem(detail));
+    }
+
+    private static <T> Mono<ServerResponse> list(ServerRequest request, Flux<T> rows) {
+        // only when asked for by name, since */* is compatible with both
+        boolean ndjson = request.headers().accept().stream().anyMatch(APPLICATION_NDJSON::equalsTypeAndSubtype);
+        return ServerResponse.ok()
+                .contentType(ndjson ? APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(rows, Object.class);
+    }
+
+    private static <T> Mono<ServerResponse> single(Mono<T> row, String notFound) {
+        return row.flatMap(body -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(body))
+                .switchIfEmpty(Mono.defer(() -> error(ErrorCode.NOT_FOUND, notFound)));
+    }
+
+    private static <T> Flux<T> inRequestOrder(List<Long> ids, Flux<T> rows, Function<T, Long> id) {
+        return rows.collectMap(id)
+                .flatMapIterable(byId -> ids.stream().map(byId::get).filter(Objects::nonNull).toList());
+    }
+
+    private static long id(ServerRequest request, String name) {
+        return Long.parseLong(request.pathVariable(name));
+    }
+
+    private static long afterId(ServerRequest request) {
+        return request.queryParam("afterId").map(Long::parseLong).orElse(0L);
+    }
+
+    private static int limit(ServerRequest request) {
+        int limit = request.queryParam("limit").map(Integer::parseInt).orElse(0);
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        return limit;
+    }
+
+    private static List<Long> ids(ServerRequest request) {
+        List<Long> ids = new ArrayList<>();
+        for (String values : request.queryParams().getOrDefault("ids", List.of())) {
+            for (String value : values.split(",", -1)) {
+                ids.add(value.isBlank() ? null : Long.valueOf(value.trim()));
+            }
+        }
+        return IdList.check(ids);
+    }
+}
@@ -0,0 +1,151 @@
+package com.company.management.company_crud.reactive;
+
+import com.company.management.company_crud.model.dto.CompanyDTO;
+import com.company.management.company_crud.model.dto.DepartmentDTO;
+import com.company.management.company_crud.model.dto.ManagerDTO;
+import com.company.management.company_crud.model.dto.ProjectDTO;
+import com.company.management.company_crud.model.dto.TeamDTO;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The read queries of the JPA repositories, over R2DBC. Each view is one statement: the child
+ * names a company or department lists come from an {@code array(...)} subquery rather than a
+ * second query. List queries run with a fetch size, so the driver pulls rows from the server only
+ * as fast as the client reading the response consumes them.
+ */
+class ReactiveReadRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String COMPANY = "select c.id, c.name,"
+            + " array(select d.name from department d where d.company_id = c.id order by d.id) as child_names"
+            + " from company c";
+    private static final String DEPARTMENT = "select d.id, d.name, c.name as parent_name,"
+            + " array(select t.name from team t where t.department_id = d.id order by t.id) as child_names"
+            + " from department d left join company c on c.id = d.company_id";
+    private static final String TEAM = "select t.id, t.name, d.name as parent_name"
+            + " from team t left join department d on d.id = t.department_id";
+    private static final String PROJECT = "select p.id, p.name, t.name as team_name, m.name as manager_name"
+            + " from project p left join team t on t.id = p.team_id left join manager m on m.id = p.manager_id";
+    private static final String MANAGER = "select m.id, m.name, m.email from manager m";
+
+    private final DatabaseClient client;
+
+    ReactiveReadRepository(ConnectionFactory connectionFactory) {
+        this.client = DatabaseClient.create(connectionFactory);
+    }
+
+    Flux<CompanyDTO> findCompanies(long afterId, int limit) {
+        return list(COMPANY + " where c.id > :afterId order by c.id", limit)
+                .bind("afterId", afterId)
+                .map(ReactiveReadRepository::company)
+                .all();
+    }
+
+    Mono<CompanyDTO> findCompanyById(long id) {
+        return client.sql(COMPANY + " where c.id = :id").bind("id", id).map(ReactiveReadRepository::company).one();
+    }
+
+    Flux<DepartmentDTO> findDepartmentsByCompanyId(long companyId, long afterId, int limit) {
+        return list(DEPARTMENT + " where d.company_id = :companyId and d.id > :afterId order by d.id", limit)
+                .bind("companyId", companyId)
+                .bind("afterId", afterId)
+                .map(ReactiveReadRepository::department)
+                .all();
+    }
+
+    Mono<DepartmentDTO> findDepartmentById(long id) {
+        return client.sql(DEPARTMENT + " where d.id = :id").bind("id", id).map(ReactiveReadRepository::department).one();
+    }
+
+    Flux<DepartmentDTO> findDepartmentsByIds(Collection<Long> ids) {
+        return client.sql(DEPARTMENT + " where d.id in (:ids)").bind("ids", ids).map(ReactiveReadRepository::department).all();
+    }
+
+    Flux<TeamDTO> findTeamsByDepartmentId(long departmentId, long afterId, int limit) {
+        return list(TEAM + " where t.department_id = :departmentId and t.id > :afterId order by t.id", limit)
+                .bind("departmentId", departmentId)
+                .bind("afterId", afterId)
+                .map(ReactiveReadRepository::team)
+                .all();
+    }
+
+    Mono<TeamDTO> findTeamById(long id) {
+        return client.sql(TEAM + " where t.id = :id").bind("id", id).map(ReactiveReadRepository::team).one();
+    }
+
+    Flux<TeamDTO> findTeamsByIds(Collection<Long> ids) {
+        return client.sql(TEAM + " where t.id in (:ids)").bind("ids", ids).map(ReactiveReadRepository::team).all();
+    }
+
+    Mono<ProjectDTO> findProjectById(long id) {
+        return client.sql(PROJECT + " where p.id = :id").bind("id", id).map(ReactiveReadRepository::project).one();
+    }
+
+    Flux<ProjectDTO> findProjectsByIds(Collection<Long> ids) {
+        return client.sql(PROJECT + " where p.id in (:ids)").bind("ids", ids).map(ReactiveReadRepository::project).all();
+    }
+
+    Mono<ManagerDTO> findManagerById(long id) {
+        return client.sql(MANAGER + " where m.id = :id").bind("id", id).map(ReactiveReadRepository::manager).one();
+    }
+
+    Flux<ManagerDTO> findManagersByIds(Collection<Long> ids) {
+        return client.sql(MANAGER + " where m.id in (:ids)").bind("ids", ids).map(ReactiveReadRepository::manager).all();
+    }
+
+    /**
+     * A {@code limit} of 0 streams every remaining row.
+     */
+    private DatabaseClient.GenericExecuteSpec list(String sql, int limit) {
+        DatabaseClient.GenericExecuteSpec spec = client.sql(limit > 0 ? sql + " limit :limit" : sql)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE));
+        return limit > 0 ? spec.bind("limit", limit) : spec;
+    }
+
+    private static CompanyDTO company(Readable row) {
+        return new CompanyDTO(row.get("id", Long.class), row.get("name", String.class), names(row.get("child_names")));
+    }
+
+    private static DepartmentDTO department(Readable row) {
+        return new DepartmentDTO(row.get("id", Long.class), row.get("name", String.class),
+                row.get("parent_name", String.class), names(row.get("child_names")));
+    }
+
+    private static TeamDTO team(Readable row) {
+        return new TeamDTO(row.get("id", Long.class), row.get("name", String.class),
+                row.get("parent_name", String.class), null);
+    }
+
+    private static ProjectDTO project(Readable row) {
+        return new ProjectDTO(row.get("id", Long.class), row.get("name", String.class),
+                row.get("team_name", String.class), row.get("manager_name", String.class));
+    }
+
+    private static ManagerDTO manager(Readable row) {
+        return new ManagerDTO(row.get("id", Long.class), row.get("name", String.class), row.get("email", String.class));
+    }
+
+    /**
+     * PostgreSQL decodes {@code text[]} to {@code String[]}, H2 its arrays to {@code Object[]}.
+     */
+    private static List<String> names(Object array) {
+        if (array == null) {
+            return List.of();
+        }
+        Object[] values = (Object[]) array;
+        List<String> names = new ArrayList<>(values.length);
+        for (Object value : values) {
+            names.add((String) value);
+        }
+        return names;
+    }
+}
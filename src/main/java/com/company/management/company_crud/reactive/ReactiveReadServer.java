@@ -0,0 +1,103 @@
+package com.company.management.company_crud.reactive;
+
+import com.company.management.company_crud.exception.ErrorCode;
+import io.r2dbc.pool.ConnectionPool;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
+
+/**
+ * A Netty server for the read-only reactive API, started next to Tomcat on its own port. It
+ * serves the GET routes of {@code CompanyController} under the same paths from a few event-loop
+ * threads and its own R2DBC pool, so slow clients hold neither a thread nor a JDBC connection.
+ */
+@Slf4j
+public class ReactiveReadServer implements SmartLifecycle {
+
+    private final ConnectionPool connectionPool;
+    private final HttpHandler httpHandler;
+    private final int port;
+    private final int eventLoopThreads;
+    private LoopResources loops;
+    private DisposableServer server;
+
+    ReactiveReadServer(ConnectionPool connectionPool, HandlerStrategies strategies, int port, int eventLoopThreads) {
+        this.connectionPool = connectionPool;
+        this.httpHandler = RouterFunctions.toHttpHandler(
+                routes(new ReactiveReadHandler(new ReactiveReadRepository(connectionPool))), strategies);
+        this.port = port;
+        this.eventLoopThreads = eventLoopThreads;
+    }
+
+    static RouterFunction<ServerResponse> routes(ReactiveReadHandler handler) {
+        return RouterFunctions.route()
+                .path("/api", api -> api
+                        .GET("/companies", handler::getAllCompanies)
+                        .GET("/companies/{id}", handler::getCompanyById)
+                        .GET("/companies/{companyId}/departments", handler::getDepartmentsByCompanyId)
+                        .GET("/departments/{id}", handler::getDepartmentById)
+                        .route(GET("/departments").and(queryParam("ids", ids -> true)), handler::getDepartmentsByIds)
+                        .GET("/departments/{departmentId}/teams", handler::getTeamsByDepartmentId)
+                        .GET("/teams/{id}", handler::getTeamById)
+                        .route(GET("/teams").and(queryParam("ids", ids -> true)), handler::getTeamsByIds)
+                        .GET("/projects/{id}", handler::getProjectById)
+                        .route(GET("/projects").and(queryParam("ids", ids -> true)), handler::getProjectsByIds)
+                        .GET("/managers/{id}", handler::getManagerById)
+                        .route(GET("/managers").and(queryParam("ids", ids -> true)), handler::getManagersByIds))
+                // deferred so what the handlers throw while reading parameters is handled too; parse errors
+                // of path variables and parameters are NumberFormatExceptions
+                .filter((request, next) -> Mono.defer(() -> next.handle(request))
+                        .onErrorResume(IllegalArgumentException.class, ex ->
+                                ReactiveReadHandler.error(ErrorCode.INVALID_REQUEST, ex.getMessage())))
+                .build();
+    }
+
+    @Override
+    public void start() {
+        loops = eventLoopThreads > 0 ? LoopResources.create("reactive-api", eventLoopThreads, true) : null;
+        HttpServer http = HttpServer.create().port(port);
+        if (loops != null) {
+            http = http.runOn(loops);
+        }
+        server = http.handle(new ReactorHttpHandlerAdapter(httpHandler)).bindNow();
+        log.info("Reactive read API listening on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow(Duration.ofSeconds(10));
+            server = null;
+        }
+        if (loops != null) {
+            loops.disposeLater().block(Duration.ofSeconds(10));
+        }
+        connectionPool.disposeLater().block(Duration.ofSeconds(10));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * The bound port, which differs from the configured one when that is 0.
+     */
+    public int getPort() {
+        return server.port();
+    }
+}
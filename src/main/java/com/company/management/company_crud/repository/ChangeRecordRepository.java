@@ -0,0 +1,34 @@
+package com.company.management.company_crud.repository;
+
+import com.company.management.company_crud.model.dao.ChangeRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ChangeRecordRepository extends JpaRepository<ChangeRecord, Long> {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select c from ChangeRecord c where c.id > :since order by c.id")
+    List<ChangeRecord> findAfter(@Param("since") long since, Limit limit);
+
+    /**
+     * The sequence of the latest change, {@code 0} when there is none; one read of the primary key
+     * index that tells waiting consumers whether there is anything to fetch.
+     */
+    @Query("select coalesce(max(c.id), 0) from ChangeRecord c")
+    long findLatestSequence();
+
+    @Modifying
+    @Query("delete from ChangeRecord c where c.occurredAt < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
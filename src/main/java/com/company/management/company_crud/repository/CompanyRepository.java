@@ -1,9 +1,76 @@
 package com.company.management.company_crud.repository;
 
 import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.projection.CompanyView;
+import com.company.management.company_crud.model.projection.HierarchyRow;
+import com.company.management.company_crud.model.projection.IndexedName;
+import com.company.management.company_crud.model.projection.VersionView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface CompanyRepository extends JpaRepository<Company, Long> {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select c.id as id, c.name as name from Company c where c.id > :afterId order by c.id")
+    List<CompanyView> findViewsByIdGreaterThan(@Param("afterId") Long afterId, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    @Query("select c.id as id, c.name as name from Company c where c.id = :id")
+    Optional<CompanyView> findViewById(@Param("id") Long id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    @Query("select c.version as version, c.childrenVersion as childrenVersion, c.lastModified as lastModified"
+            + " from Company c where c.id = :id")
+    Optional<VersionView> findVersionById(@Param("id") Long id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")
+    })
+    @Query("select c.id as companyId, c.name as companyName, d.id as departmentId, d.name as departmentName,"
+            + " t.id as teamId, t.name as teamName, p.id as projectId, p.name as projectName,"
+            + " m.id as managerId, m.name as managerName, m.email as managerEmail"
+            + " from Company c left join c.departments d left join d.teams t"
+            + " left join Project p on p.team = t left join p.manager m"
+            + " order by c.id, d.id, t.id, p.id")
+    Stream<HierarchyRow> streamHierarchy();
+
+    @Modifying
+    @Query("update Company c set c.name = :name, c.version = c.version + 1, c.lastModified = :now where c.id = :id")
+    int updateName(@Param("id") Long id, @Param("name") String name, @Param("now") Instant now);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")
+    })
+    @Query("select c.id as id, c.name as name, cast(null as Long) as parentId from Company c")
+    Stream<IndexedName> streamIndexedNames();
+
+    @Modifying
+    @Query("delete from Company c where c.id = :id")
+    int deleteRowById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from Company c where c.id = :id and c.version = :version and c.childrenVersion = :childrenVersion")
+    int deleteRowByIdAndVersion(@Param("id") Long id, @Param("version") Long version,
+                                @Param("childrenVersion") Long childrenVersion);
 }
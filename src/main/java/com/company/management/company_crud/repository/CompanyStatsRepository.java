@@ -0,0 +1,25 @@
+package com.company.management.company_crud.repository;
+
+import com.company.management.company_crud.model.dao.CompanyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CompanyStatsRepository extends JpaRepository<CompanyStats, Long> {
+
+    /**
+     * Counts the hierarchy of every company that has no counters yet, such as those created before
+     * the counters existed. Run once at startup; afterwards the writes keep the counters current.
+     */
+    @Modifying
+    @Query("insert into CompanyStats (companyId, departments, teams, projects, managers)"
+            + " select c.id,"
+            + " (select count(d) from Department d where d.company = c),"
+            + " (select count(t) from Team t where t.department.company = c),"
+            + " (select count(p) from Project p where p.team.department.company = c),"
+            + " (select count(p) from Project p where p.team.department.company = c and p.manager is not null)"
+            + " from Company c where not exists (select 1 from CompanyStats s where s.companyId = c.id)")
+    int insertMissing();
+}
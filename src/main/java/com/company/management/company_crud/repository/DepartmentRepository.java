@@ -1,9 +1,92 @@
 package com.company.management.company_crud.repository;
 
 import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.projection.ChildName;
+import com.company.management.company_crud.model.projection.DepartmentView;
+import com.company.management.company_crud.model.projection.IndexedName;
+import com.company.management.company_crud.model.projection.TreeNode;
+import com.company.management.company_crud.model.projection.VersionView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select d.id as id, d.name as name, c.name as companyName from Department d join d.company c"
+            + " where c.id = :companyId and d.id > :afterId order by d.id")
+    List<DepartmentView> findViewsByCompanyId(@Param("companyId") Long companyId, @Param("afterId") Long afterId,
+                                              Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    @Query("select d.id as id, d.name as name, c.name as companyName from Department d left join d.company c"
+            + " where d.id = :id")
+    Optional<DepartmentView> findViewById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select d.id as id, d.name as name, c.name as companyName from Department d left join d.company c"
+            + " where d.id in :ids")
+    List<DepartmentView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    @Query("select d.version as version, d.childrenVersion as childrenVersion, d.lastModified as lastModified,"
+            + " c.version as parentVersion,"
+            + " c.lastModified as parentLastModified from Department d left join d.company c where d.id = :id")
+    Optional<VersionView> findVersionById(@Param("id") Long id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    @Query("select d.company.id as parentId, d.name as name from Department d"
+            + " where d.company.id in :companyIds order by d.id")
+    List<ChildName> findNamesByCompanyIdIn(@Param("companyIds") Collection<Long> companyIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select d.id as id, d.company.id as parentId, d.name as name from Department d"
+            + " where d.company.id = :companyId order by d.id")
+    List<TreeNode> findTreeNodesByCompanyId(@Param("companyId") Long companyId);
+
+    @Modifying
+    @Query("delete from Department d where d.company.id = :companyId")
+    int deleteAllByCompanyId(@Param("companyId") Long companyId);
+
+    @Modifying
+    @Query("update Department d set d.name = :name, d.version = d.version + 1, d.lastModified = :now where d.id = :id")
+    int updateName(@Param("id") Long id, @Param("name") String name, @Param("now") Instant now);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")
+    })
+    @Query("select d.id as id, d.name as name, d.company.id as parentId from Department d")
+    Stream<IndexedName> streamIndexedNames();
+
+    @Modifying
+    @Query("delete from Department d where d.id = :id")
+    int deleteRowById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from Department d where d.id = :id and d.version = :version and d.childrenVersion = :childrenVersion")
+    int deleteRowByIdAndVersion(@Param("id") Long id, @Param("version") Long version,
+                                @Param("childrenVersion") Long childrenVersion);
 }
@@ -0,0 +1,33 @@
+package com.company.management.company_crud.repository;
+
+import com.company.management.company_crud.model.dao.DepartmentStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DepartmentStatsRepository extends JpaRepository<DepartmentStats, Long> {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select s from DepartmentStats s where s.companyId = :companyId order by s.departmentId")
+    List<DepartmentStats> findAllByCompanyId(@Param("companyId") Long companyId);
+
+    /**
+     * See {@link CompanyStatsRepository#insertMissing()}.
+     */
+    @Modifying
+    @Query("insert into DepartmentStats (departmentId, companyId, teams, projects, managers)"
+            + " select d.id, d.company.id,"
+            + " (select count(t) from Team t where t.department = d),"
+            + " (select count(p) from Project p where p.team.department = d),"
+            + " (select count(p) from Project p where p.team.department = d and p.manager is not null)"
+            + " from Department d where not exists (select 1 from DepartmentStats s where s.departmentId = d.id)")
+    int insertMissing();
+}
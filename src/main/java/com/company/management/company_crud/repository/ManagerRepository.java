@@ -1,9 +1,78 @@
 package com.company.management.company_crud.repository;
 
 import com.company.management.company_crud.model.dao.Manager;
+import com.company.management.company_crud.model.projection.IndexedName;
+import com.company.management.company_crud.model.projection.ManagerView;
+import com.company.management.company_crud.model.projection.VersionView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface ManagerRepository extends JpaRepository<Manager, Long> {
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    @Query("select m.id as id, m.name as name, m.email as email from Manager m where m.id = :id")
+    Optional<ManagerView> findViewById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select m.id as id, m.name as name, m.email as email from Manager m where m.id in :ids")
+    List<ManagerView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    @Query("select m.version as version, m.lastModified as lastModified from Manager m where m.id = :id")
+    Optional<VersionView> findVersionById(@Param("id") Long id);
+
+    /**
+     * Sets the given fields and leaves those passed as {@code null} as they are.
+     */
+    @Modifying
+    @Query("update Manager m set m.name = coalesce(:name, m.name), m.email = coalesce(:email, m.email),"
+            + " m.version = m.version + 1, m.lastModified = :now where m.id = :id")
+    int updateDetails(@Param("id") Long id, @Param("name") String name, @Param("email") String email,
+                      @Param("now") Instant now);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")
+    })
+    @Query("select m.id as id, m.name as name, p.id as parentId"
+            + " from Manager m left join Project p on p.manager = m")
+    Stream<IndexedName> streamIndexedNames();
+
+    /**
+     * Managers that manage no project, which the hierarchy export does not reach.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")
+    })
+    @Query("select m.id as id, m.name as name, m.email as email from Manager m"
+            + " where not exists (select 1 from Project p where p.manager = m) order by m.id")
+    Stream<ManagerView> streamUnassigned();
+
+    @Modifying
+    @Query("delete from Manager m where m.id = :id")
+    int deleteRowById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from Manager m where m.id = :id and m.version = :version")
+    int deleteRowByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
 }
@@ -1,9 +1,114 @@
 package com.company.management.company_crud.repository;
 
 import com.company.management.company_crud.model.dao.Project;
+import com.company.management.company_crud.model.projection.IndexedName;
+import com.company.management.company_crud.model.projection.OwnerIds;
+import com.company.management.company_crud.model.projection.ProjectNode;
+import com.company.management.company_crud.model.projection.ProjectView;
+import com.company.management.company_crud.model.projection.VersionView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    @Query("select p.id as id, p.name as name, t.name as teamName, m.name as managerName from Project p"
+            + " left join p.team t left join p.manager m where p.id = :id")
+    Optional<ProjectView> findViewById(@Param("id") Long id);
+
+    /**
+     * A project's representation shows the names of its team and its manager, so the parent version
+     * is the sum of theirs. Versions only grow, and replacing the team or the manager moves the
+     * project's own version, so the sum changes whenever either name can have.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    @Query("select p.version as version, p.lastModified as lastModified,"
+            + " coalesce(t.version, 0) + coalesce(m.version, 0) as parentVersion,"
+            + " case when m.lastModified is null or t.lastModified >= m.lastModified"
+            + " then t.lastModified else m.lastModified end as parentLastModified"
+            + " from Project p left join p.team t left join p.manager m where p.id = :id")
+    Optional<VersionView> findVersionById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select p.id as id, p.name as name, t.name as teamName, m.name as managerName from Project p"
+            + " left join p.team t left join p.manager m where p.id in :ids")
+    List<ProjectView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")
+    })
+    @Query("select p.id as id, t.id as parentId, p.name as name, m.id as managerId, m.name as managerName,"
+            + " m.email as managerEmail from Project p join p.team t join t.department d left join p.manager m"
+            + " where d.company.id = :companyId order by p.id")
+    List<ProjectNode> findTreeNodesByCompanyId(@Param("companyId") Long companyId);
+
+    @Query("select p.manager.id from Project p where p.manager is not null and p.team.id in"
+            + " (select t.id from Team t where t.department.company.id = :companyId)")
+    List<Long> findManagerIdsByCompanyId(@Param("companyId") Long companyId);
+
+    @Query("select p.manager.id from Project p where p.manager is not null and p.team.id in"
+            + " (select t.id from Team t where t.department.id = :departmentId)")
+    List<Long> findManagerIdsByDepartmentId(@Param("departmentId") Long departmentId);
+
+    @Query("select p.manager.id from Project p where p.manager is not null and p.team.id = :teamId")
+    List<Long> findManagerIdsByTeamId(@Param("teamId") Long teamId);
+
+    @Query("select p.manager.id from Project p where p.manager is not null and p.id = :id")
+    List<Long> findManagerIdsById(@Param("id") Long id);
+
+    @Query("select d.id as departmentId, d.company.id as companyId from Project p join p.team t join t.department d"
+            + " where p.id = :id")
+    Optional<OwnerIds> findOwnerIdsById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from Project p where p.team.id in"
+            + " (select t.id from Team t where t.department.company.id = :companyId)")
+    int deleteAllByCompanyId(@Param("companyId") Long companyId);
+
+    @Modifying
+    @Query("delete from Project p where p.team.id in (select t.id from Team t where t.department.id = :departmentId)")
+    int deleteAllByDepartmentId(@Param("departmentId") Long departmentId);
+
+    @Modifying
+    @Query("delete from Project p where p.team.id = :teamId")
+    int deleteAllByTeamId(@Param("teamId") Long teamId);
+
+    @Modifying
+    @Query("update Project p set p.name = :name, p.version = p.version + 1, p.lastModified = :now where p.id = :id")
+    int updateName(@Param("id") Long id, @Param("name") String name, @Param("now") Instant now);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")
+    })
+    @Query("select p.id as id, p.name as name, p.team.id as parentId from Project p")
+    Stream<IndexedName> streamIndexedNames();
+
+    @Modifying
+    @Query("delete from Project p where p.id = :id")
+    int deleteRowById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from Project p where p.id = :id and p.version = :version")
+    int deleteRowByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
 }
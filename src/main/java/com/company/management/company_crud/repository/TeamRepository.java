@@ -1,9 +1,101 @@
 package com.company.management.company_crud.repository;
 
 import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.model.projection.ChildName;
+import com.company.management.company_crud.model.projection.IndexedName;
+import com.company.management.company_crud.model.projection.OwnerIds;
+import com.company.management.company_crud.model.projection.TeamView;
+import com.company.management.company_crud.model.projection.TreeNode;
+import com.company.management.company_crud.model.projection.VersionView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select t.id as id, t.name as name, d.name as departmentName from Team t join t.department d"
+            + " where d.id = :departmentId and t.id > :afterId order by t.id")
+    List<TeamView> findViewsByDepartmentId(@Param("departmentId") Long departmentId, @Param("afterId") Long afterId,
+                                           Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    @Query("select t.id as id, t.name as name, d.name as departmentName from Team t left join t.department d"
+            + " where t.id = :id")
+    Optional<TeamView> findViewById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select t.id as id, t.name as name, d.name as departmentName from Team t left join t.department d"
+            + " where t.id in :ids")
+    List<TeamView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    @Query("select t.version as version, t.lastModified as lastModified, d.version as parentVersion,"
+            + " d.lastModified as parentLastModified from Team t left join t.department d where t.id = :id")
+    Optional<VersionView> findVersionById(@Param("id") Long id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    @Query("select t.department.id as parentId, t.name as name from Team t"
+            + " where t.department.id in :departmentIds order by t.id")
+    List<ChildName> findNamesByDepartmentIdIn(@Param("departmentIds") Collection<Long> departmentIds);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")
+    })
+    @Query("select t.id as id, d.id as parentId, t.name as name from Team t join t.department d"
+            + " where d.company.id = :companyId order by t.id")
+    List<TreeNode> findTreeNodesByCompanyId(@Param("companyId") Long companyId);
+
+    @Query("select d.id as departmentId, d.company.id as companyId from Team t join t.department d where t.id = :id")
+    Optional<OwnerIds> findOwnerIdsById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from Team t where t.department.id in (select d.id from Department d where d.company.id = :companyId)")
+    int deleteAllByCompanyId(@Param("companyId") Long companyId);
+
+    @Modifying
+    @Query("delete from Team t where t.department.id = :departmentId")
+    int deleteAllByDepartmentId(@Param("departmentId") Long departmentId);
+
+    @Modifying
+    @Query("update Team t set t.name = :name, t.version = t.version + 1, t.lastModified = :now where t.id = :id")
+    int updateName(@Param("id") Long id, @Param("name") String name, @Param("now") Instant now);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")
+    })
+    @Query("select t.id as id, t.name as name, t.department.id as parentId from Team t")
+    Stream<IndexedName> streamIndexedNames();
+
+    @Modifying
+    @Query("delete from Team t where t.id = :id")
+    int deleteRowById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from Team t where t.id = :id and t.version = :version")
+    int deleteRowByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
 }
@@ -0,0 +1,10 @@
+package com.company.management.company_crud.service;
+
+import com.company.management.company_crud.model.dto.BatchOperationDTO;
+import com.company.management.company_crud.model.dto.BatchResultDTO;
+
+import java.util.List;
+
+public interface BatchService {
+    List<BatchResultDTO> execute(List<BatchOperationDTO> operations);
+}
@@ -0,0 +1,17 @@
+package com.company.management.company_crud.service;
+
+import com.company.management.company_crud.model.dto.ChangeDTO;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface ChangeFeedService {
+    List<ChangeDTO> getChanges(long since, int limit);
+
+    /**
+     * Completes with the changes after {@code since} as soon as there are any, or with an empty
+     * list once {@code timeout} has passed. Cancelling the future stops the wait.
+     */
+    CompletableFuture<List<ChangeDTO>> awaitChanges(long since, int limit, Duration timeout);
+}
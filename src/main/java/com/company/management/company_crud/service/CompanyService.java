@@ -1,17 +1,21 @@
 package com.company.management.company_crud.service;
 
 import com.company.management.company_crud.model.dto.CompanyDTO;
-
-import java.util.List;
+import com.company.management.company_crud.model.dto.KeysetPage;
+import com.company.management.company_crud.model.dto.VersionDTO;
 
 public interface CompanyService {
-    List<CompanyDTO> getAllCompanies();
+    KeysetPage<CompanyDTO> getAllCompanies(Long afterId, int limit);
 
     CompanyDTO getCompanyById(Long id);
 
+    VersionDTO getCompanyVersion(Long id);
+
     CompanyDTO createCompany(CompanyDTO companyDTO);
 
-    CompanyDTO updateCompany(Long id, CompanyDTO companyDTO);
+    CompanyDTO updateCompany(Long id, CompanyDTO companyDTO, String entityTag);
+
+    void patchCompany(Long id, CompanyDTO patch);
 
-    void deleteCompany(Long id);
+    void deleteCompany(Long id, String entityTag);
 }
@@ -1,17 +1,25 @@
 package com.company.management.company_crud.service;
 
 import com.company.management.company_crud.model.dto.DepartmentDTO;
+import com.company.management.company_crud.model.dto.KeysetPage;
+import com.company.management.company_crud.model.dto.VersionDTO;
 
 import java.util.List;
 
 public interface DepartmentService {
-    List<DepartmentDTO> getDepartmentsByCompanyId(Long companyId);
+    KeysetPage<DepartmentDTO> getDepartmentsByCompanyId(Long companyId, Long afterId, int limit);
 
     DepartmentDTO getDepartmentById(Long id);
 
+    List<DepartmentDTO> getDepartmentsByIds(List<Long> ids);
+
+    VersionDTO getDepartmentVersion(Long id);
+
     DepartmentDTO createDepartment(Long companyId, DepartmentDTO departmentDTO);
 
-    DepartmentDTO updateDepartment(Long id, DepartmentDTO departmentDTO);
+    DepartmentDTO updateDepartment(Long id, DepartmentDTO departmentDTO, String entityTag);
+
+    void patchDepartment(Long id, DepartmentDTO patch);
 
-    void deleteDepartment(Long id);
+    void deleteDepartment(Long id, String entityTag);
 }
@@ -0,0 +1,8 @@
+package com.company.management.company_crud.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+    void exportHierarchy(OutputStream out) throws IOException;
+}
@@ -0,0 +1,10 @@
+package com.company.management.company_crud.service;
+
+import com.company.management.company_crud.model.dto.ImportResultDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImportService {
+    ImportResultDTO importCompanies(InputStream in) throws IOException;
+}
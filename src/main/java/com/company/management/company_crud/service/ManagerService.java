@@ -1,13 +1,22 @@
 package com.company.management.company_crud.service;
 
 import com.company.management.company_crud.model.dto.ManagerDTO;
+import com.company.management.company_crud.model.dto.VersionDTO;
+
+import java.util.List;
 
 public interface ManagerService {
     ManagerDTO getManagerById(Long id);
 
+    List<ManagerDTO> getManagersByIds(List<Long> ids);
+
+    VersionDTO getManagerVersion(Long id);
+
     ManagerDTO createManager(ManagerDTO managerDTO);
 
-    ManagerDTO updateManager(Long id, ManagerDTO managerDTO);
+    ManagerDTO updateManager(Long id, ManagerDTO managerDTO, String entityTag);
+
+    void patchManager(Long id, ManagerDTO patch);
 
-    void deleteManager(Long id);
+    void deleteManager(Long id, String entityTag);
 }
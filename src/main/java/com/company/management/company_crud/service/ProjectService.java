@@ -1,13 +1,22 @@
 package com.company.management.company_crud.service;
 
 import com.company.management.company_crud.model.dto.ProjectDTO;
+import com.company.management.company_crud.model.dto.VersionDTO;
+
+import java.util.List;
 
 public interface ProjectService {
     ProjectDTO getProjectById(Long id);
 
+    List<ProjectDTO> getProjectsByIds(List<Long> ids);
+
+    VersionDTO getProjectVersion(Long id);
+
     ProjectDTO createProject(Long teamId, ProjectDTO projectDTO);
 
-    ProjectDTO updateProject(Long id, ProjectDTO projectDTO);
+    ProjectDTO updateProject(Long id, ProjectDTO projectDTO, String entityTag);
+
+    void patchProject(Long id, ProjectDTO patch);
 
-    void deleteProject(Long id);
+    void deleteProject(Long id, String entityTag);
 }
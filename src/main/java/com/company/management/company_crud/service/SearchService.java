@@ -0,0 +1,11 @@
+package com.company.management.company_crud.service;
+
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.SearchHitDTO;
+
+import java.util.List;
+import java.util.Set;
+
+public interface SearchService {
+    List<SearchHitDTO> searchNames(String query, Set<EntityType> types, int limit);
+}
@@ -0,0 +1,10 @@
+package com.company.management.company_crud.service;
+
+import com.company.management.company_crud.model.dto.CompanyStatsDTO;
+import com.company.management.company_crud.model.dto.DepartmentStatsDTO;
+
+public interface StatsService {
+    CompanyStatsDTO getCompanyStats(Long companyId);
+
+    DepartmentStatsDTO getDepartmentStats(Long departmentId);
+}
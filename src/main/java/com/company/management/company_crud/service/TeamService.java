@@ -1,17 +1,25 @@
 package com.company.management.company_crud.service;
 
+import com.company.management.company_crud.model.dto.KeysetPage;
 import com.company.management.company_crud.model.dto.TeamDTO;
+import com.company.management.company_crud.model.dto.VersionDTO;
 
 import java.util.List;
 
 public interface TeamService {
-    List<TeamDTO> getTeamsByDepartmentId(Long departmentId);
+    KeysetPage<TeamDTO> getTeamsByDepartmentId(Long departmentId, Long afterId, int limit);
 
     TeamDTO getTeamById(Long id);
 
+    List<TeamDTO> getTeamsByIds(List<Long> ids);
+
+    VersionDTO getTeamVersion(Long id);
+
     TeamDTO createTeam(Long departmentId, TeamDTO teamDTO);
 
-    TeamDTO updateTeam(Long id, TeamDTO teamDTO);
+    TeamDTO updateTeam(Long id, TeamDTO teamDTO, String entityTag);
+
+    void patchTeam(Long id, TeamDTO patch);
 
-    void deleteTeam(Long id);
+    void deleteTeam(Long id, String entityTag);
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.company.management.company_crud.service;
+
+import com.company.management.company_crud.model.dto.CompanyTreeDTO;
+
+public interface TreeService {
+    CompanyTreeDTO getCompanyTree(Long companyId);
+}
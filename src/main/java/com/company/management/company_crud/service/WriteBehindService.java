@@ -0,0 +1,14 @@
+package com.company.management.company_crud.service;
+
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.WriteBehindStatusDTO;
+
+public interface WriteBehindService {
+    boolean isEnabled();
+
+    void enqueueRename(EntityType entity, Long id, String name);
+
+    int flush();
+
+    WriteBehindStatusDTO getStatus();
+}
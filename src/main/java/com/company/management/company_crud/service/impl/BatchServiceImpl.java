@@ -0,0 +1,223 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.exception.NotFoundException;
+import com.company.management.company_crud.model.dto.BatchOperationDTO;
+import com.company.management.company_crud.model.dto.BatchResultDTO;
+import com.company.management.company_crud.model.dto.CompanyDTO;
+import com.company.management.company_crud.model.dto.DepartmentDTO;
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.ManagerDTO;
+import com.company.management.company_crud.model.dto.ProjectDTO;
+import com.company.management.company_crud.model.dto.TeamDTO;
+import com.company.management.company_crud.service.BatchService;
+import com.company.management.company_crud.service.CompanyService;
+import com.company.management.company_crud.service.DepartmentService;
+import com.company.management.company_crud.service.ManagerService;
+import com.company.management.company_crud.service.ProjectService;
+import com.company.management.company_crud.service.TeamService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a list of create, update and delete operations in one transaction through the same
+ * services the single-row endpoints use, so each operation keeps their rules. Every operation is
+ * validated before the first one runs. The session only flushes once, at commit, so updates and
+ * deletes go out as JDBC batches; inserts still run one at a time because the ids
+ * are database-generated. Any failure rolls the whole batch back.
+ */
+@Service
+@Timed("app.service")
+public class BatchServiceImpl implements BatchService {
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final CompanyService companyService;
+    private final DepartmentService departmentService;
+    private final TeamService teamService;
+    private final ProjectService projectService;
+    private final ManagerService managerService;
+    private final int maxOperations;
+
+    public BatchServiceImpl(EntityManager entityManager, ObjectMapper objectMapper, Validator validator,
+                            CompanyService companyService, DepartmentService departmentService,
+                            TeamService teamService, ProjectService projectService, ManagerService managerService,
+                            @Value("${app.batch.max-operations:1000}") int maxOperations) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.companyService = companyService;
+        this.departmentService = departmentService;
+        this.teamService = teamService;
+        this.projectService = projectService;
+        this.managerService = managerService;
+        this.maxOperations = maxOperations;
+    }
+
+    @Override
+    @Transactional
+    public List<BatchResultDTO> execute(List<BatchOperationDTO> operations) {
+        if (operations == null || operations.isEmpty() || operations.size() > maxOperations) {
+            throw new IllegalArgumentException("A batch must contain between 1 and " + maxOperations + " operations");
+        }
+        List<Object> bodies = new ArrayList<>(operations.size());
+        for (int index = 0; index < operations.size(); index++) {
+            bodies.add(validate(index, operations.get(index), operations));
+        }
+
+        entityManager.setFlushMode(FlushModeType.COMMIT);
+        List<BatchResultDTO> results = new ArrayList<>(operations.size());
+        Long[] createdIds = new Long[operations.size()];
+        for (int index = 0; index < operations.size(); index++) {
+            BatchOperationDTO operation = operations.get(index);
+            Long parentId = operation.getParentRef() != null ? createdIds[operation.getParentRef()] : operation.getParentId();
+            Object result;
+            try {
+                result = apply(operation, parentId, bodies.get(index));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Operation " + index + ": " + ex.getMessage(), ex);
+            } catch (NotFoundException ex) {
+                throw new NotFoundException("Operation " + index + ": " + ex.getMessage());
+            }
+            if (operation.getAction() == BatchOperationDTO.Action.CREATE) {
+                createdIds[index] = id(result);
+            }
+            results.add(new BatchResultDTO(index, status(operation.getAction()).value(), result));
+        }
+        return results;
+    }
+
+    /**
+     * Checks the shape of an operation and returns its body converted to the entity's DTO.
+     */
+    private Object validate(int index, BatchOperationDTO operation, List<BatchOperationDTO> operations) {
+        String prefix = "Operation " + index + ": ";
+        if (operation == null || operation.getAction() == null || operation.getEntity() == null) {
+            throw new IllegalArgumentException(prefix + "action and entity are required");
+        }
+        boolean create = operation.getAction() == BatchOperationDTO.Action.CREATE;
+        if (!create && operation.getId() == null) {
+            throw new IllegalArgumentException(prefix + "id is required");
+        }
+        if (create && hasParent(operation.getEntity())) {
+            Integer parentRef = operation.getParentRef();
+            if ((operation.getParentId() == null) == (parentRef == null)) {
+                throw new IllegalArgumentException(prefix + "exactly one of parentId and parentRef is required");
+            }
+            if (parentRef != null && (parentRef < 0 || parentRef >= index
+                    || operations.get(parentRef).getAction() != BatchOperationDTO.Action.CREATE
+                    || operations.get(parentRef).getEntity() != parentOf(operation.getEntity()))) {
+                throw new IllegalArgumentException(prefix + "parentRef must point to an earlier "
+                        + parentOf(operation.getEntity()) + " create");
+            }
+        }
+        if (operation.getAction() == BatchOperationDTO.Action.DELETE) {
+            return null;
+        }
+        if (operation.getData() == null) {
+            throw new IllegalArgumentException(prefix + "data is required");
+        }
+        Object body;
+        try {
+            body = objectMapper.treeToValue(operation.getData(), dtoType(operation.getEntity()));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException(prefix + "malformed data: " + ex.getOriginalMessage());
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(body);
+        if (!violations.isEmpty()) {
+            String errors = violations.stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .collect(Collectors.joining(", "));
+            throw new IllegalArgumentException(prefix + errors);
+        }
+        return body;
+    }
+
+    private Object apply(BatchOperationDTO operation, Long parentId, Object body) {
+        Long id = operation.getId();
+        return switch (operation.getAction()) {
+            case CREATE -> switch (operation.getEntity()) {
+                case COMPANY -> companyService.createCompany((CompanyDTO) body);
+                case DEPARTMENT -> departmentService.createDepartment(parentId, (DepartmentDTO) body);
+                case TEAM -> teamService.createTeam(parentId, (TeamDTO) body);
+                case PROJECT -> projectService.createProject(parentId, (ProjectDTO) body);
+                case MANAGER -> managerService.createManager((ManagerDTO) body);
+            };
+            case UPDATE -> switch (operation.getEntity()) {
+                case COMPANY -> companyService.updateCompany(id, (CompanyDTO) body, null);
+                case DEPARTMENT -> departmentService.updateDepartment(id, (DepartmentDTO) body, null);
+                case TEAM -> teamService.updateTeam(id, (TeamDTO) body, null);
+                case PROJECT -> projectService.updateProject(id, (ProjectDTO) body, null);
+                case MANAGER -> managerService.updateManager(id, (ManagerDTO) body, null);
+            };
+            case DELETE -> {
+                switch (operation.getEntity()) {
+                    case COMPANY -> companyService.deleteCompany(id, null);
+                    case DEPARTMENT -> departmentService.deleteDepartment(id, null);
+                    case TEAM -> teamService.deleteTeam(id, null);
+                    case PROJECT -> projectService.deleteProject(id, null);
+                    case MANAGER -> managerService.deleteManager(id, null);
+                }
+                yield null;
+            }
+        };
+    }
+
+    private static boolean hasParent(EntityType entity) {
+        return parentOf(entity) != null;
+    }
+
+    private static EntityType parentOf(EntityType entity) {
+        return switch (entity) {
+            case DEPARTMENT -> EntityType.COMPANY;
+            case TEAM -> EntityType.DEPARTMENT;
+            case PROJECT -> EntityType.TEAM;
+            case COMPANY, MANAGER -> null;
+        };
+    }
+
+    private static Class<?> dtoType(EntityType entity) {
+        return switch (entity) {
+            case COMPANY -> CompanyDTO.class;
+            case DEPARTMENT -> DepartmentDTO.class;
+            case TEAM -> TeamDTO.class;
+            case PROJECT -> ProjectDTO.class;
+            case MANAGER -> ManagerDTO.class;
+        };
+    }
+
+    private static Long id(Object created) {
+        return switch (created) {
+            case CompanyDTO company -> company.getId();
+            case DepartmentDTO department -> department.getId();
+            case TeamDTO team -> team.getId();
+            case ProjectDTO project -> project.getId();
+            case ManagerDTO manager -> manager.getId();
+            default -> throw new IllegalStateException("Unexpected result " + created);
+        };
+    }
+
+    private static HttpStatus status(BatchOperationDTO.Action action) {
+        return switch (action) {
+            case CREATE -> HttpStatus.CREATED;
+            case UPDATE -> HttpStatus.OK;
+            case DELETE -> HttpStatus.NO_CONTENT;
+        };
+    }
+}
@@ -0,0 +1,171 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.mapper.ChangeMapper;
+import com.company.management.company_crud.model.dao.ChangeRecord;
+import com.company.management.company_crud.model.dto.ChangeDTO;
+import com.company.management.company_crud.repository.ChangeRecordRepository;
+import com.company.management.company_crud.service.ChangeFeedService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the {@code change_record} rows {@link ChangeLog} appends, in sequence order.
+ * <p>
+ * Sequences come from an identity column and are taken when a row is inserted, so a transaction
+ * can commit a lower sequence after another has committed a higher one. A consumer that moved past
+ * the higher one would never see the lower. Reads therefore stop at the first change younger than
+ * {@code app.changes.settle-delay}. This is a heuristic, not a guarantee: the time is taken from the
+ * clock of the writing instance just before its commit, so a commit that takes longer than the delay,
+ * or clocks of several instances that disagree by more than it, can still make a change be skipped.
+ * The delay is kept generous for that reason, at the cost of the feed trailing the writes by it.
+ * <p>
+ * Consumers that find nothing wait without holding a thread or a connection. A single thread polls
+ * every {@code poll-interval} for all of them: one read of the latest sequence, and one read per
+ * distinct cursor only when something newer exists. The same thread deletes changes older than
+ * {@code retention} once an hour.
+ */
+@Slf4j
+@Service
+@Timed("app.service")
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+
+    private final ChangeRecordRepository changeRecordRepository;
+    private final ChangeMapper changeMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration settleDelay;
+    private final Duration pollInterval;
+    private final Duration retention;
+
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService scheduler;
+
+    public ChangeFeedServiceImpl(ChangeRecordRepository changeRecordRepository, ChangeMapper changeMapper,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${app.changes.settle-delay:10s}") Duration settleDelay,
+                                 @Value("${app.changes.poll-interval:250ms}") Duration pollInterval,
+                                 @Value("${app.changes.retention:7d}") Duration retention) {
+        this.changeRecordRepository = changeRecordRepository;
+        this.changeMapper = changeMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.settleDelay = settleDelay;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::purge, PURGE_INTERVAL.toMillis(), PURGE_INTERVAL.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        waiters.forEach(waiter -> waiter.future().complete(List.of()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ChangeDTO> getChanges(long since, int limit) {
+        return read(since, limit);
+    }
+
+    @Override
+    public CompletableFuture<List<ChangeDTO>> awaitChanges(long since, int limit, Duration timeout) {
+        List<ChangeDTO> changes = read(since, limit);
+        if (!changes.isEmpty() || timeout.isZero() || timeout.isNegative()) {
+            return CompletableFuture.completedFuture(changes);
+        }
+        Waiter waiter = new Waiter(since, limit, System.nanoTime() + timeout.toNanos(), new CompletableFuture<>());
+        waiters.add(waiter);
+        waiter.future().whenComplete((result, failure) -> waiters.remove(waiter));
+        return waiter.future();
+    }
+
+    int waiting() {
+        return waiters.size();
+    }
+
+    private List<ChangeDTO> read(long since, int limit) {
+        Instant settled = Instant.now().minus(settleDelay);
+        List<ChangeRecord> records = changeRecordRepository.findAfter(since, Limit.of(limit));
+        int end = 0;
+        while (end < records.size() && !records.get(end).getOccurredAt().isAfter(settled)) {
+            end++;
+        }
+        return changeMapper.changeRecordsToChangeDTOs(records.subList(0, end));
+    }
+
+    private void poll() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        try {
+            long latest = changeRecordRepository.findLatestSequence();
+            Map<Long, List<Waiter>> bySince = new TreeMap<>();
+            for (Waiter waiter : waiters) {
+                if (waiter.since() < latest) {
+                    bySince.computeIfAbsent(waiter.since(), since -> new ArrayList<>()).add(waiter);
+                }
+            }
+            bySince.forEach((since, group) -> {
+                List<ChangeDTO> changes = read(since, group.stream().mapToInt(Waiter::limit).max().orElse(1));
+                if (!changes.isEmpty()) {
+                    group.forEach(waiter ->
+                            waiter.future().complete(List.copyOf(changes.subList(0, Math.min(waiter.limit(), changes.size())))));
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Polling for changes failed", ex);
+        }
+        long now = System.nanoTime();
+        for (Waiter waiter : waiters) {
+            if (now - waiter.deadline() >= 0) {
+                waiter.future().complete(List.of());
+            }
+        }
+    }
+
+    private void purge() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    changeRecordRepository.deleteOlderThan(Instant.now().minus(retention)));
+            if (deleted != null && deleted > 0) {
+                log.info("Deleted {} changes older than {}", deleted, retention);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Deleting old changes failed", ex);
+        }
+    }
+
+    private record Waiter(long since, int limit, long deadline, CompletableFuture<List<ChangeDTO>> future) {
+    }
+}
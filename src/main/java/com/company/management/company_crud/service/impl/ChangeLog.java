@@ -0,0 +1,92 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dto.ChangeOperation;
+import com.company.management.company_crud.model.dto.EntityType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends a row to {@code change_record} for every create, update and delete, in the transaction
+ * that makes it, so the change feed holds exactly the committed changes. Entity inserts, updates
+ * and deletes are reported by {@link ChangeLogListener}; the PATCH statements, the set-based
+ * deletes of {@link SubtreeDeleter} and the write-behind renames report themselves.
+ * <p>
+ * The changes of a transaction are kept per row and written just before it commits by
+ * {@link TransactionBuffers}, in one JDBC batch with one timestamp. A row changed several times in
+ * one transaction is recorded once: as created when the transaction created it, not at all when it
+ * also deleted it, and otherwise with its last operation.
+ * <p>
+ * A deleted subtree is recorded by its root alone, plus the managers deleted with its projects,
+ * since those outlive a delete of their project everywhere else.
+ */
+@Component
+class ChangeLog {
+
+    private static final String INSERT =
+            "insert into change_record (entity_type, entity_id, operation, occurred_at) values (?, ?, ?, ?)";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionBuffers<Map<Key, ChangeOperation>> changes =
+            new TransactionBuffers<>(LinkedHashMap::new, this::write);
+
+    ChangeLog(EntityManager entityManager, EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+
+        ChangeLogListener listener = new ChangeLogListener(this);
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_INSERT, listener);
+        listeners.appendListeners(EventType.POST_UPDATE, listener);
+        listeners.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    /**
+     * Records a change made in the current transaction.
+     */
+    void record(EntityType type, long id, ChangeOperation operation) {
+        record(entityManager.unwrap(SessionImplementor.class), type, id, operation);
+    }
+
+    void record(SessionImplementor session, EntityType type, long id, ChangeOperation operation) {
+        changes.get(session).merge(new Key(type, id), operation, ChangeLog::merge);
+    }
+
+    void recordAll(EntityType type, List<Long> ids, ChangeOperation operation) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        ids.forEach(id -> record(session, type, id, operation));
+    }
+
+    private static ChangeOperation merge(ChangeOperation earlier, ChangeOperation later) {
+        if (earlier == ChangeOperation.CREATED) {
+            return later == ChangeOperation.DELETED ? null : ChangeOperation.CREATED;
+        }
+        return later;
+    }
+
+    private void write(Map<Key, ChangeOperation> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        jdbcTemplate.batchUpdate(INSERT, changes.entrySet().stream()
+                .map(entry -> new Object[]{entry.getKey().type().name(), entry.getKey().id(), entry.getValue().name(), now})
+                .toList());
+    }
+
+    private record Key(EntityType type, long id) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dto.ChangeOperation;
+import com.company.management.company_crud.model.dto.EntityType;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Reports the entity inserts, updates and deletes Hibernate performs to the {@link ChangeLog}, in
+ * the transaction that performs them.
+ */
+class ChangeLogListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final ChangeLog changeLog;
+
+    ChangeLogListener(ChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId(), ChangeOperation.CREATED);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId(), ChangeOperation.UPDATED);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId(), ChangeOperation.DELETED);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void record(EventSource session, Object entity, Object id, ChangeOperation operation) {
+        EntityType type = EntityTypes.of(entity);
+        if (type != null && id instanceof Long value) {
+            changeLog.record(session, type, value, operation);
+        }
+    }
+}
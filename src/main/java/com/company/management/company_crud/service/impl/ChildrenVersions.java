@@ -0,0 +1,66 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Department;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/**
+ * Moves the children version of a company or department, and its last modification, when one of its
+ * direct children is created, renamed or deleted, since its representation lists their names.
+ * <p>
+ * The increment is a JDBC update in the caller's transaction rather than a JPQL bulk update:
+ * Hibernate answers one of those by evicting the whole second-level cache region of the table, so
+ * every department or team write would empty the company or department region. Here only the one
+ * parent's entry is evicted when the transaction completes, and the table's cached query results
+ * are invalidated the way Hibernate would, so the cached version lookups see the new version.
+ * {@code childrenVersion} is not updatable through the entity, so a parent loaded in the same
+ * transaction does not write it back.
+ */
+@Component
+@RequiredArgsConstructor
+class ChildrenVersions {
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    void moveCompany(long companyId, Instant now) {
+        move("company", Company.class, companyId, now);
+    }
+
+    void moveCompanyOfDepartment(long departmentId, Instant now) {
+        jdbcTemplate.queryForList("select company_id from department where id = ?", Long.class, departmentId)
+                .stream().filter(Objects::nonNull).forEach(companyId -> moveCompany(companyId, now));
+    }
+
+    void moveDepartment(long departmentId, Instant now) {
+        move("department", Department.class, departmentId, now);
+    }
+
+    void moveDepartmentOfTeam(long teamId, Instant now) {
+        jdbcTemplate.queryForList("select department_id from team where id = ?", Long.class, teamId)
+                .stream().filter(Objects::nonNull).forEach(departmentId -> moveDepartment(departmentId, now));
+    }
+
+    private void move(String table, Class<?> entity, long id, Instant now) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        CacheImplementor cache = session.getFactory().getCache();
+        String[] spaces = {table};
+        cache.getTimestampsCache().preInvalidate(spaces, session);
+        jdbcTemplate.update("update " + table + " set children_version = children_version + 1, last_modified = ?"
+                + " where id = ?", now.atOffset(ZoneOffset.UTC), id);
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completed) -> {
+            cache.getTimestampsCache().invalidate(spaces, completed);
+            cache.evictEntityData(entity, id);
+        });
+    }
+}
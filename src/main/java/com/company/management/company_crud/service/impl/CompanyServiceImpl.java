@@ -1,36 +1,71 @@
 package com.company.management.company_crud.service.impl;
 
+import com.company.management.company_crud.exception.NotFoundException;
 import com.company.management.company_crud.mapper.CompanyMapper;
 import com.company.management.company_crud.model.dao.Company;
 import com.company.management.company_crud.model.dto.CompanyDTO;
+import com.company.management.company_crud.model.dto.ChangeOperation;
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.KeysetPage;
+import com.company.management.company_crud.model.dto.VersionDTO;
+import com.company.management.company_crud.model.projection.ChildName;
+import com.company.management.company_crud.model.projection.CompanyView;
+import com.company.management.company_crud.model.projection.VersionView;
 import com.company.management.company_crud.repository.CompanyRepository;
+import com.company.management.company_crud.repository.DepartmentRepository;
 import com.company.management.company_crud.service.CompanyService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("app.service")
 @RequiredArgsConstructor
 public class CompanyServiceImpl implements CompanyService {
 
     private final CompanyRepository companyRepository;
+    private final DepartmentRepository departmentRepository;
     private final CompanyMapper companyMapper;
+    private final SubtreeDeleter subtreeDeleter;
+    private final NameIndex nameIndex;
+    private final ChangeLog changeLog;
+    private final Validator validator;
 
     @Override
-    public List<CompanyDTO> getAllCompanies() {
-        return companyRepository.findAll()
-                .stream()
-                .map(companyMapper::companyToCompanyDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public KeysetPage<CompanyDTO> getAllCompanies(Long afterId, int limit) {
+        KeysetPage<CompanyView> page = KeysetPage.of(
+                companyRepository.findViewsByIdGreaterThan(afterId, Limit.of(limit + 1)),
+                limit, CompanyView::getId);
+        Map<Long, List<String>> departmentNames = findDepartmentNames(page.getItems());
+        return page.map(company -> companyMapper.companyViewToCompanyDTO(
+                company, departmentNames.getOrDefault(company.getId(), List.of())));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CompanyDTO getCompanyById(Long id) {
-        Company company = companyRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Company not found"));
-        return companyMapper.companyToCompanyDTO(company);
+        CompanyView company = companyRepository.findViewById(id)
+                .orElseThrow(() -> new NotFoundException("Company not found"));
+        return companyMapper.companyViewToCompanyDTO(company, findDepartmentNames(List.of(company))
+                .getOrDefault(id, List.of()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersionDTO getCompanyVersion(Long id) {
+        VersionView version = companyRepository.findVersionById(id)
+                .orElseThrow(() -> new NotFoundException("Company not found"));
+        return new VersionDTO(version.entityTag(), version.latestModification());
     }
 
     @Override
@@ -40,15 +75,50 @@ public class CompanyServiceImpl implements CompanyService {
     }
 
     @Override
-    public CompanyDTO updateCompany(Long id, CompanyDTO companyDTO) {
+    @Transactional
+    public CompanyDTO updateCompany(Long id, CompanyDTO companyDTO, String entityTag) {
         Company company = companyRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Company not found"));
+                .orElseThrow(() -> new NotFoundException("Company not found"));
+        EntityTags.check(entityTag, VersionView.entityTag(company.getVersion(), company.getChildrenVersion(), null));
         company.setName(companyDTO.getName());
         return companyMapper.companyToCompanyDTO(companyRepository.save(company));
     }
 
     @Override
-    public void deleteCompany(Long id) {
-        companyRepository.deleteById(id);
+    @Transactional
+    public void patchCompany(Long id, CompanyDTO patch) {
+        String name = PatchFields.name(validator, CompanyDTO.class, patch.getName());
+        if (companyRepository.updateName(id, name, Instant.now()) == 0) {
+            throw new NotFoundException("Company not found");
+        }
+        nameIndex.renameAfterCommit(EntityType.COMPANY, id, name);
+        changeLog.record(EntityType.COMPANY, id, ChangeOperation.UPDATED);
+    }
+
+    @Override
+    @Transactional
+    public void deleteCompany(Long id, String entityTag) {
+        Long version = null;
+        Long childrenVersion = null;
+        if (entityTag != null) {
+            VersionView current = companyRepository.findVersionById(id)
+                    .orElseThrow(() -> new NotFoundException("Company not found"));
+            EntityTags.check(entityTag, current.entityTag());
+            version = current.getVersion();
+            childrenVersion = current.getChildrenVersion();
+        }
+        if (!subtreeDeleter.deleteCompany(id, version, childrenVersion)) {
+            throw version == null
+                    ? new NotFoundException("Company not found")
+                    : new OptimisticLockingFailureException("Company was changed by another request");
+        }
+    }
+
+    private Map<Long, List<String>> findDepartmentNames(List<CompanyView> companies) {
+        if (companies.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> companyIds = companies.stream().map(CompanyView::getId).collect(Collectors.toList());
+        return ChildName.groupByParent(departmentRepository.findNamesByCompanyIdIn(companyIds));
     }
 }
@@ -1,61 +1,153 @@
 package com.company.management.company_crud.service.impl;
 
+import com.company.management.company_crud.exception.NotFoundException;
 import com.company.management.company_crud.mapper.DepartmentMapper;
 import com.company.management.company_crud.model.dao.Company;
 import com.company.management.company_crud.model.dao.Department;
 import com.company.management.company_crud.model.dto.DepartmentDTO;
+import com.company.management.company_crud.model.dto.ChangeOperation;
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.KeysetPage;
+import com.company.management.company_crud.model.dto.VersionDTO;
+import com.company.management.company_crud.model.projection.ChildName;
+import com.company.management.company_crud.model.projection.DepartmentView;
+import com.company.management.company_crud.model.projection.VersionView;
 import com.company.management.company_crud.repository.CompanyRepository;
 import com.company.management.company_crud.repository.DepartmentRepository;
+import com.company.management.company_crud.repository.TeamRepository;
 import com.company.management.company_crud.service.DepartmentService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("app.service")
 @RequiredArgsConstructor
 public class DepartmentServiceImpl implements DepartmentService {
 
     private final DepartmentRepository departmentRepository;
     private final CompanyRepository companyRepository;
+    private final TeamRepository teamRepository;
     private final DepartmentMapper departmentMapper;
+    private final SubtreeDeleter subtreeDeleter;
+    private final NameIndex nameIndex;
+    private final ChangeLog changeLog;
+    private final ChildrenVersions childrenVersions;
+    private final Validator validator;
 
     @Override
-    public List<DepartmentDTO> getDepartmentsByCompanyId(Long companyId) {
-        return departmentRepository.findAll()
-                .stream()
-                .filter(department -> department.getCompany().getId().equals(companyId))
-                .map(departmentMapper::departmentToDepartmentDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public KeysetPage<DepartmentDTO> getDepartmentsByCompanyId(Long companyId, Long afterId, int limit) {
+        KeysetPage<DepartmentView> page = KeysetPage.of(
+                departmentRepository.findViewsByCompanyId(companyId, afterId, Limit.of(limit + 1)),
+                limit, DepartmentView::getId);
+        Map<Long, List<String>> teamNames = findTeamNames(page.getItems());
+        return page.map(department -> departmentMapper.departmentViewToDepartmentDTO(
+                department, teamNames.getOrDefault(department.getId(), List.of())));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public DepartmentDTO getDepartmentById(Long id) {
-        Department department = departmentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Department not found"));
-        return departmentMapper.departmentToDepartmentDTO(department);
+        DepartmentView department = departmentRepository.findViewById(id)
+                .orElseThrow(() -> new NotFoundException("Department not found"));
+        return departmentMapper.departmentViewToDepartmentDTO(department, findTeamNames(List.of(department))
+                .getOrDefault(id, List.of()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DepartmentDTO> getDepartmentsByIds(List<Long> ids) {
+        List<DepartmentView> departments = RequestOrder.sort(ids, departmentRepository.findViewsByIdIn(ids),
+                DepartmentView::getId);
+        Map<Long, List<String>> teamNames = findTeamNames(departments);
+        return departments.stream()
+                .map(department -> departmentMapper.departmentViewToDepartmentDTO(
+                        department, teamNames.getOrDefault(department.getId(), List.of())))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersionDTO getDepartmentVersion(Long id) {
+        VersionView version = departmentRepository.findVersionById(id)
+                .orElseThrow(() -> new NotFoundException("Department not found"));
+        return new VersionDTO(version.entityTag(), version.latestModification());
     }
 
     @Override
+    @Transactional
     public DepartmentDTO createDepartment(Long companyId, DepartmentDTO departmentDTO) {
         Company company = companyRepository.findById(companyId)
-                .orElseThrow(() -> new RuntimeException("Company not found"));
+                .orElseThrow(() -> new NotFoundException("Company not found"));
         Department department = departmentMapper.departmentDTOToDepartment(departmentDTO);
         department.setCompany(company);
+        childrenVersions.moveCompany(companyId, Instant.now());
         return departmentMapper.departmentToDepartmentDTO(departmentRepository.save(department));
     }
 
     @Override
-    public DepartmentDTO updateDepartment(Long id, DepartmentDTO departmentDTO) {
+    @Transactional
+    public DepartmentDTO updateDepartment(Long id, DepartmentDTO departmentDTO, String entityTag) {
         Department department = departmentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Department not found"));
+                .orElseThrow(() -> new NotFoundException("Department not found"));
+        Company company = department.getCompany();
+        EntityTags.check(entityTag,
+                VersionView.entityTag(department.getVersion(), department.getChildrenVersion(),
+                        company == null ? null : company.getVersion()));
         department.setName(departmentDTO.getName());
+        if (company != null) {
+            childrenVersions.moveCompany(company.getId(), Instant.now());
+        }
         return departmentMapper.departmentToDepartmentDTO(departmentRepository.save(department));
     }
 
     @Override
-    public void deleteDepartment(Long id) {
-        departmentRepository.deleteById(id);
+    @Transactional
+    public void patchDepartment(Long id, DepartmentDTO patch) {
+        String name = PatchFields.name(validator, DepartmentDTO.class, patch.getName());
+        Instant now = Instant.now();
+        childrenVersions.moveCompanyOfDepartment(id, now);
+        if (departmentRepository.updateName(id, name, now) == 0) {
+            throw new NotFoundException("Department not found");
+        }
+        nameIndex.renameAfterCommit(EntityType.DEPARTMENT, id, name);
+        changeLog.record(EntityType.DEPARTMENT, id, ChangeOperation.UPDATED);
+    }
+
+    @Override
+    @Transactional
+    public void deleteDepartment(Long id, String entityTag) {
+        Long version = null;
+        Long childrenVersion = null;
+        if (entityTag != null) {
+            VersionView current = departmentRepository.findVersionById(id)
+                    .orElseThrow(() -> new NotFoundException("Department not found"));
+            EntityTags.check(entityTag, current.entityTag());
+            version = current.getVersion();
+            childrenVersion = current.getChildrenVersion();
+        }
+        if (!subtreeDeleter.deleteDepartment(id, version, childrenVersion)) {
+            throw version == null
+                    ? new NotFoundException("Department not found")
+                    : new OptimisticLockingFailureException("Department was changed by another request");
+        }
+    }
+
+    private Map<Long, List<String>> findTeamNames(List<DepartmentView> departments) {
+        if (departments.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> departmentIds = departments.stream().map(DepartmentView::getId).collect(Collectors.toList());
+        return ChildName.groupByParent(teamRepository.findNamesByDepartmentIdIn(departmentIds));
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.exception.PreconditionFailedException;
+
+/**
+ * Checks the entity tag of a conditional write against the row as the writing transaction reads
+ * it. A mismatch is a 412; a row that changes after this check fails the versioned UPDATE or
+ * DELETE instead, which is a 409.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    static void check(String entityTag, String currentTag) {
+        if (entityTag != null && !entityTag.equals(currentTag)) {
+            throw new PreconditionFailedException("If-Match does not match the current entity tag");
+        }
+    }
+}
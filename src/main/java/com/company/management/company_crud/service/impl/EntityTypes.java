@@ -0,0 +1,32 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.dao.Manager;
+import com.company.management.company_crud.model.dao.Project;
+import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.model.dto.EntityType;
+
+final class EntityTypes {
+
+    private EntityTypes() {
+    }
+
+    /**
+     * The type of one of the five entities, or {@code null} for anything else Hibernate reports.
+     */
+    static EntityType of(Object entity) {
+        if (entity instanceof Company) {
+            return EntityType.COMPANY;
+        } else if (entity instanceof Department) {
+            return EntityType.DEPARTMENT;
+        } else if (entity instanceof Team) {
+            return EntityType.TEAM;
+        } else if (entity instanceof Project) {
+            return EntityType.PROJECT;
+        } else if (entity instanceof Manager) {
+            return EntityType.MANAGER;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,144 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.projection.HierarchyRow;
+import com.company.management.company_crud.model.projection.ManagerView;
+import com.company.management.company_crud.repository.CompanyRepository;
+import com.company.management.company_crud.repository.ManagerRepository;
+import com.company.management.company_crud.service.ExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole company hierarchy as newline-delimited JSON, one line per entity in
+ * company, department, team, project, manager order. Each line carries its parent's id, so a
+ * reader can rebuild the tree without the writer ever holding more than the current row.
+ * Managers that manage no project follow at the end, without a parent id, read by a second
+ * streamed query in the same transaction.
+ */
+@Service
+@Timed("app.service")
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final int FLUSH_EVERY_LINES = 1000;
+
+    private final CompanyRepository companyRepository;
+    private final ManagerRepository managerRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportHierarchy(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            LineWriter writer = new LineWriter(generator);
+            try (Stream<HierarchyRow> rows = companyRepository.streamHierarchy()) {
+                writer.writeAll(rows.iterator());
+            }
+            try (Stream<ManagerView> managers = managerRepository.streamUnassigned()) {
+                writer.writeUnassigned(managers.iterator());
+            }
+        }
+    }
+
+    private static final class LineWriter {
+
+        private final JsonGenerator generator;
+        private Long companyId;
+        private Long departmentId;
+        private Long teamId;
+        private Long projectId;
+        private long lines;
+
+        private LineWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        private void writeAll(Iterator<HierarchyRow> rows) throws IOException {
+            while (rows.hasNext()) {
+                write(rows.next());
+            }
+            generator.flush();
+        }
+
+        private void write(HierarchyRow row) throws IOException {
+            // rows arrive ordered by company, department, team, project, so every entity's rows are
+            // contiguous and a change of id marks its first appearance
+            if (!Objects.equals(companyId, row.getCompanyId())) {
+                companyId = row.getCompanyId();
+                departmentId = null;
+                teamId = null;
+                projectId = null;
+                line("company", companyId, row.getCompanyName(), null, null);
+            }
+            if (row.getDepartmentId() != null && !row.getDepartmentId().equals(departmentId)) {
+                departmentId = row.getDepartmentId();
+                teamId = null;
+                projectId = null;
+                line("department", departmentId, row.getDepartmentName(), "companyId", companyId);
+            }
+            if (row.getTeamId() != null && !row.getTeamId().equals(teamId)) {
+                teamId = row.getTeamId();
+                projectId = null;
+                line("team", teamId, row.getTeamName(), "departmentId", departmentId);
+            }
+            if (row.getProjectId() != null && !row.getProjectId().equals(projectId)) {
+                projectId = row.getProjectId();
+                line("project", projectId, row.getProjectName(), "teamId", teamId);
+                if (row.getManagerId() != null) {
+                    manager(row.getManagerId(), projectId, row.getManagerName(), row.getManagerEmail());
+                }
+            }
+        }
+
+        private void writeUnassigned(Iterator<ManagerView> managers) throws IOException {
+            while (managers.hasNext()) {
+                ManagerView manager = managers.next();
+                manager(manager.getId(), null, manager.getName(), manager.getEmail());
+            }
+            generator.flush();
+        }
+
+        private void manager(Long id, Long projectId, String name, String email) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", "manager");
+            generator.writeNumberField("id", id);
+            if (projectId != null) {
+                generator.writeNumberField("projectId", projectId);
+            }
+            generator.writeStringField("name", name);
+            generator.writeStringField("email", email);
+            endLine();
+        }
+
+        private void line(String type, Long id, String name, String parentField, Long parentId) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", type);
+            generator.writeNumberField("id", id);
+            if (parentField != null) {
+                generator.writeNumberField(parentField, parentId);
+            }
+            generator.writeStringField("name", name);
+            endLine();
+        }
+
+        private void endLine() throws IOException {
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            if (++lines % FLUSH_EVERY_LINES == 0) {
+                generator.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.exception.ImportFailedException;
+import com.company.management.company_crud.mapper.CompanyMapper;
+import com.company.management.company_crud.mapper.DepartmentMapper;
+import com.company.management.company_crud.mapper.ProjectMapper;
+import com.company.management.company_crud.mapper.TeamMapper;
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.dao.Project;
+import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.model.dto.CompanyImportDTO;
+import com.company.management.company_crud.model.dto.DepartmentImportDTO;
+import com.company.management.company_crud.model.dto.ImportResultDTO;
+import com.company.management.company_crud.model.dto.TeamImportDTO;
+import com.company.management.company_crud.service.ImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports NDJSON company documents. Documents are parsed one at a time and committed in
+ * transactions of roughly {@code app.import.batch-size} rows, with the persistence context flushed
+ * and cleared at the same interval. Parsing only resumes once the previous batch has committed, so
+ * when the database is slower than the client the request body stops being read and TCP flow
+ * control pushes back on the sender.
+ * <p>
+ * A document that cannot be read or fails validation ends the import with the batches before it
+ * committed, and the error reports how many rows those hold.
+ */
+@Slf4j
+@Service
+@Timed("app.service")
+public class ImportServiceImpl implements ImportService {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final CompanyMapper companyMapper;
+    private final DepartmentMapper departmentMapper;
+    private final TeamMapper teamMapper;
+    private final ProjectMapper projectMapper;
+    private final int batchSize;
+
+    public ImportServiceImpl(EntityManager entityManager, TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper, Validator validator,
+                             CompanyMapper companyMapper, DepartmentMapper departmentMapper,
+                             TeamMapper teamMapper, ProjectMapper projectMapper,
+                             @Value("${app.import.batch-size:500}") int batchSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.companyMapper = companyMapper;
+        this.departmentMapper = departmentMapper;
+        this.teamMapper = teamMapper;
+        this.projectMapper = projectMapper;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ImportResultDTO importCompanies(InputStream in) throws IOException {
+        Progress progress = new Progress();
+        List<CompanyImportDTO> pending = new ArrayList<>();
+        long pendingRows = 0;
+        long document = 0;
+        try (MappingIterator<CompanyImportDTO> documents = objectMapper.readerFor(CompanyImportDTO.class).readValues(in)) {
+            CompanyImportDTO company;
+            while ((company = nextDocument(documents, ++document)) != null) {
+                validate(company, document);
+                pending.add(company);
+                pendingRows += rowCount(company);
+                if (pendingRows >= batchSize) {
+                    persist(pending, progress);
+                    pending.clear();
+                    pendingRows = 0;
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            // documents are read and checked between batches, so the progress so far is committed
+            throw new ImportFailedException(ex.getMessage(), progress.toResult());
+        }
+        persist(pending, progress);
+        ImportResultDTO result = progress.toResult();
+        log.info("Imported {} rows in {} ms ({} rows/s)", result.getRows(), result.getElapsedMillis(),
+                Math.round(result.getRowsPerSecond()));
+        return result;
+    }
+
+    private CompanyImportDTO nextDocument(MappingIterator<CompanyImportDTO> documents, long document) throws IOException {
+        try {
+            return documents.hasNextValue() ? documents.nextValue() : null;
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Malformed document " + document + ": " + ex.getOriginalMessage());
+        }
+    }
+
+    private void validate(CompanyImportDTO company, long document) {
+        Set<ConstraintViolation<CompanyImportDTO>> violations = validator.validate(company);
+        if (!violations.isEmpty()) {
+            String errors = violations.stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .collect(Collectors.joining(", "));
+            throw new IllegalArgumentException("Invalid document " + document + ": " + errors);
+        }
+    }
+
+    private void persist(List<CompanyImportDTO> companies, Progress progress) {
+        if (companies.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (CompanyImportDTO company : companies) {
+                persistCompany(company, progress);
+            }
+            flushAndClear(progress);
+        });
+        log.debug("Import progress: {} rows ({} rows/s)", progress.rows(), Math.round(progress.rowsPerSecond()));
+    }
+
+    private void persistCompany(CompanyImportDTO companyImport, Progress progress) {
+        Company company = companyMapper.companyImportDTOToCompany(companyImport);
+        persist(company, progress);
+        progress.companies++;
+        for (DepartmentImportDTO departmentImport : companyImport.getDepartments()) {
+            Department department = departmentMapper.departmentImportDTOToDepartment(departmentImport);
+            department.setCompany(company);
+            persist(department, progress);
+            progress.departments++;
+            for (TeamImportDTO teamImport : departmentImport.getTeams()) {
+                Team team = teamMapper.teamImportDTOToTeam(teamImport);
+                team.setDepartment(department);
+                persist(team, progress);
+                progress.teams++;
+                if (teamImport.getProject() != null) {
+                    Project project = projectMapper.projectImportDTOToProject(teamImport.getProject());
+                    project.setTeam(team);
+                    // the manager is inserted by cascade, so it counts towards the flush interval here
+                    persist(project, project.getManager() == null ? 1 : 2, progress);
+                    progress.projects++;
+                    if (project.getManager() != null) {
+                        progress.managers++;
+                    }
+                }
+            }
+        }
+    }
+
+    private void persist(Object entity, Progress progress) {
+        persist(entity, 1, progress);
+    }
+
+    private void persist(Object entity, int rows, Progress progress) {
+        entityManager.persist(entity);
+        progress.unflushed += rows;
+        if (progress.unflushed >= batchSize) {
+            // parents that get detached here are still valid foreign-key targets for their children
+            flushAndClear(progress);
+        }
+    }
+
+    private void flushAndClear(Progress progress) {
+        entityManager.flush();
+        entityManager.clear();
+        progress.unflushed = 0;
+    }
+
+    private static long rowCount(CompanyImportDTO company) {
+        long rows = 1;
+        for (DepartmentImportDTO department : company.getDepartments()) {
+            rows++;
+            for (TeamImportDTO team : department.getTeams()) {
+                rows++;
+                if (team.getProject() != null) {
+                    rows += team.getProject().getManager() == null ? 1 : 2;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static final class Progress {
+
+        private final long startedAt = System.nanoTime();
+        private long companies;
+        private long departments;
+        private long teams;
+        private long projects;
+        private long managers;
+        private int unflushed;
+
+        private long rows() {
+            return companies + departments + teams + projects + managers;
+        }
+
+        private double rowsPerSecond() {
+            double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+            return seconds > 0 ? rows() / seconds : 0;
+        }
+
+        private ImportResultDTO toResult() {
+            long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+            return new ImportResultDTO(companies, departments, teams, projects, managers, rows(), elapsedMillis,
+                    rowsPerSecond());
+        }
+    }
+}
@@ -1,25 +1,60 @@
 package com.company.management.company_crud.service.impl;
 
+import com.company.management.company_crud.exception.NotFoundException;
 import com.company.management.company_crud.mapper.ManagerMapper;
 import com.company.management.company_crud.model.dao.Manager;
+import com.company.management.company_crud.model.dto.ChangeOperation;
+import com.company.management.company_crud.model.dto.EntityType;
 import com.company.management.company_crud.model.dto.ManagerDTO;
+import com.company.management.company_crud.model.dto.VersionDTO;
+import com.company.management.company_crud.model.projection.ManagerView;
+import com.company.management.company_crud.model.projection.VersionView;
 import com.company.management.company_crud.repository.ManagerRepository;
 import com.company.management.company_crud.service.ManagerService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
 
 @Service
+@Timed("app.service")
 @RequiredArgsConstructor
 public class ManagerServiceImpl implements ManagerService {
 
     private final ManagerRepository managerRepository;
     private final ManagerMapper managerMapper;
+    private final SubtreeDeleter subtreeDeleter;
+    private final NameIndex nameIndex;
+    private final ChangeLog changeLog;
+    private final Validator validator;
 
     @Override
+    @Transactional(readOnly = true)
     public ManagerDTO getManagerById(Long id) {
-        Manager manager = managerRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Manager not found"));
-        return managerMapper.managerToManagerDTO(manager);
+        ManagerView manager = managerRepository.findViewById(id)
+                .orElseThrow(() -> new NotFoundException("Manager not found"));
+        return managerMapper.managerViewToManagerDTO(manager);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ManagerDTO> getManagersByIds(List<Long> ids) {
+        return RequestOrder.sort(ids, managerRepository.findViewsByIdIn(ids), ManagerView::getId).stream()
+                .map(managerMapper::managerViewToManagerDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersionDTO getManagerVersion(Long id) {
+        VersionView version = managerRepository.findVersionById(id)
+                .orElseThrow(() -> new NotFoundException("Manager not found"));
+        return new VersionDTO(version.entityTag(), version.latestModification());
     }
 
     @Override
@@ -29,16 +64,51 @@ public class ManagerServiceImpl implements ManagerService {
     }
 
     @Override
-    public ManagerDTO updateManager(Long id, ManagerDTO managerDTO) {
+    @Transactional
+    public ManagerDTO updateManager(Long id, ManagerDTO managerDTO, String entityTag) {
         Manager manager = managerRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Manager not found"));
+                .orElseThrow(() -> new NotFoundException("Manager not found"));
+        EntityTags.check(entityTag, VersionView.entityTag(manager.getVersion(), null, null));
         manager.setName(managerDTO.getName());
         manager.setEmail(managerDTO.getEmail());
         return managerMapper.managerToManagerDTO(managerRepository.save(manager));
     }
 
     @Override
-    public void deleteManager(Long id) {
-        managerRepository.deleteById(id);
+    @Transactional
+    public void patchManager(Long id, ManagerDTO patch) {
+        if (patch.getName() == null && patch.getEmail() == null) {
+            throw new IllegalArgumentException("Nothing to update");
+        }
+        if (patch.getName() != null) {
+            PatchFields.name(validator, ManagerDTO.class, patch.getName());
+        }
+        if (patch.getEmail() != null) {
+            PatchFields.check(validator, ManagerDTO.class, "email", patch.getEmail());
+        }
+        if (managerRepository.updateDetails(id, patch.getName(), patch.getEmail(), Instant.now()) == 0) {
+            throw new NotFoundException("Manager not found");
+        }
+        if (patch.getName() != null) {
+            nameIndex.renameAfterCommit(EntityType.MANAGER, id, patch.getName());
+        }
+        changeLog.record(EntityType.MANAGER, id, ChangeOperation.UPDATED);
+    }
+
+    @Override
+    @Transactional
+    public void deleteManager(Long id, String entityTag) {
+        Long version = null;
+        if (entityTag != null) {
+            VersionView current = managerRepository.findVersionById(id)
+                    .orElseThrow(() -> new NotFoundException("Manager not found"));
+            EntityTags.check(entityTag, current.entityTag());
+            version = current.getVersion();
+        }
+        if (!subtreeDeleter.deleteManager(id, version)) {
+            throw version == null
+                    ? new NotFoundException("Manager not found")
+                    : new OptimisticLockingFailureException("Manager was changed by another request");
+        }
     }
 }
\ No newline at end of file
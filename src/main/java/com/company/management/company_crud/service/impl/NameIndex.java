@@ -0,0 +1,224 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.SearchHitDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory n-gram index over the names of all five entities. Every name is folded to lower case,
+ * prefixed with a start marker and split into trigrams, plus the bigram of the marker and the
+ * first character. A query of three or more characters looks up the posting list of its rarest
+ * trigram and keeps the names that contain it; a shorter query looks up the gram of the marker and
+ * itself, so it matches names that start with it.
+ * <p>
+ * The index also keeps which rows belong to which: departments to companies, teams to departments,
+ * projects to teams and managers to projects, so that removing a row drops everything the
+ * set-based deletes of {@link SubtreeDeleter} remove with it.
+ * <p>
+ * Entries are replaced under the lock of their key in {@code entries}, and posting lists are only
+ * changed inside {@code compute}, so concurrent writers cannot lose each other's changes. Readers
+ * do not lock and may see a rename half applied, which at worst misses or over-matches the one
+ * name involved, and the verification against the folded name removes the over-match.
+ */
+@Component
+class NameIndex {
+
+    private static final char START = '\u0002';
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<Key>> postings = new ConcurrentHashMap<>();
+    private final Map<Key, Set<Key>> children = new ConcurrentHashMap<>();
+
+    /**
+     * Adds or replaces the name of a row. A {@code null} parent keeps whatever the row is linked to.
+     */
+    void put(EntityType type, long id, String name, Long parentId) {
+        Key key = new Key(type, id);
+        entries.compute(key, (k, old) -> replace(old, k, name));
+        if (parentId != null && type != EntityType.COMPANY) {
+            link(new Key(parentType(type), parentId), key);
+        }
+    }
+
+    /**
+     * Adds a row read while rebuilding, unless a committed change has put it there meanwhile.
+     */
+    void putIfAbsent(EntityType type, long id, String name, Long parentId) {
+        Key key = new Key(type, id);
+        entries.computeIfAbsent(key, k -> replace(null, k, name));
+        if (parentId != null && type != EntityType.COMPANY) {
+            link(new Key(parentType(type), parentId), key);
+        }
+    }
+
+    /**
+     * Renames a row that is in the index; rows it does not know yet are left to the rebuild.
+     */
+    void rename(EntityType type, long id, String name) {
+        entries.computeIfPresent(new Key(type, id), (key, old) -> replace(old, key, name));
+    }
+
+    /**
+     * Links a manager to the project it manages, so deleting the project drops the manager as well.
+     */
+    void linkManager(long projectId, long managerId) {
+        link(new Key(EntityType.PROJECT, projectId), new Key(EntityType.MANAGER, managerId));
+    }
+
+    /**
+     * Removes a row and, recursively, every row that belongs to it.
+     */
+    void remove(EntityType type, long id) {
+        remove(new Key(type, id));
+    }
+
+    void renameAfterCommit(EntityType type, long id, String name) {
+        afterCommit(() -> rename(type, id, name));
+    }
+
+    void removeAfterCommit(EntityType type, long id) {
+        afterCommit(() -> remove(type, id));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void clear() {
+        entries.clear();
+        postings.clear();
+        children.clear();
+    }
+
+    /**
+     * Names containing {@code query}, or starting with it when it is shorter than three characters,
+     * among the given types. Prefix matches come first, then shorter names, then lower ids.
+     */
+    List<SearchHitDTO> search(String query, Set<EntityType> types, int limit) {
+        String folded = fold(query);
+        boolean prefixOnly = folded.length() < 3;
+        Set<Key> candidates = null;
+        for (String gram : prefixOnly ? List.of(START + folded) : grams(folded, false)) {
+            Set<Key> keys = postings.get(gram);
+            if (keys == null) {
+                return List.of();
+            }
+            if (candidates == null || keys.size() < candidates.size()) {
+                candidates = keys;
+            }
+        }
+        return candidates.stream()
+                .filter(key -> types.contains(key.type()))
+                .map(entries::get)
+                .filter(Objects::nonNull)
+                .filter(entry -> prefixOnly ? entry.folded().startsWith(folded) : entry.folded().contains(folded))
+                .sorted(Comparator.comparing((Entry entry) -> !entry.folded().startsWith(folded))
+                        .thenComparingInt(entry -> entry.folded().length())
+                        .thenComparingLong(entry -> entry.key().id()))
+                .limit(limit)
+                .map(entry -> new SearchHitDTO(entry.key().type(), entry.key().id(), entry.name()))
+                .toList();
+    }
+
+    static String fold(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Entry replace(Entry old, Key key, String name) {
+        if (old != null && old.name().equals(name)) {
+            return old;
+        }
+        if (old != null) {
+            for (String gram : grams(old.folded(), true)) {
+                postings.computeIfPresent(gram, (g, keys) -> {
+                    keys.remove(key);
+                    return keys.isEmpty() ? null : keys;
+                });
+            }
+        }
+        if (name == null) {
+            return null;
+        }
+        Entry entry = new Entry(key, name, fold(name));
+        for (String gram : grams(entry.folded(), true)) {
+            postings.compute(gram, (g, keys) -> {
+                Set<Key> updated = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                updated.add(key);
+                return updated;
+            });
+        }
+        return entry;
+    }
+
+    private void link(Key parent, Key child) {
+        children.compute(parent, (k, keys) -> {
+            Set<Key> updated = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            updated.add(child);
+            return updated;
+        });
+    }
+
+    private void remove(Key key) {
+        entries.computeIfPresent(key, (k, old) -> replace(old, k, null));
+        Set<Key> owned = children.remove(key);
+        if (owned != null) {
+            owned.forEach(this::remove);
+        }
+    }
+
+    private static Set<String> grams(String folded, boolean indexing) {
+        String marked = indexing ? START + folded : folded;
+        Set<String> grams = new LinkedHashSet<>();
+        if (indexing && !folded.isEmpty()) {
+            grams.add(marked.substring(0, 2));
+        }
+        for (int i = 0; i + 3 <= marked.length(); i++) {
+            grams.add(marked.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static EntityType parentType(EntityType type) {
+        return switch (type) {
+            case DEPARTMENT -> EntityType.COMPANY;
+            case TEAM -> EntityType.DEPARTMENT;
+            case PROJECT -> EntityType.TEAM;
+            case MANAGER -> EntityType.PROJECT;
+            case COMPANY -> throw new IllegalArgumentException("A company has no parent");
+        };
+    }
+
+    /**
+     * Bulk statements and JDBC writes bypass the entity listeners, so their callers apply the
+     * change here once the transaction has committed, or right away outside of one.
+     */
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private record Key(EntityType type, long id) {
+    }
+
+    private record Entry(Key key, String name, String folded) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.dao.Manager;
+import com.company.management.company_crud.model.dao.Project;
+import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.model.dto.EntityType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Applies the inserts, updates and deletes Hibernate performs on entities to the {@link NameIndex}
+ * once their transaction has committed, so rolled back changes never reach it.
+ */
+class NameIndexListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final NameIndex index;
+
+    NameIndexListener(NameIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        put(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        put(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityType type = EntityTypes.of(event.getEntity());
+        if (type != null) {
+            index.remove(type, (Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+
+    private void put(Object entity) {
+        if (entity instanceof Company company) {
+            index.put(EntityType.COMPANY, company.getId(), company.getName(), null);
+        } else if (entity instanceof Department department) {
+            index.put(EntityType.DEPARTMENT, department.getId(), department.getName(),
+                    department.getCompany() == null ? null : department.getCompany().getId());
+        } else if (entity instanceof Team team) {
+            index.put(EntityType.TEAM, team.getId(), team.getName(),
+                    team.getDepartment() == null ? null : team.getDepartment().getId());
+        } else if (entity instanceof Project project) {
+            index.put(EntityType.PROJECT, project.getId(), project.getName(),
+                    project.getTeam() == null ? null : project.getTeam().getId());
+            if (project.getManager() != null) {
+                index.linkManager(project.getId(), project.getManager().getId());
+            }
+        } else if (entity instanceof Manager manager) {
+            index.put(EntityType.MANAGER, manager.getId(), manager.getName(), null);
+        }
+    }
+}
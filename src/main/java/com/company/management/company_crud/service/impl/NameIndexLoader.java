@@ -0,0 +1,101 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.projection.IndexedName;
+import com.company.management.company_crud.repository.CompanyRepository;
+import com.company.management.company_crud.repository.DepartmentRepository;
+import com.company.management.company_crud.repository.ManagerRepository;
+import com.company.management.company_crud.repository.ProjectRepository;
+import com.company.management.company_crud.repository.TeamRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@link NameIndex} in step with the database: registers the entity listener with
+ * Hibernate, and once the application is ready fills the index with one streaming query per
+ * entity type, all five running at once on the application task executor.
+ * <p>
+ * Rows written while the rebuild runs are taken from the listener rather than from the rebuild's
+ * older read. A row deleted in that window can survive in the index until the next restart;
+ * searches in the meantime return ids that answer 404.
+ */
+@Slf4j
+@Component
+class NameIndexLoader {
+
+    private final NameIndex index;
+    private final CompanyRepository companyRepository;
+    private final DepartmentRepository departmentRepository;
+    private final TeamRepository teamRepository;
+    private final ProjectRepository projectRepository;
+    private final ManagerRepository managerRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Executor executor;
+
+    NameIndexLoader(NameIndex index, EntityManagerFactory entityManagerFactory,
+                    CompanyRepository companyRepository, DepartmentRepository departmentRepository,
+                    TeamRepository teamRepository, ProjectRepository projectRepository,
+                    ManagerRepository managerRepository, PlatformTransactionManager transactionManager,
+                    @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.index = index;
+        this.companyRepository = companyRepository;
+        this.departmentRepository = departmentRepository;
+        this.teamRepository = teamRepository;
+        this.projectRepository = projectRepository;
+        this.managerRepository = managerRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = executor;
+
+        NameIndexListener listener = new NameIndexListener(index);
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        listeners.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        listeners.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    CompletableFuture<Void> rebuild() {
+        long start = System.nanoTime();
+        return CompletableFuture.allOf(
+                        load(EntityType.COMPANY, companyRepository::streamIndexedNames),
+                        load(EntityType.DEPARTMENT, departmentRepository::streamIndexedNames),
+                        load(EntityType.TEAM, teamRepository::streamIndexedNames),
+                        load(EntityType.PROJECT, projectRepository::streamIndexedNames),
+                        load(EntityType.MANAGER, managerRepository::streamIndexedNames))
+                .whenComplete((done, failure) -> {
+                    if (failure != null) {
+                        log.warn("Name search index is incomplete: rebuild failed", failure);
+                    } else {
+                        log.info("Indexed {} names in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+                    }
+                });
+    }
+
+    private CompletableFuture<Void> load(EntityType type, Supplier<Stream<IndexedName>> names) {
+        return CompletableFuture.runAsync(() -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<IndexedName> rows = names.get()) {
+                rows.forEach(row -> index.putIfAbsent(type, row.getId(), row.getName(), row.getParentId()));
+            }
+        }), executor);
+    }
+}
@@ -0,0 +1,35 @@
+package com.company.management.company_crud.service.impl;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.Set;
+
+/**
+ * Checks the fields of a PATCH body, which are not validated as a whole since a field left out
+ * keeps its current value. Failures surface as {@link IllegalArgumentException}, a 400.
+ */
+final class PatchFields {
+
+    private PatchFields() {
+    }
+
+    /**
+     * The name of an entity whose name is the only field a PATCH can change, so it is required; it
+     * is held to the constraints on the {@code name} of the DTO, as a PUT would be.
+     */
+    static String name(Validator validator, Class<?> type, String name) {
+        check(validator, type, "name", name);
+        return name;
+    }
+
+    /**
+     * Applies the constraints declared on {@code property} of the DTO to a value given for it.
+     */
+    static void check(Validator validator, Class<?> type, String property, Object value) {
+        Set<? extends ConstraintViolation<?>> violations = validator.validateValue(type, property, value);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.iterator().next().getMessage());
+        }
+    }
+}
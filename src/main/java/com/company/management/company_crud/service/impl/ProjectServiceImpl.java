@@ -1,49 +1,120 @@
 package com.company.management.company_crud.service.impl;
 
+import com.company.management.company_crud.exception.NotFoundException;
 import com.company.management.company_crud.mapper.ProjectMapper;
+import com.company.management.company_crud.model.dao.Manager;
 import com.company.management.company_crud.model.dao.Project;
 import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.model.dto.ChangeOperation;
+import com.company.management.company_crud.model.dto.EntityType;
 import com.company.management.company_crud.model.dto.ProjectDTO;
+import com.company.management.company_crud.model.dto.VersionDTO;
+import com.company.management.company_crud.model.projection.ProjectView;
+import com.company.management.company_crud.model.projection.VersionView;
 import com.company.management.company_crud.repository.ProjectRepository;
 import com.company.management.company_crud.repository.TeamRepository;
 import com.company.management.company_crud.service.ProjectService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
 
 @Service
+@Timed("app.service")
 @RequiredArgsConstructor
 public class ProjectServiceImpl implements ProjectService {
 
     private final ProjectRepository projectRepository;
     private final TeamRepository teamRepository;
     private final ProjectMapper projectMapper;
+    private final SubtreeDeleter subtreeDeleter;
+    private final NameIndex nameIndex;
+    private final ChangeLog changeLog;
+    private final Validator validator;
 
     @Override
+    @Transactional(readOnly = true)
     public ProjectDTO getProjectById(Long id) {
-        Project project = projectRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Project not found"));
-        return projectMapper.projectToProjectDTO(project);
+        ProjectView project = projectRepository.findViewById(id)
+                .orElseThrow(() -> new NotFoundException("Project not found"));
+        return projectMapper.projectViewToProjectDTO(project);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProjectDTO> getProjectsByIds(List<Long> ids) {
+        return RequestOrder.sort(ids, projectRepository.findViewsByIdIn(ids), ProjectView::getId).stream()
+                .map(projectMapper::projectViewToProjectDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersionDTO getProjectVersion(Long id) {
+        VersionView version = projectRepository.findVersionById(id)
+                .orElseThrow(() -> new NotFoundException("Project not found"));
+        return new VersionDTO(version.entityTag(), version.latestModification());
     }
 
     @Override
     public ProjectDTO createProject(Long teamId, ProjectDTO projectDTO) {
         Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new RuntimeException("Team not found"));
+                .orElseThrow(() -> new NotFoundException("Team not found"));
         Project project = projectMapper.projectDTOToProject(projectDTO);
         project.setTeam(team);
         return projectMapper.projectToProjectDTO(projectRepository.save(project));
     }
 
     @Override
-    public ProjectDTO updateProject(Long id, ProjectDTO projectDTO) {
+    @Transactional
+    public ProjectDTO updateProject(Long id, ProjectDTO projectDTO, String entityTag) {
         Project project = projectRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Project not found"));
+                .orElseThrow(() -> new NotFoundException("Project not found"));
+        EntityTags.check(entityTag, entityTag(project));
         project.setName(projectDTO.getName());
         return projectMapper.projectToProjectDTO(projectRepository.save(project));
     }
 
     @Override
-    public void deleteProject(Long id) {
-        projectRepository.deleteById(id);
+    @Transactional
+    public void patchProject(Long id, ProjectDTO patch) {
+        String name = PatchFields.name(validator, ProjectDTO.class, patch.getName());
+        if (projectRepository.updateName(id, name, Instant.now()) == 0) {
+            throw new NotFoundException("Project not found");
+        }
+        nameIndex.renameAfterCommit(EntityType.PROJECT, id, name);
+        changeLog.record(EntityType.PROJECT, id, ChangeOperation.UPDATED);
+    }
+
+    @Override
+    @Transactional
+    public void deleteProject(Long id, String entityTag) {
+        Long version = null;
+        if (entityTag != null) {
+            VersionView current = projectRepository.findVersionById(id)
+                    .orElseThrow(() -> new NotFoundException("Project not found"));
+            EntityTags.check(entityTag, current.entityTag());
+            version = current.getVersion();
+        }
+        if (!subtreeDeleter.deleteProject(id, version)) {
+            throw version == null
+                    ? new NotFoundException("Project not found")
+                    : new OptimisticLockingFailureException("Project was changed by another request");
+        }
+    }
+
+    /**
+     * The tag {@code ProjectRepository#findVersionById} reads, for a project loaded as an entity.
+     */
+    private static String entityTag(Project project) {
+        Team team = project.getTeam();
+        Manager manager = project.getManager();
+        long parentVersion = (team == null ? 0 : team.getVersion()) + (manager == null ? 0 : manager.getVersion());
+        return VersionView.entityTag(project.getVersion(), null, parentVersion);
     }
 }
\ No newline at end of file
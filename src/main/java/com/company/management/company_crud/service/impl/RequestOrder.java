@@ -0,0 +1,33 @@
+package com.company.management.company_crud.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Puts the rows of an {@code id in (...)} query, which come back in no particular order, into
+ * the order the ids were requested in. Ids without a row are skipped.
+ */
+final class RequestOrder {
+
+    private RequestOrder() {
+    }
+
+    static <T> List<T> sort(Collection<Long> ids, List<T> rows, Function<T, Long> id) {
+        Map<Long, T> byId = new HashMap<>(rows.size() * 2);
+        for (T row : rows) {
+            byId.put(id.apply(row), row);
+        }
+        List<T> sorted = new ArrayList<>(rows.size());
+        for (Long requested : ids) {
+            T row = byId.get(requested);
+            if (row != null) {
+                sorted.add(row);
+            }
+        }
+        return sorted;
+    }
+}
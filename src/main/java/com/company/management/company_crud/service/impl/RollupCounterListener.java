@@ -0,0 +1,63 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.dao.Project;
+import com.company.management.company_crud.model.dao.Team;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Reports the entity inserts and deletes Hibernate performs to the {@link RollupCounters}, in the
+ * transaction that performs them.
+ */
+class RollupCounterListener implements PostInsertEventListener, PostDeleteEventListener {
+
+    private final RollupCounters counters;
+
+    RollupCounterListener(RollupCounters counters) {
+        this.counters = counters;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        change(event.getSession(), event.getEntity(), 1);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        change(event.getSession(), event.getEntity(), -1);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void change(EventSource session, Object entity, int sign) {
+        if (entity instanceof Company company) {
+            if (sign > 0) {
+                counters.companyCreated(session, company.getId());
+            } else {
+                counters.companyRemoved(session, company.getId());
+            }
+        } else if (entity instanceof Department department && department.getCompany() != null) {
+            if (sign > 0) {
+                counters.departmentCreated(session, department.getId(), department.getCompany().getId());
+            } else {
+                counters.departmentRemoved(session, department.getId());
+            }
+        } else if (entity instanceof Team team && team.getDepartment() != null) {
+            Department department = team.getDepartment();
+            counters.add(session, department.getId(), department.getCompany().getId(), sign, 0, 0);
+        } else if (entity instanceof Project project && project.getTeam() != null) {
+            Department department = project.getTeam().getDepartment();
+            counters.add(session, department.getId(), department.getCompany().getId(), 0, sign,
+                    project.getManager() == null ? 0 : sign);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.repository.CompanyStatsRepository;
+import com.company.management.company_crud.repository.DepartmentStatsRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps the department, team, project and manager counts in {@code company_stats} and
+ * {@code department_stats} current inside the transactions that change them, so reading them is a
+ * primary key lookup. Entity inserts and deletes are reported by {@link RollupCounterListener}; the
+ * set-based deletes of {@link SubtreeDeleter} report themselves.
+ * <p>
+ * The changes of a transaction are summed per department and per company and written just before
+ * it commits by {@link TransactionBuffers}, with one JDBC batch per statement. A transaction that
+ * creates many teams then updates each counter row once and holds its lock only while committing.
+ * Rows are written in id order, departments before companies, so two transactions never lock them
+ * in opposite orders.
+ * <p>
+ * Teams and projects never move to another parent, and a project's manager is only set when the
+ * project is created, so inserts and deletes are all that change the counts. A manager manages at
+ * most one project, so the projects with a manager are also the distinct managers.
+ */
+@Slf4j
+@Component
+class RollupCounters {
+
+    private static final String INSERT_COMPANY =
+            "insert into company_stats (company_id, departments, teams, projects, managers) values (?, ?, ?, ?, ?)";
+    private static final String INSERT_DEPARTMENT =
+            "insert into department_stats (department_id, company_id, teams, projects, managers) values (?, ?, ?, ?, ?)";
+    private static final String UPDATE_DEPARTMENT = "update department_stats"
+            + " set teams = teams + ?, projects = projects + ?, managers = managers + ? where department_id = ?";
+    private static final String UPDATE_COMPANY = "update company_stats set departments = departments + ?,"
+            + " teams = teams + ?, projects = projects + ?, managers = managers + ? where company_id = ?";
+    private static final String SUBTRACT_DEPARTMENT = "update company_stats set departments = departments - 1,"
+            + " teams = teams - (select s.teams from department_stats s where s.department_id = ?),"
+            + " projects = projects - (select s.projects from department_stats s where s.department_id = ?),"
+            + " managers = managers - (select s.managers from department_stats s where s.department_id = ?)"
+            + " where company_id = (select s.company_id from department_stats s where s.department_id = ?)";
+    private static final String DELETE_DEPARTMENT = "delete from department_stats where department_id = ?";
+    private static final String DELETE_COMPANY_DEPARTMENTS = "delete from department_stats where company_id = ?";
+    private static final String DELETE_COMPANY = "delete from company_stats where company_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CompanyStatsRepository companyStatsRepository;
+    private final DepartmentStatsRepository departmentStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionBuffers<Changes> changes = new TransactionBuffers<>(Changes::new, this::write);
+
+    RollupCounters(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+                   CompanyStatsRepository companyStatsRepository, DepartmentStatsRepository departmentStatsRepository,
+                   PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.companyStatsRepository = companyStatsRepository;
+        this.departmentStatsRepository = departmentStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        RollupCounterListener listener = new RollupCounterListener(this);
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_INSERT, listener);
+        listeners.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    /**
+     * Counts, once, the companies and departments that have no counters yet, such as those created
+     * before the counters existed. This runs before the application takes requests.
+     */
+    @PostConstruct
+    void backfill() {
+        int[] rows = transactionTemplate.execute(status ->
+                new int[]{companyStatsRepository.insertMissing(), departmentStatsRepository.insertMissing()});
+        if (rows != null && rows[0] + rows[1] > 0) {
+            log.info("Counted the hierarchy of {} companies and {} departments that had no counters", rows[0], rows[1]);
+        }
+    }
+
+    void companyCreated(SessionImplementor session, long companyId) {
+        changes.get(session).company(companyId).created = true;
+    }
+
+    void departmentCreated(SessionImplementor session, long departmentId, long companyId) {
+        Changes pending = changes.get(session);
+        pending.department(departmentId, companyId).created = true;
+        pending.company(companyId).departments++;
+    }
+
+    /**
+     * Adds teams, projects and managers to a department and its company, or takes them off with
+     * negative numbers.
+     */
+    void add(SessionImplementor session, long departmentId, long companyId, int teams, int projects, int managers) {
+        Changes pending = changes.get(session);
+        pending.department(departmentId, companyId).add(teams, projects, managers);
+        pending.company(companyId).add(teams, projects, managers);
+    }
+
+    /**
+     * Drops the counters of a department and takes what it held off its company.
+     */
+    void departmentRemoved(SessionImplementor session, long departmentId) {
+        changes.get(session).removedDepartments.add(departmentId);
+    }
+
+    void companyRemoved(SessionImplementor session, long companyId) {
+        changes.get(session).removedCompanies.add(companyId);
+    }
+
+    private void write(Changes changes) {
+        List<Object[]> newCompanies = new ArrayList<>();
+        List<Object[]> companyUpdates = new ArrayList<>();
+        changes.companies.forEach((id, counts) -> {
+            if (counts.created) {
+                newCompanies.add(new Object[]{id, counts.departments, counts.teams, counts.projects, counts.managers});
+            } else if (!counts.isZero()) {
+                companyUpdates.add(new Object[]{counts.departments, counts.teams, counts.projects, counts.managers, id});
+            }
+        });
+        List<Object[]> newDepartments = new ArrayList<>();
+        List<Object[]> departmentUpdates = new ArrayList<>();
+        changes.departments.forEach((id, counts) -> {
+            if (counts.created) {
+                newDepartments.add(new Object[]{id, counts.companyId, counts.teams, counts.projects, counts.managers});
+            } else if (!counts.isZero()) {
+                departmentUpdates.add(new Object[]{counts.teams, counts.projects, counts.managers, id});
+            }
+        });
+
+        batch(INSERT_COMPANY, newCompanies);
+        batch(INSERT_DEPARTMENT, newDepartments);
+        batch(UPDATE_DEPARTMENT, departmentUpdates);
+        batch(UPDATE_COMPANY, companyUpdates);
+        batch(SUBTRACT_DEPARTMENT, changes.removedDepartments.stream().map(id -> new Object[]{id, id, id, id}).toList());
+        batch(DELETE_DEPARTMENT, changes.removedDepartments.stream().map(id -> new Object[]{id}).toList());
+        batch(DELETE_COMPANY_DEPARTMENTS, changes.removedCompanies.stream().map(id -> new Object[]{id}).toList());
+        batch(DELETE_COMPANY, changes.removedCompanies.stream().map(id -> new Object[]{id}).toList());
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    private static final class Changes {
+        private final Map<Long, Counts> companies = new TreeMap<>();
+        private final Map<Long, Counts> departments = new TreeMap<>();
+        private final Set<Long> removedDepartments = new TreeSet<>();
+        private final Set<Long> removedCompanies = new TreeSet<>();
+
+        Counts company(long id) {
+            return companies.computeIfAbsent(id, key -> new Counts(null));
+        }
+
+        Counts department(long id, long companyId) {
+            return departments.computeIfAbsent(id, key -> new Counts(companyId));
+        }
+    }
+
+    private static final class Counts {
+        private final Long companyId;
+        private boolean created;
+        private long departments;
+        private long teams;
+        private long projects;
+        private long managers;
+
+        Counts(Long companyId) {
+            this.companyId = companyId;
+        }
+
+        void add(int teams, int projects, int managers) {
+            this.teams += teams;
+            this.projects += projects;
+            this.managers += managers;
+        }
+
+        boolean isZero() {
+            return departments == 0 && teams == 0 && projects == 0 && managers == 0;
+        }
+    }
+}
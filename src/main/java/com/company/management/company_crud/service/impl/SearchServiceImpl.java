@@ -0,0 +1,31 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.SearchHitDTO;
+import com.company.management.company_crud.service.SearchService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Answers name searches from the {@link NameIndex} alone, without touching the database.
+ */
+@Service
+@Timed("app.service")
+@RequiredArgsConstructor
+public class SearchServiceImpl implements SearchService {
+
+    private final NameIndex nameIndex;
+
+    @Override
+    public List<SearchHitDTO> searchNames(String query, Set<EntityType> types, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("q must not be blank");
+        }
+        return nameIndex.search(query, types.isEmpty() ? EnumSet.allOf(EntityType.class) : types, limit);
+    }
+}
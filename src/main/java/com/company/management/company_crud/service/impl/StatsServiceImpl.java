@@ -0,0 +1,44 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.exception.NotFoundException;
+import com.company.management.company_crud.mapper.StatsMapper;
+import com.company.management.company_crud.model.dao.CompanyStats;
+import com.company.management.company_crud.model.dto.CompanyStatsDTO;
+import com.company.management.company_crud.model.dto.DepartmentStatsDTO;
+import com.company.management.company_crud.repository.CompanyStatsRepository;
+import com.company.management.company_crud.repository.DepartmentStatsRepository;
+import com.company.management.company_crud.service.StatsService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reads the counters {@link RollupCounters} keeps, a primary key lookup for a company and an index
+ * range for its departments, however large the company is.
+ */
+@Service
+@Timed("app.service")
+@RequiredArgsConstructor
+public class StatsServiceImpl implements StatsService {
+
+    private final CompanyStatsRepository companyStatsRepository;
+    private final DepartmentStatsRepository departmentStatsRepository;
+    private final StatsMapper statsMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CompanyStatsDTO getCompanyStats(Long companyId) {
+        CompanyStats stats = companyStatsRepository.findById(companyId)
+                .orElseThrow(() -> new NotFoundException("Company not found"));
+        return statsMapper.companyStatsToCompanyStatsDTO(stats, departmentStatsRepository.findAllByCompanyId(companyId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DepartmentStatsDTO getDepartmentStats(Long departmentId) {
+        return departmentStatsRepository.findById(departmentId)
+                .map(statsMapper::departmentStatsToDepartmentStatsDTO)
+                .orElseThrow(() -> new NotFoundException("Department not found"));
+    }
+}
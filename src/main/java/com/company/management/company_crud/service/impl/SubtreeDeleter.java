@@ -0,0 +1,166 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dto.ChangeOperation;
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.projection.OwnerIds;
+import com.company.management.company_crud.repository.CompanyRepository;
+import com.company.management.company_crud.repository.DepartmentRepository;
+import com.company.management.company_crud.repository.ManagerRepository;
+import com.company.management.company_crud.repository.ProjectRepository;
+import com.company.management.company_crud.repository.TeamRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Deletes a company, department, team, project or manager with everything below it in a fixed
+ * number of set-based statements: the projects of the affected teams, the teams, the departments,
+ * the root row, and last the managers of the deleted projects, which a project cascades its own
+ * removal to. Nothing is loaded beforehand, so the cost follows the rows the database deletes, not
+ * the size of an object graph, and whether the root existed comes from the count of its delete.
+ * Hibernate evicts the second-level cache regions of the tables a bulk statement touches.
+ * <p>
+ * Deleting a department or a team also moves the children version of its parent, whose
+ * representation lists the names of its children, through {@link ChildrenVersions}.
+ * <p>
+ * Bulk deletes raise no entity events, so each delete reports what it removed to the
+ * {@link RollupCounters} and the {@link ChangeLog} itself. Deleting a team or a project first reads
+ * which department and company it belongs to, with one primary key lookup.
+ */
+@Component
+@RequiredArgsConstructor
+class SubtreeDeleter {
+
+    /**
+     * Keeps the {@code id in (...)} list well below the bind parameter limits of the drivers.
+     */
+    private static final int MANAGER_IDS_PER_STATEMENT = 1000;
+
+    private final EntityManager entityManager;
+    private final CompanyRepository companyRepository;
+    private final DepartmentRepository departmentRepository;
+    private final TeamRepository teamRepository;
+    private final ProjectRepository projectRepository;
+    private final ManagerRepository managerRepository;
+    private final NameIndex nameIndex;
+    private final RollupCounters rollupCounters;
+    private final ChangeLog changeLog;
+    private final ChildrenVersions childrenVersions;
+
+    /**
+     * With a {@code version}, the root row is deleted only while it still has that version, and for
+     * a company or department that children version, the two its entity tag was checked against;
+     * when it does not, nothing is deleted and the caller rolls back the statements before it.
+     */
+    boolean deleteCompany(Long id, Long version, Long childrenVersion) {
+        flushPendingChanges();
+        List<Long> managerIds = projectRepository.findManagerIdsByCompanyId(id);
+        projectRepository.deleteAllByCompanyId(id);
+        teamRepository.deleteAllByCompanyId(id);
+        departmentRepository.deleteAllByCompanyId(id);
+        int deleted = version == null
+                ? companyRepository.deleteRowById(id)
+                : companyRepository.deleteRowByIdAndVersion(id, version, childrenVersion);
+        if (deleted > 0) {
+            rollupCounters.companyRemoved(session(), id);
+        }
+        return finish(EntityType.COMPANY, id, deleted, managerIds);
+    }
+
+    boolean deleteDepartment(Long id, Long version, Long childrenVersion) {
+        flushPendingChanges();
+        childrenVersions.moveCompanyOfDepartment(id, Instant.now());
+        List<Long> managerIds = projectRepository.findManagerIdsByDepartmentId(id);
+        projectRepository.deleteAllByDepartmentId(id);
+        teamRepository.deleteAllByDepartmentId(id);
+        int deleted = version == null
+                ? departmentRepository.deleteRowById(id)
+                : departmentRepository.deleteRowByIdAndVersion(id, version, childrenVersion);
+        if (deleted > 0) {
+            rollupCounters.departmentRemoved(session(), id);
+        }
+        return finish(EntityType.DEPARTMENT, id, deleted, managerIds);
+    }
+
+    boolean deleteTeam(Long id, Long version) {
+        flushPendingChanges();
+        childrenVersions.moveDepartmentOfTeam(id, Instant.now());
+        Optional<OwnerIds> owner = teamRepository.findOwnerIdsById(id);
+        List<Long> managerIds = projectRepository.findManagerIdsByTeamId(id);
+        int projects = projectRepository.deleteAllByTeamId(id);
+        int deleted = version == null
+                ? teamRepository.deleteRowById(id)
+                : teamRepository.deleteRowByIdAndVersion(id, version);
+        if (deleted > 0) {
+            owner.ifPresent(ids -> rollupCounters.add(session(), ids.getDepartmentId(), ids.getCompanyId(),
+                    -1, -projects, -managerIds.size()));
+        }
+        return finish(EntityType.TEAM, id, deleted, managerIds);
+    }
+
+    boolean deleteProject(Long id, Long version) {
+        flushPendingChanges();
+        Optional<OwnerIds> owner = projectRepository.findOwnerIdsById(id);
+        List<Long> managerIds = projectRepository.findManagerIdsById(id);
+        int deleted = version == null
+                ? projectRepository.deleteRowById(id)
+                : projectRepository.deleteRowByIdAndVersion(id, version);
+        if (deleted > 0) {
+            owner.ifPresent(ids -> rollupCounters.add(session(), ids.getDepartmentId(), ids.getCompanyId(),
+                    0, -1, -managerIds.size()));
+        }
+        return finish(EntityType.PROJECT, id, deleted, managerIds);
+    }
+
+    boolean deleteManager(Long id, Long version) {
+        flushPendingChanges();
+        int deleted = version == null
+                ? managerRepository.deleteRowById(id)
+                : managerRepository.deleteRowByIdAndVersion(id, version);
+        return finish(EntityType.MANAGER, id, deleted, List.of());
+    }
+
+    /**
+     * Bulk statements bypass the persistence context, and with the {@code COMMIT} flush mode of a
+     * batch they do not flush it either. Pending updates to rows about to be deleted would then
+     * fail at commit, so they are written first, but only when there are any.
+     */
+    private void flushPendingChanges() {
+        Session session = entityManager.unwrap(Session.class);
+        if (session.isDirty()) {
+            session.flush();
+        }
+    }
+
+    private SessionImplementor session() {
+        return entityManager.unwrap(SessionImplementor.class);
+    }
+
+    /**
+     * Deletes the managers and then clears the persistence context, which after the flush holds
+     * nothing unwritten but may hold deleted rows, or parents whose children version moved underneath it,
+     * that later operations of a batch would otherwise read. Bulk deletes raise no entity events,
+     * so the subtree is dropped from the name index here, once the transaction commits, and the
+     * root and the deleted managers are recorded as changes.
+     */
+    private boolean finish(EntityType type, Long id, int deleted, List<Long> managerIds) {
+        for (int from = 0; from < managerIds.size(); from += MANAGER_IDS_PER_STATEMENT) {
+            managerRepository.deleteAllByIdInBatch(
+                    managerIds.subList(from, Math.min(from + MANAGER_IDS_PER_STATEMENT, managerIds.size())));
+        }
+        entityManager.clear();
+        if (deleted == 0) {
+            return false;
+        }
+        nameIndex.removeAfterCommit(type, id);
+        changeLog.record(type, id, ChangeOperation.DELETED);
+        changeLog.recordAll(EntityType.MANAGER, managerIds, ChangeOperation.DELETED);
+        return true;
+    }
+}
@@ -1,49 +1,85 @@
 package com.company.management.company_crud.service.impl;
 
+import com.company.management.company_crud.exception.NotFoundException;
 import com.company.management.company_crud.mapper.TeamMapper;
 import com.company.management.company_crud.model.dao.Department;
 import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.model.dto.ChangeOperation;
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.KeysetPage;
 import com.company.management.company_crud.model.dto.TeamDTO;
+import com.company.management.company_crud.model.dto.VersionDTO;
+import com.company.management.company_crud.model.projection.TeamView;
+import com.company.management.company_crud.model.projection.VersionView;
 import com.company.management.company_crud.repository.DepartmentRepository;
 import com.company.management.company_crud.repository.TeamRepository;
 import com.company.management.company_crud.service.TeamService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
+@Timed("app.service")
 @RequiredArgsConstructor
 public class TeamServiceImpl implements TeamService {
 
     private final TeamRepository teamRepository;
     private final DepartmentRepository departmentRepository;
     private final TeamMapper teamMapper;
+    private final SubtreeDeleter subtreeDeleter;
+    private final NameIndex nameIndex;
+    private final ChangeLog changeLog;
+    private final ChildrenVersions childrenVersions;
+    private final Validator validator;
 
     @Override
-    public List<TeamDTO> getTeamsByDepartmentId(Long departmentId) {
-        return teamRepository.findAll()
-                .stream()
-                .filter(team -> team.getDepartment().getId().equals(departmentId))
-                .map(teamMapper::teamToTeamDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public KeysetPage<TeamDTO> getTeamsByDepartmentId(Long departmentId, Long afterId, int limit) {
+        return KeysetPage.of(teamRepository.findViewsByDepartmentId(departmentId, afterId, Limit.of(limit + 1)),
+                        limit, TeamView::getId)
+                .map(teamMapper::teamViewToTeamDTO);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TeamDTO getTeamById(Long id) {
-        Team team = teamRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Team not found"));
-        return teamMapper.teamToTeamDTO(team);
+        TeamView team = teamRepository.findViewById(id)
+                .orElseThrow(() -> new NotFoundException("Team not found"));
+        return teamMapper.teamViewToTeamDTO(team);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TeamDTO> getTeamsByIds(List<Long> ids) {
+        return RequestOrder.sort(ids, teamRepository.findViewsByIdIn(ids), TeamView::getId).stream()
+                .map(teamMapper::teamViewToTeamDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersionDTO getTeamVersion(Long id) {
+        VersionView version = teamRepository.findVersionById(id)
+                .orElseThrow(() -> new NotFoundException("Team not found"));
+        return new VersionDTO(version.entityTag(), version.latestModification());
     }
 
     @Override
+    @Transactional
     public TeamDTO createTeam(Long departmentId, TeamDTO teamDTO) {
         Department department = departmentRepository.findById(departmentId)
-                .orElseThrow(() -> new RuntimeException("Department not found"));
+                .orElseThrow(() -> new NotFoundException("Department not found"));
 
         Team team = teamMapper.teamDTOToTeam(teamDTO);
         team.setDepartment(department);
+        childrenVersions.moveDepartment(departmentId, Instant.now());
 
         Team savedTeam = teamRepository.save(team);
         return teamMapper.teamToTeamDTO(savedTeam);
@@ -51,15 +87,47 @@ public class TeamServiceImpl implements TeamService {
 
 
     @Override
-    public TeamDTO updateTeam(Long id, TeamDTO teamDTO) {
+    @Transactional
+    public TeamDTO updateTeam(Long id, TeamDTO teamDTO, String entityTag) {
         Team team = teamRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Team not found"));
+                .orElseThrow(() -> new NotFoundException("Team not found"));
+        Department department = team.getDepartment();
+        EntityTags.check(entityTag,
+                VersionView.entityTag(team.getVersion(), null, department == null ? null : department.getVersion()));
         team.setName(teamDTO.getName());
+        if (department != null) {
+            childrenVersions.moveDepartment(department.getId(), Instant.now());
+        }
         return teamMapper.teamToTeamDTO(teamRepository.save(team));
     }
 
     @Override
-    public void deleteTeam(Long id) {
-        teamRepository.deleteById(id);
+    @Transactional
+    public void patchTeam(Long id, TeamDTO patch) {
+        String name = PatchFields.name(validator, TeamDTO.class, patch.getName());
+        Instant now = Instant.now();
+        childrenVersions.moveDepartmentOfTeam(id, now);
+        if (teamRepository.updateName(id, name, now) == 0) {
+            throw new NotFoundException("Team not found");
+        }
+        nameIndex.renameAfterCommit(EntityType.TEAM, id, name);
+        changeLog.record(EntityType.TEAM, id, ChangeOperation.UPDATED);
+    }
+
+    @Override
+    @Transactional
+    public void deleteTeam(Long id, String entityTag) {
+        Long version = null;
+        if (entityTag != null) {
+            VersionView current = teamRepository.findVersionById(id)
+                    .orElseThrow(() -> new NotFoundException("Team not found"));
+            EntityTags.check(entityTag, current.entityTag());
+            version = current.getVersion();
+        }
+        if (!subtreeDeleter.deleteTeam(id, version)) {
+            throw version == null
+                    ? new NotFoundException("Team not found")
+                    : new OptimisticLockingFailureException("Team was changed by another request");
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.company.management.company_crud.service.impl;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * State collected over the current transaction of each Hibernate session and written just before
+ * that transaction commits, after Hibernate's last flush and still inside the transaction. The
+ * state of a transaction that rolls back is dropped unwritten.
+ * <p>
+ * Hibernate runs before-completion callbacks only on commit. A session that outlives a rolled back
+ * transaction keeps the unused one; at the next commit it no longer finds its state in the map and
+ * writes nothing.
+ */
+final class TransactionBuffers<T> {
+
+    private final Map<SessionImplementor, T> buffers = new ConcurrentHashMap<>();
+    private final Supplier<T> factory;
+    private final Consumer<T> writer;
+
+    TransactionBuffers(Supplier<T> factory, Consumer<T> writer) {
+        this.factory = factory;
+        this.writer = writer;
+    }
+
+    T get(SessionImplementor session) {
+        return buffers.computeIfAbsent(session, key -> {
+            T created = factory.get();
+            key.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) completing -> {
+                if (buffers.remove(key, created)) {
+                    writer.accept(created);
+                }
+            });
+            key.getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, completed) -> buffers.remove(key, created));
+            return created;
+        });
+    }
+}
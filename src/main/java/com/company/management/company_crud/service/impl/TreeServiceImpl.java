@@ -0,0 +1,148 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.exception.NotFoundException;
+import com.company.management.company_crud.model.dto.CompanyTreeDTO;
+import com.company.management.company_crud.model.dto.DepartmentTreeDTO;
+import com.company.management.company_crud.model.dto.ManagerDTO;
+import com.company.management.company_crud.model.dto.ProjectTreeDTO;
+import com.company.management.company_crud.model.dto.TeamTreeDTO;
+import com.company.management.company_crud.model.projection.CompanyView;
+import com.company.management.company_crud.model.projection.ProjectNode;
+import com.company.management.company_crud.model.projection.TreeNode;
+import com.company.management.company_crud.repository.CompanyRepository;
+import com.company.management.company_crud.repository.DepartmentRepository;
+import com.company.management.company_crud.repository.ProjectRepository;
+import com.company.management.company_crud.repository.TeamRepository;
+import com.company.management.company_crud.service.TreeService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Builds a company's whole tree from four queries, one per level, each selecting every row of its
+ * level for the company, so the query count does not depend on the size of the tree.
+ * <p>
+ * With {@code app.tree.parallel} the three child levels are read concurrently, each in its own
+ * read-only transaction: departments and teams on the application task executor, projects on the
+ * calling thread while those run. The levels may then come from slightly different snapshots; rows
+ * whose parent was not read are left out. Without it all four queries share one transaction.
+ * <p>
+ * No thread holds a connection while waiting for another query, so the fan-out cannot exhaust the
+ * pool by itself. That needs the calling thread to have no persistence context of its own, which is
+ * why {@code spring.jpa.open-in-view} is off: one bound by an enclosing transaction or an
+ * open-in-view filter keeps its connection until the caller is done, so the levels are then read
+ * in it, one after another.
+ */
+@Service
+@Timed("app.service")
+public class TreeServiceImpl implements TreeService {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CompanyRepository companyRepository;
+    private final DepartmentRepository departmentRepository;
+    private final TeamRepository teamRepository;
+    private final ProjectRepository projectRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Executor executor;
+    private final boolean parallel;
+
+    public TreeServiceImpl(EntityManagerFactory entityManagerFactory, CompanyRepository companyRepository, DepartmentRepository departmentRepository,
+                           TeamRepository teamRepository, ProjectRepository projectRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("applicationTaskExecutor") Executor executor,
+                           @Value("${app.tree.parallel:true}") boolean parallel) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.companyRepository = companyRepository;
+        this.departmentRepository = departmentRepository;
+        this.teamRepository = teamRepository;
+        this.projectRepository = projectRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = executor;
+        this.parallel = parallel;
+    }
+
+    @Override
+    public CompanyTreeDTO getCompanyTree(Long companyId) {
+        if (!parallel || TransactionSynchronizationManager.hasResource(entityManagerFactory)) {
+            return read(() -> assemble(findCompany(companyId),
+                    departmentRepository.findTreeNodesByCompanyId(companyId),
+                    teamRepository.findTreeNodesByCompanyId(companyId),
+                    projectRepository.findTreeNodesByCompanyId(companyId)));
+        }
+        CompanyView company = read(() -> findCompany(companyId));
+        CompletableFuture<List<TreeNode>> departments = CompletableFuture.supplyAsync(
+                () -> read(() -> departmentRepository.findTreeNodesByCompanyId(companyId)), executor);
+        CompletableFuture<List<TreeNode>> teams = CompletableFuture.supplyAsync(
+                () -> read(() -> teamRepository.findTreeNodesByCompanyId(companyId)), executor);
+        List<ProjectNode> projects = read(() -> projectRepository.findTreeNodesByCompanyId(companyId));
+        return assemble(company, join(departments), join(teams), projects);
+    }
+
+    private CompanyView findCompany(Long companyId) {
+        return companyRepository.findViewById(companyId)
+                .orElseThrow(() -> new NotFoundException("Company not found"));
+    }
+
+    private <T> T read(Supplier<T> query) {
+        return readOnlyTransaction.execute(status -> query.get());
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static CompanyTreeDTO assemble(CompanyView company, List<TreeNode> departmentNodes,
+                                           List<TreeNode> teamNodes, List<ProjectNode> projectNodes) {
+        CompanyTreeDTO tree = new CompanyTreeDTO(company.getId(), company.getName(),
+                new ArrayList<>(departmentNodes.size()));
+
+        Map<Long, DepartmentTreeDTO> departments = new HashMap<>();
+        for (TreeNode node : departmentNodes) {
+            DepartmentTreeDTO department = new DepartmentTreeDTO(node.getId(), node.getName(), new ArrayList<>());
+            tree.getDepartments().add(department);
+            departments.put(node.getId(), department);
+        }
+
+        Map<Long, TeamTreeDTO> teams = new HashMap<>();
+        for (TreeNode node : teamNodes) {
+            DepartmentTreeDTO department = departments.get(node.getParentId());
+            if (department != null) {
+                TeamTreeDTO team = new TeamTreeDTO(node.getId(), node.getName(), null);
+                department.getTeams().add(team);
+                teams.put(node.getId(), team);
+            }
+        }
+
+        for (ProjectNode node : projectNodes) {
+            TeamTreeDTO team = teams.get(node.getParentId());
+            if (team != null) {
+                ManagerDTO manager = node.getManagerId() == null ? null
+                        : new ManagerDTO(node.getManagerId(), node.getManagerName(), node.getManagerEmail());
+                team.setProject(new ProjectTreeDTO(node.getId(), node.getName(), manager));
+            }
+        }
+        return tree;
+    }
+}
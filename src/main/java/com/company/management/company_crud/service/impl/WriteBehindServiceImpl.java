@@ -0,0 +1,360 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.exception.WriteBehindQueueFullException;
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.dto.ChangeOperation;
+import com.company.management.company_crud.model.dto.DepartmentDTO;
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.TeamDTO;
+import com.company.management.company_crud.model.dto.WriteBehindStatusDTO;
+import com.company.management.company_crud.service.WriteBehindService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffers renames of teams and departments and writes them in the background. Renames of the same
+ * row coalesce to the latest name, so a burst of updates to one row costs a single UPDATE. Every
+ * {@code app.write-behind.flush-interval}, or as soon as {@code batch-size} rows are waiting, the
+ * buffer is drained into JDBC batch updates that also move the version and modification time of the
+ * row, and the children version and modification time of its parent, the same as a synchronous
+ * update does. The second-level cache entries
+ * those statements bypass are evicted afterwards, and the new names applied to the name index.
+ * <p>
+ * Names are checked against the constraints of the DTO before they are queued, so a rename the
+ * synchronous update would refuse is answered with 400 instead of failing in the background. The
+ * buffer holds at most {@code capacity} distinct rows. A rename of a row not yet queued waits up to
+ * {@code offer-timeout} for room and is then rejected.
+ * <p>
+ * When the database is unreachable, a failed write is put back unless a newer rename of the row
+ * arrived meanwhile, and retried on the next flush. Any other failure is blamed on the rows: the
+ * batch is written again one row at a time, and a row that fails on its own is counted as failed
+ * and given up, so it cannot hold back the rest of the queue. Accepted renames live only in memory until written:
+ * they are drained on graceful shutdown when {@code drain-on-shutdown} is set, and lost on a crash.
+ */
+@Slf4j
+@Service
+public class WriteBehindServiceImpl implements WriteBehindService {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final NameIndex nameIndex;
+    private final ChangeLog changeLog;
+    private final Validator validator;
+    private final boolean enabled;
+    private final int capacity;
+    private final Duration offerTimeout;
+    private final Duration flushInterval;
+    private final int batchSize;
+    private final boolean drainOnShutdown;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Map<Key, Pending> pending = new LinkedHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+
+    public WriteBehindServiceImpl(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  EntityManagerFactory entityManagerFactory, NameIndex nameIndex,
+                                  ChangeLog changeLog, Validator validator,
+                                  @Value("${app.write-behind.enabled:false}") boolean enabled,
+                                  @Value("${app.write-behind.capacity:10000}") int capacity,
+                                  @Value("${app.write-behind.offer-timeout:100ms}") Duration offerTimeout,
+                                  @Value("${app.write-behind.flush-interval:500ms}") Duration flushInterval,
+                                  @Value("${app.write-behind.batch-size:500}") int batchSize,
+                                  @Value("${app.write-behind.drain-on-shutdown:true}") boolean drainOnShutdown) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.nameIndex = nameIndex;
+        this.changeLog = changeLog;
+        this.validator = validator;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.offerTimeout = offerTimeout;
+        this.flushInterval = flushInterval;
+        this.batchSize = batchSize;
+        this.drainOnShutdown = drainOnShutdown;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("write-behind").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::scheduledFlush, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        scheduler.awaitTermination(flushInterval.toMillis() + 5000, TimeUnit.MILLISECONDS);
+        if (drainOnShutdown) {
+            flush();
+        }
+        int left = depth();
+        if (left > 0) {
+            log.warn("Discarding {} queued renames on shutdown", left);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void enqueueRename(EntityType entity, Long id, String name) {
+        if (!enabled) {
+            throw new IllegalStateException("Write-behind is disabled");
+        }
+        if (entity != EntityType.TEAM && entity != EntityType.DEPARTMENT) {
+            throw new IllegalArgumentException("Write-behind only supports teams and departments");
+        }
+        PatchFields.check(validator, entity == EntityType.TEAM ? TeamDTO.class : DepartmentDTO.class, "name", name);
+        Key key = new Key(entity, id);
+        int depth;
+        lock.lock();
+        try {
+            long remaining = offerTimeout.toNanos();
+            while (!pending.containsKey(key) && pending.size() >= capacity) {
+                if (remaining <= 0) {
+                    throw new WriteBehindQueueFullException("Write-behind buffer is full");
+                }
+                try {
+                    remaining = notFull.awaitNanos(remaining);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new WriteBehindQueueFullException("Interrupted while waiting for the write-behind buffer");
+                }
+            }
+            Pending previous = pending.get(key);
+            if (previous != null) {
+                // keep the original age, which is what bounds how stale the row can get
+                pending.put(key, new Pending(name, previous.enqueuedAt()));
+                coalesced.incrementAndGet();
+            } else {
+                pending.put(key, new Pending(name, System.nanoTime()));
+            }
+            accepted.incrementAndGet();
+            depth = pending.size();
+        } finally {
+            lock.unlock();
+        }
+        if (depth >= batchSize && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::scheduledFlush);
+        }
+    }
+
+    @Override
+    public int flush() {
+        flushLock.lock();
+        try {
+            int rows = 0;
+            List<Map.Entry<Key, Pending>> batch;
+            while (!(batch = drain()).isEmpty()) {
+                try {
+                    rows += write(batch);
+                } catch (RuntimeException ex) {
+                    failedFlushes.incrementAndGet();
+                    if (isUnavailable(ex)) {
+                        requeue(batch);
+                        log.warn("Write-behind flush of {} renames failed, will retry: {}", batch.size(), ex.getMessage());
+                        break;
+                    }
+                    log.warn("Write-behind flush of {} renames failed, writing them one by one: {}", batch.size(),
+                            ex.getMessage());
+                    for (int i = 0; i < batch.size(); i++) {
+                        try {
+                            rows += write(batch.subList(i, i + 1));
+                        } catch (RuntimeException rowEx) {
+                            if (isUnavailable(rowEx)) {
+                                requeue(batch.subList(i, batch.size()));
+                                log.warn("Write-behind flush failed, will retry: {}", rowEx.getMessage());
+                                return rows;
+                            }
+                            Key key = batch.get(i).getKey();
+                            failed.incrementAndGet();
+                            log.warn("Giving up write-behind rename of {} {}: {}", key.entity(), key.id(),
+                                    rowEx.getMessage());
+                        }
+                    }
+                }
+            }
+            return rows;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public WriteBehindStatusDTO getStatus() {
+        int depth;
+        long oldestPendingMillis = 0;
+        lock.lock();
+        try {
+            depth = pending.size();
+            if (depth > 0) {
+                long enqueuedAt = pending.values().iterator().next().enqueuedAt();
+                oldestPendingMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - enqueuedAt);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return new WriteBehindStatusDTO(enabled, depth, capacity, oldestPendingMillis, accepted.get(),
+                coalesced.get(), written.get(), dropped.get(), failed.get(), failedFlushes.get());
+    }
+
+    private void scheduledFlush() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Write-behind flush failed", ex);
+        }
+    }
+
+    /**
+     * Failures that say nothing about the rows being written, which are retried as they are.
+     */
+    private static boolean isUnavailable(RuntimeException ex) {
+        return ex instanceof TransientDataAccessException || ex instanceof RecoverableDataAccessException
+                || ex instanceof DataAccessResourceFailureException || ex instanceof CannotCreateTransactionException;
+    }
+
+    private int depth() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Map.Entry<Key, Pending>> drain() {
+        lock.lock();
+        try {
+            List<Map.Entry<Key, Pending>> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            Iterator<Map.Entry<Key, Pending>> entries = pending.entrySet().iterator();
+            while (entries.hasNext() && batch.size() < batchSize) {
+                Map.Entry<Key, Pending> entry = entries.next();
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+                entries.remove();
+            }
+            notFull.signalAll();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void requeue(List<Map.Entry<Key, Pending>> batch) {
+        lock.lock();
+        try {
+            for (Map.Entry<Key, Pending> entry : batch) {
+                pending.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int write(List<Map.Entry<Key, Pending>> batch) {
+        List<Map.Entry<Key, Pending>> teams = batch.stream().filter(entry -> entry.getKey().entity() == EntityType.TEAM).toList();
+        List<Map.Entry<Key, Pending>> departments = batch.stream().filter(entry -> entry.getKey().entity() == EntityType.DEPARTMENT).toList();
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        Integer rows = transactionTemplate.execute(status ->
+                rename("team", "department_id", "department", teams, now)
+                        + rename("department", "company_id", "company", departments, now));
+        int updated = rows == null ? 0 : rows;
+
+        if (!departments.isEmpty()) {
+            entityManagerFactory.getCache().evict(Company.class);
+        }
+        entityManagerFactory.getCache().evict(Department.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        batch.forEach(entry -> nameIndex.rename(entry.getKey().entity(), entry.getKey().id(), entry.getValue().name()));
+
+        written.addAndGet(updated);
+        dropped.addAndGet(batch.size() - updated);
+        return updated;
+    }
+
+    /**
+     * Renames the rows of {@code table} and moves the children version of their parents in {@code parentTable},
+     * whose representations list these names, and records the renamed rows as changes. Returns the
+     * number of rows that still existed.
+     */
+    private int rename(String table, String parentColumn, String parentTable, List<Map.Entry<Key, Pending>> renames,
+                       OffsetDateTime now) {
+        if (renames.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = renames.stream().map(entry -> entry.getKey().id()).toList();
+        jdbcTemplate.update("update " + parentTable + " set children_version = children_version + 1, last_modified = :now"
+                        + " where id in (select " + parentColumn + " from " + table + " where id in (:ids))",
+                Map.of("now", now, "ids", ids));
+        int[] counts = jdbcTemplate.getJdbcTemplate().batchUpdate(
+                "update " + table + " set name = ?, version = version + 1, last_modified = ? where id = ?",
+                renames.stream().map(entry -> new Object[]{entry.getValue().name(), now, entry.getKey().id()}).toList());
+        int rows = 0;
+        for (int i = 0; i < counts.length; i++) {
+            int count = counts[i] == Statement.SUCCESS_NO_INFO ? 1 : counts[i];
+            if (count > 0) {
+                Key key = renames.get(i).getKey();
+                changeLog.record(key.entity(), key.id(), ChangeOperation.UPDATED);
+            }
+            rows += count;
+        }
+        return rows;
+    }
+
+    private record Key(EntityType entity, long id) {
+    }
+
+    private record Pending(String name, long enqueuedAt) {
+    }
+}
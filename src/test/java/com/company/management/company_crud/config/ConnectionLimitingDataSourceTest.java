@@ -0,0 +1,86 @@
+package com.company.management.company_crud.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionLimitingDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    @Mock
+    private Connection connection;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(pool.getConnection()).thenReturn(connection);
+        dataSource = new ConnectionLimitingDataSource(pool, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void testGetConnection_HoldsPermitUntilClosed() throws SQLException {
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+        assertEquals(0, dataSource.getAvailablePermits());
+
+        first.close();
+
+        assertEquals(1, dataSource.getAvailablePermits());
+        verify(connection, times(1)).close();
+    }
+
+    @Test
+    void testGetConnection_Negative_TimesOutWhenAllPermitsHeld() throws SQLException {
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        SQLException exception = assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+
+        assertEquals("No database connection available within 50 ms", exception.getMessage());
+        verify(pool, times(2)).getConnection();
+    }
+
+    @Test
+    void testClose_ReleasesPermitOnlyOnce() throws SQLException {
+        Connection first = dataSource.getConnection();
+
+        first.close();
+        first.close();
+
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void testGetConnection_Negative_ReleasesPermitWhenPoolFails() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("pool closed"));
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void testConnection_DelegatesOtherCalls() throws SQLException {
+        when(connection.getAutoCommit()).thenReturn(true);
+
+        Connection limited = dataSource.getConnection();
+
+        assertTrue(limited.getAutoCommit());
+        assertEquals(limited, limited);
+        assertNotEquals(limited, connection);
+    }
+}
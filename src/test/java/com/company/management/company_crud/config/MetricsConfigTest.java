@@ -0,0 +1,96 @@
+package com.company.management.company_crud.config;
+
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.repository.CompanyRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Test
+    void testRequestRecordsHibernateWorkPerEndpoint() throws Exception {
+        Company company = new Company();
+        company.setName("Metrics Company");
+        Long id = companyRepository.save(company).getId();
+
+        mockMvc.perform(get("/api/companies/{id}", id)).andExpect(status().isOk());
+
+        DistributionSummary statements = registry.get("hibernate.request.statements")
+                .tag("method", "GET")
+                .tag("uri", "/api/companies/{id}")
+                .summary();
+        assertTrue(statements.count() >= 1);
+        assertTrue(statements.totalAmount() >= 1);
+        assertNotNull(registry.find("app.service")
+                .tag("class", "com.company.management.company_crud.service.impl.CompanyServiceImpl")
+                .tag("method", "getCompanyById")
+                .timer());
+    }
+
+    @Test
+    void testRequestCountsEntityLoads() throws Exception {
+        Company company = new Company();
+        company.setName("Loaded Company");
+        Long id = companyRepository.save(company).getId();
+
+        mockMvc.perform(put("/api/companies/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Renamed Company\"}"))
+                .andExpect(status().isOk());
+
+        DistributionSummary entityLoads = registry.get("hibernate.request.entity.loads")
+                .tag("method", "PUT")
+                .tag("uri", "/api/companies/{id}")
+                .summary();
+        assertTrue(entityLoads.totalAmount() >= 1);
+    }
+
+    @Test
+    void testErrorResponsesAreCountedPerCode() throws Exception {
+        double before = registry.get("app.errors").tag("code", "NOT_FOUND").counter().count();
+
+        mockMvc.perform(get("/api/companies/{id}", -1)).andExpect(status().isNotFound());
+
+        assertEquals(before + 1, registry.get("app.errors").tag("code", "NOT_FOUND").counter().count());
+    }
+
+    @Test
+    void testPrometheusEndpointExposesHistograms() throws Exception {
+        mockMvc.perform(get("/api/companies")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds")))
+                .andExpect(content().string(containsString("hibernate_statements_total")))
+                .andExpect(content().string(containsString("jvm_gc_")));
+    }
+}
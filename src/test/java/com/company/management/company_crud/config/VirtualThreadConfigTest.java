@@ -0,0 +1,48 @@
+package com.company.management.company_crud.config;
+
+import com.company.management.company_crud.repository.CompanyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+class VirtualThreadConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Test
+    void testDataSourceIsLimitedToPoolSize() throws InterruptedException {
+        ConnectionLimitingDataSource limited = assertInstanceOf(ConnectionLimitingDataSource.class, dataSource);
+
+        companyRepository.count();
+
+        assertEquals(10, awaitPermits(limited, 10));
+        assertTrue(pinningMonitor.isRunning());
+    }
+
+    /**
+     * The name index is loaded in the background once the application is ready, so its connections
+     * may still be out when the test starts.
+     */
+    private static int awaitPermits(ConnectionLimitingDataSource limited, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (limited.getAvailablePermits() != expected && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+        return limited.getAvailablePermits();
+    }
+}
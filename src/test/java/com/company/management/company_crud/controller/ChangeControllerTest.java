@@ -0,0 +1,104 @@
+package com.company.management.company_crud.controller;
+
+import com.company.management.company_crud.model.dto.ChangeDTO;
+import com.company.management.company_crud.model.dto.ChangeOperation;
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.service.ChangeFeedService;
+import com.company.management.company_crud.service.WriteBehindService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ChangeController.class)
+class ChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChangeFeedService changeFeedService;
+
+    @MockBean
+    private WriteBehindService writeBehindService;
+
+    @Test
+    void testGetChanges_Positive_ReturnsNextCursor() throws Exception {
+        ChangeDTO change = new ChangeDTO(8L, EntityType.TEAM, 3L, ChangeOperation.UPDATED, Instant.parse("2024-01-01T00:00:00Z"));
+        when(changeFeedService.awaitChanges(5L, 100, Duration.ofSeconds(30)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(change)));
+
+        MvcResult result = mockMvc.perform(get("/api/changes").param("since", KeysetCursor.encode(5L))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(KeysetCursor.NEXT_CURSOR_HEADER, KeysetCursor.encode(8L)))
+                .andExpect(jsonPath("$[0].sequence").value(8L))
+                .andExpect(jsonPath("$[0].type").value("TEAM"))
+                .andExpect(jsonPath("$[0].id").value(3L))
+                .andExpect(jsonPath("$[0].operation").value("UPDATED"));
+    }
+
+    @Test
+    void testGetChanges_Positive_NothingNewKeepsCursor() throws Exception {
+        when(changeFeedService.awaitChanges(0L, 10, Duration.ZERO)).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        MvcResult result = mockMvc.perform(get("/api/changes").param("limit", "10").param("wait", "0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(KeysetCursor.NEXT_CURSOR_HEADER, KeysetCursor.encode(0L)))
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void testGetChanges_Negative_WaitTooLong() throws Exception {
+        mockMvc.perform(get("/api/changes").param("wait", "61").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_REQUEST"))
+                .andExpect(jsonPath("$.detail").value("wait must be between 0 and 60"));
+
+        verifyNoInteractions(changeFeedService);
+    }
+
+    @Test
+    void testStreamChanges_ResumesFromLastEventId() throws Exception {
+        ChangeDTO change = new ChangeDTO(8L, EntityType.MANAGER, 4L, ChangeOperation.CREATED, Instant.parse("2024-01-01T00:00:00Z"));
+        when(changeFeedService.awaitChanges(eq(7L), eq(100), any()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(change)));
+        when(changeFeedService.awaitChanges(eq(8L), anyInt(), any())).thenReturn(new CompletableFuture<>());
+
+        MvcResult result = mockMvc.perform(get("/api/changes").param("since", KeysetCursor.encode(1L))
+                        .header("Last-Event-ID", KeysetCursor.encode(7L))
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        verify(changeFeedService, timeout(5000)).awaitChanges(eq(8L), anyInt(), any());
+        verify(changeFeedService, never()).awaitChanges(eq(1L), anyInt(), any());
+        String body = result.getResponse().getContentAsString();
+        assertThat(body, containsString("id:" + KeysetCursor.encode(8L)));
+        assertThat(body, containsString("event:change"));
+        assertThat(body, containsString("\"operation\":\"CREATED\""));
+    }
+}
@@ -1,18 +1,30 @@
 package com.company.management.company_crud.controller;
 
+import com.company.management.company_crud.exception.NotFoundException;
+import com.company.management.company_crud.exception.PreconditionFailedException;
+import com.company.management.company_crud.exception.WriteBehindQueueFullException;
 import com.company.management.company_crud.model.dto.*;
 import com.company.management.company_crud.service.*;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -20,6 +32,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(controllers = CompanyController.class)
 class CompanyControllerTest {
 
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final Instant LAST_MODIFIED = Instant.parse("2026-10-18T10:15:30Z");
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -38,9 +54,18 @@ class CompanyControllerTest {
     @MockBean
     private ManagerService managerService;
 
+    @MockBean
+    private TreeService treeService;
+
+    @MockBean
+    private StatsService statsService;
+
+    @MockBean
+    private WriteBehindService writeBehindService;
+
     @BeforeEach
     void setUp() {
-        Mockito.reset(companyService, departmentService, teamService, projectService, managerService);
+        Mockito.reset(companyService, departmentService, teamService, projectService, managerService, writeBehindService);
     }
 
     // ===================== Company Endpoints =====================
@@ -54,7 +79,7 @@ class CompanyControllerTest {
         company2.setId(2L);
         company2.setName("Company B");
 
-        when(companyService.getAllCompanies()).thenReturn(Arrays.asList(company1, company2));
+        when(companyService.getAllCompanies(0L, 100)).thenReturn(new KeysetPage<>(Arrays.asList(company1, company2), null));
 
         mockMvc.perform(get("/api/companies"))
                 .andExpect(status().isOk())
@@ -62,9 +87,44 @@ class CompanyControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].name").value("Company A"))
                 .andExpect(jsonPath("$[1].id").value(2L))
-                .andExpect(jsonPath("$[1].name").value("Company B"));
+                .andExpect(jsonPath("$[1].name").value("Company B"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
 
-        verify(companyService, times(1)).getAllCompanies();
+        verify(companyService, times(1)).getAllCompanies(0L, 100);
+    }
+
+    @Test
+    void testGetAllCompanies_NextPageCursor() throws Exception {
+        CompanyDTO company = new CompanyDTO();
+        company.setId(7L);
+        company.setName("Company A");
+
+        String cursor = KeysetCursor.encode(7L);
+        when(companyService.getAllCompanies(0L, 1)).thenReturn(new KeysetPage<>(List.of(company), 7L));
+        when(companyService.getAllCompanies(7L, 1)).thenReturn(new KeysetPage<>(List.of(), null));
+
+        mockMvc.perform(get("/api/companies").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(7L))
+                .andExpect(header().string("X-Next-Cursor", cursor))
+                .andExpect(header().string("Link", containsString("after=" + cursor)));
+
+        mockMvc.perform(get("/api/companies").param("after", cursor).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void testGetAllCompanies_Negative_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/companies").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_REQUEST"));
+
+        mockMvc.perform(get("/api/companies").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(companyService);
     }
 
     @Test
@@ -73,28 +133,130 @@ class CompanyControllerTest {
         company.setId(1L);
         company.setName("Company A");
 
+        when(companyService.getCompanyVersion(1L)).thenReturn(new VersionDTO("3", LAST_MODIFIED));
         when(companyService.getCompanyById(1L)).thenReturn(company);
 
         mockMvc.perform(get("/api/companies/1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().dateValue("Last-Modified", LAST_MODIFIED.toEpochMilli()))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("Company A"));
 
         verify(companyService, times(1)).getCompanyById(1L);
     }
 
+    @Test
+    void testGetCompanyById_NotModified() throws Exception {
+        when(companyService.getCompanyVersion(1L)).thenReturn(new VersionDTO("3", LAST_MODIFIED));
+
+        mockMvc.perform(get("/api/companies/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(companyService, never()).getCompanyById(1L);
+    }
+
+    @Test
+    void testGetCompanyById_ChangedVersion() throws Exception {
+        CompanyDTO company = new CompanyDTO();
+        company.setId(1L);
+
+        when(companyService.getCompanyVersion(1L)).thenReturn(new VersionDTO("4", LAST_MODIFIED));
+        when(companyService.getCompanyById(1L)).thenReturn(company);
+
+        mockMvc.perform(get("/api/companies/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    void testGetCompanyById_Negative_DatabaseUnavailable() throws Exception {
+        when(companyService.getCompanyVersion(1L))
+                .thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager for transaction"));
+
+        mockMvc.perform(get("/api/companies/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error").value("UNAVAILABLE"));
+    }
+
     @Test
     void testGetCompanyById_Negative_NotFound() throws Exception {
-        when(companyService.getCompanyById(1L)).thenThrow(new RuntimeException("Company not found"));
+        when(companyService.getCompanyVersion(1L)).thenThrow(new NotFoundException("Company not found"));
 
         mockMvc.perform(get("/api/companies/1"))
                 .andExpect(status().isNotFound())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.error").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.detail").value("Company not found"));
+    }
+
+
+    @Test
+    void testGetCompanyById_Negative_UnexpectedFailure() throws Exception {
+        when(companyService.getCompanyVersion(1L)).thenThrow(new IllegalStateException("Connection reset"));
+
+        mockMvc.perform(get("/api/companies/1"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
                 .andExpect(jsonPath("$.error").value("ERROR"))
-                .andExpect(jsonPath("$.message").value("Company not found"));
+                .andExpect(jsonPath("$.detail").value("The request failed"));
+    }
+
+    @Test
+    void testGetCompanyTree_Positive() throws Exception {
+        ManagerDTO manager = new ManagerDTO(4L, "Anna", "anna@test.com");
+        TeamTreeDTO team = new TeamTreeDTO(3L, "Team 1", new ProjectTreeDTO(5L, "Project X", manager));
+        CompanyTreeDTO tree = new CompanyTreeDTO(1L, "Company A",
+                List.of(new DepartmentTreeDTO(2L, "Sales", List.of(team))));
+
+        when(treeService.getCompanyTree(1L)).thenReturn(tree);
+
+        mockMvc.perform(get("/api/companies/1/tree"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Company A"))
+                .andExpect(jsonPath("$.departments[0].name").value("Sales"))
+                .andExpect(jsonPath("$.departments[0].teams[0].name").value("Team 1"))
+                .andExpect(jsonPath("$.departments[0].teams[0].project.name").value("Project X"))
+                .andExpect(jsonPath("$.departments[0].teams[0].project.manager.email").value("anna@test.com"));
+    }
+
+    @Test
+    void testGetCompanyTree_Negative_NotFound() throws Exception {
+        when(treeService.getCompanyTree(1L)).thenThrow(new NotFoundException("Company not found"));
+
+        mockMvc.perform(get("/api/companies/1/tree"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Company not found"));
+    }
+
+    @Test
+    void testGetCompanyStats_Positive() throws Exception {
+        CompanyStatsDTO stats = new CompanyStatsDTO(1L, 2, 3, 2, 1,
+                List.of(new DepartmentStatsDTO(2L, 2, 1, 1), new DepartmentStatsDTO(3L, 1, 1, 0)));
+
+        when(statsService.getCompanyStats(1L)).thenReturn(stats);
+
+        mockMvc.perform(get("/api/companies/1/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.departments").value(2))
+                .andExpect(jsonPath("$.teams").value(3))
+                .andExpect(jsonPath("$.managers").value(1))
+                .andExpect(jsonPath("$.departmentStats[1].departmentId").value(3))
+                .andExpect(jsonPath("$.departmentStats[1].projects").value(1));
     }
 
+    @Test
+    void testGetCompanyStats_Negative_NotFound() throws Exception {
+        when(statsService.getCompanyStats(1L)).thenThrow(new NotFoundException("Company not found"));
+
+        mockMvc.perform(get("/api/companies/1/stats"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Company not found"));
+    }
 
     @Test
     void testCreateCompany_Positive() throws Exception {
@@ -124,9 +286,9 @@ class CompanyControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"name\": \"\"}")) // Puste dane
                 .andExpect(status().isBadRequest())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
                 .andExpect(jsonPath("$.error").value("VALIDATION_ERROR"))
-                .andExpect(jsonPath("$.message").value("name: Name cannot be blank"));
+                .andExpect(jsonPath("$.detail").value("name: Name cannot be blank"));
     }
 
 
@@ -136,7 +298,7 @@ class CompanyControllerTest {
         updatedCompany.setId(1L);
         updatedCompany.setName("Updated Company");
 
-        when(companyService.updateCompany(eq(1L), any(CompanyDTO.class))).thenReturn(updatedCompany);
+        when(companyService.updateCompany(eq(1L), any(CompanyDTO.class), isNull())).thenReturn(updatedCompany);
 
         mockMvc.perform(put("/api/companies/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -146,41 +308,108 @@ class CompanyControllerTest {
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("Updated Company"));
 
-        verify(companyService, times(1)).updateCompany(eq(1L), any());
+        verify(companyService, times(1)).updateCompany(eq(1L), any(), isNull());
     }
 
     @Test
     void testUpdateCompany_Negative_NotFound() throws Exception {
-        when(companyService.updateCompany(eq(1L), any())).thenThrow(new RuntimeException("Company not found"));
+        when(companyService.updateCompany(eq(1L), any(), isNull())).thenThrow(new NotFoundException("Company not found"));
 
         mockMvc.perform(put("/api/companies/1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"name\": \"Updated Company\"}"))
                 .andExpect(status().isNotFound())
-                .andExpect(jsonPath("$.message").value("Company not found"));
+                .andExpect(jsonPath("$.detail").value("Company not found"));
 
-        verify(companyService, times(1)).updateCompany(eq(1L), any());
+        verify(companyService, times(1)).updateCompany(eq(1L), any(), isNull());
     }
 
     @Test
     void testDeleteCompany_Positive() throws Exception {
-        doNothing().when(companyService).deleteCompany(1L);
+        doNothing().when(companyService).deleteCompany(1L, null);
 
         mockMvc.perform(delete("/api/companies/1"))
                 .andExpect(status().isNoContent());
 
-        verify(companyService, times(1)).deleteCompany(1L);
+        verify(companyService, times(1)).deleteCompany(1L, null);
     }
 
     @Test
     void testDeleteCompany_Negative_NotFound() throws Exception {
-        doThrow(new RuntimeException("Company not found")).when(companyService).deleteCompany(1L);
+        doThrow(new NotFoundException("Company not found")).when(companyService).deleteCompany(1L, null);
 
         mockMvc.perform(delete("/api/companies/1"))
                 .andExpect(status().isNotFound())
-                .andExpect(jsonPath("$.message").value("Company not found"));
+                .andExpect(jsonPath("$.detail").value("Company not found"));
+
+        verify(companyService, times(1)).deleteCompany(1L, null);
+    }
+
+    @Test
+    void testUpdateCompany_IfMatch_PassesEntityTag() throws Exception {
+        CompanyDTO updatedCompany = new CompanyDTO();
+        updatedCompany.setId(1L);
+        updatedCompany.setName("Updated Company");
+        when(companyService.updateCompany(eq(1L), any(), eq("3"))).thenReturn(updatedCompany);
+
+        mockMvc.perform(put("/api/companies/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Updated Company\"}"))
+                .andExpect(status().isOk());
+
+        verify(companyService, times(1)).updateCompany(eq(1L), any(), eq("3"));
+    }
+
+    @Test
+    void testUpdateCompany_IfMatch_Negative_PreconditionFailed() throws Exception {
+        when(companyService.updateCompany(eq(1L), any(), eq("2")))
+                .thenThrow(new PreconditionFailedException("If-Match does not match the current entity tag"));
+
+        mockMvc.perform(put("/api/companies/1")
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Updated Company\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value("PRECONDITION_FAILED"));
+    }
+
+    @Test
+    void testUpdateCompany_IfMatch_Negative_WeakTag() throws Exception {
+        mockMvc.perform(put("/api/companies/1")
+                        .header("If-Match", "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Updated Company\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        verifyNoInteractions(companyService);
+    }
+
+    @Test
+    void testDeleteCompany_IfMatch_Wildcard() throws Exception {
+        mockMvc.perform(delete("/api/companies/1").header("If-Match", "*"))
+                .andExpect(status().isNoContent());
+
+        verify(companyService, times(1)).deleteCompany(1L, null);
+    }
+
+    @Test
+    void testDeleteCompany_IfMatch_Negative_Malformed() throws Exception {
+        mockMvc.perform(delete("/api/companies/1").header("If-Match", "3"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_REQUEST"));
 
-        verify(companyService, times(1)).deleteCompany(1L);
+        verifyNoInteractions(companyService);
+    }
+
+    @Test
+    void testDeleteCompany_IfMatch_Negative_Conflict() throws Exception {
+        doThrow(new OptimisticLockingFailureException("Company was changed by another request"))
+                .when(companyService).deleteCompany(1L, "3");
+
+        mockMvc.perform(delete("/api/companies/1").header("If-Match", "\"3\""))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("CONFLICT"));
     }
 
     // ===================== Department Endpoints =====================
@@ -194,7 +423,7 @@ class CompanyControllerTest {
         department2.setId(2L);
         department2.setName("Department B");
 
-        when(departmentService.getDepartmentsByCompanyId(1L)).thenReturn(Arrays.asList(department1, department2));
+        when(departmentService.getDepartmentsByCompanyId(1L, 0L, 100)).thenReturn(new KeysetPage<>(Arrays.asList(department1, department2), null));
 
         mockMvc.perform(get("/api/companies/1/departments"))
                 .andExpect(status().isOk())
@@ -204,7 +433,7 @@ class CompanyControllerTest {
                 .andExpect(jsonPath("$[1].id").value(2L))
                 .andExpect(jsonPath("$[1].name").value("Department B"));
 
-        verify(departmentService, times(1)).getDepartmentsByCompanyId(1L);
+        verify(departmentService, times(1)).getDepartmentsByCompanyId(1L, 0L, 100);
     }
 
     @Test
@@ -213,26 +442,51 @@ class CompanyControllerTest {
         department.setId(1L);
         department.setName("Department A");
 
+        when(departmentService.getDepartmentVersion(1L)).thenReturn(new VersionDTO("5-3", LAST_MODIFIED));
         when(departmentService.getDepartmentById(1L)).thenReturn(department);
 
         mockMvc.perform(get("/api/departments/1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"5-3\""))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("Department A"));
 
         verify(departmentService, times(1)).getDepartmentById(1L);
     }
 
+    @Test
+    void testGetDepartmentById_NotModifiedSince() throws Exception {
+        when(departmentService.getDepartmentVersion(1L)).thenReturn(new VersionDTO("5-3", LAST_MODIFIED));
+
+        mockMvc.perform(get("/api/departments/1")
+                        .header("If-Modified-Since", "Sun, 18 Oct 2026 10:15:30 GMT"))
+                .andExpect(status().isNotModified());
+
+        verify(departmentService, never()).getDepartmentById(1L);
+    }
+
     @Test
     void testGetDepartmentById_Negative_NotFound() throws Exception {
-        when(departmentService.getDepartmentById(1L)).thenThrow(new RuntimeException("Department not found"));
+        when(departmentService.getDepartmentVersion(1L)).thenThrow(new NotFoundException("Department not found"));
 
         mockMvc.perform(get("/api/departments/1"))
                 .andExpect(status().isNotFound())
-                .andExpect(jsonPath("$.message").value("Department not found"));
+                .andExpect(jsonPath("$.detail").value("Department not found"));
 
-        verify(departmentService, times(1)).getDepartmentById(1L);
+        verify(departmentService, times(1)).getDepartmentVersion(1L);
+        verify(departmentService, never()).getDepartmentById(1L);
+    }
+
+    @Test
+    void testGetDepartmentStats_Positive() throws Exception {
+        when(statsService.getDepartmentStats(2L)).thenReturn(new DepartmentStatsDTO(2L, 4, 3, 3));
+
+        mockMvc.perform(get("/api/departments/2/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.departmentId").value(2))
+                .andExpect(jsonPath("$.teams").value(4))
+                .andExpect(jsonPath("$.managers").value(3));
     }
 
 
@@ -275,7 +529,7 @@ class CompanyControllerTest {
         updatedDepartment.setId(1L);
         updatedDepartment.setName("Updated Department");
 
-        when(departmentService.updateDepartment(eq(1L), any())).thenReturn(updatedDepartment);
+        when(departmentService.updateDepartment(eq(1L), any(), isNull())).thenReturn(updatedDepartment);
 
         mockMvc.perform(put("/api/departments/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -285,17 +539,68 @@ class CompanyControllerTest {
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("Updated Department"));
 
-        verify(departmentService, times(1)).updateDepartment(eq(1L), any());
+        verify(departmentService, times(1)).updateDepartment(eq(1L), any(), isNull());
+    }
+
+    @Test
+    void testUpdateDepartment_RespondAsync_Queued() throws Exception {
+        when(writeBehindService.isEnabled()).thenReturn(true);
+
+        mockMvc.perform(put("/api/departments/1")
+                        .header("Prefer", "return=minimal, respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Updated Department\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"));
+
+        verify(writeBehindService, times(1)).enqueueRename(EntityType.DEPARTMENT, 1L, "Updated Department");
+        verifyNoInteractions(departmentService);
+    }
+
+    @Test
+    void testUpdateDepartment_RespondAsync_WriteBehindDisabled() throws Exception {
+        DepartmentDTO updatedDepartment = new DepartmentDTO();
+        updatedDepartment.setId(1L);
+        updatedDepartment.setName("Updated Department");
+        when(departmentService.updateDepartment(eq(1L), any(), isNull())).thenReturn(updatedDepartment);
+
+        mockMvc.perform(put("/api/departments/1")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Updated Department\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Preference-Applied"));
+
+        verify(writeBehindService, never()).enqueueRename(any(), any(), any());
+    }
+
+    @Test
+    void testUpdateDepartment_RespondAsync_IfMatchRunsSynchronously() throws Exception {
+        DepartmentDTO updatedDepartment = new DepartmentDTO();
+        updatedDepartment.setId(1L);
+        updatedDepartment.setName("Updated Department");
+        when(writeBehindService.isEnabled()).thenReturn(true);
+        when(departmentService.updateDepartment(eq(1L), any(), eq("4-7"))).thenReturn(updatedDepartment);
+
+        mockMvc.perform(put("/api/departments/1")
+                        .header("Prefer", "respond-async")
+                        .header("If-Match", "\"4-7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Updated Department\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Preference-Applied"));
+
+        verify(writeBehindService, never()).enqueueRename(any(), any(), any());
     }
 
     @Test
     void testDeleteDepartment_Positive() throws Exception {
-        doNothing().when(departmentService).deleteDepartment(1L);
+        doNothing().when(departmentService).deleteDepartment(1L, null);
 
         mockMvc.perform(delete("/api/departments/1"))
                 .andExpect(status().isNoContent());
 
-        verify(departmentService, times(1)).deleteDepartment(1L);
+        verify(departmentService, times(1)).deleteDepartment(1L, null);
     }
 
     // ===================== Team Endpoints =====================
@@ -309,7 +614,7 @@ class CompanyControllerTest {
         team2.setId(2L);
         team2.setName("Team B");
 
-        when(teamService.getTeamsByDepartmentId(1L)).thenReturn(Arrays.asList(team1, team2));
+        when(teamService.getTeamsByDepartmentId(1L, 0L, 100)).thenReturn(new KeysetPage<>(Arrays.asList(team1, team2), null));
 
         mockMvc.perform(get("/api/departments/1/teams"))
                 .andExpect(status().isOk())
@@ -319,7 +624,101 @@ class CompanyControllerTest {
                 .andExpect(jsonPath("$[1].id").value(2L))
                 .andExpect(jsonPath("$[1].name").value("Team B"));
 
-        verify(teamService, times(1)).getTeamsByDepartmentId(1L);
+        verify(teamService, times(1)).getTeamsByDepartmentId(1L, 0L, 100);
+    }
+
+    @Test
+    void testGetTeamById_NotModified() throws Exception {
+        when(teamService.getTeamVersion(1L)).thenReturn(new VersionDTO("7-5", null));
+
+        mockMvc.perform(get("/api/teams/1").header("If-None-Match", "\"7-5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().doesNotExist("Last-Modified"));
+
+        verify(teamService, never()).getTeamById(1L);
+    }
+
+    @Test
+    void testGetTeamsByIds_Positive() throws Exception {
+        when(teamService.getTeamsByIds(List.of(2L, 1L))).thenReturn(List.of(
+                new TeamDTO(2L, "Team B", "Sales", null), new TeamDTO(1L, "Team A", "Sales", null)));
+
+        mockMvc.perform(get("/api/teams").param("ids", "2,1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2L))
+                .andExpect(jsonPath("$[1].id").value(1L));
+
+        verify(teamService, times(1)).getTeamsByIds(List.of(2L, 1L));
+    }
+
+    @Test
+    void testGetTeamsByIds_Negative_TooManyIds() throws Exception {
+        String ids = String.join(",", java.util.stream.LongStream.rangeClosed(1, 101).mapToObj(Long::toString).toList());
+
+        mockMvc.perform(get("/api/teams").param("ids", ids))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_REQUEST"))
+                .andExpect(jsonPath("$.detail").value("ids must contain between 1 and 100 distinct ids"));
+
+        verifyNoInteractions(teamService);
+    }
+
+    @Test
+    void testUpdateTeam_RespondAsync_BufferFull() throws Exception {
+        when(writeBehindService.isEnabled()).thenReturn(true);
+        doThrow(new WriteBehindQueueFullException("Write-behind buffer is full"))
+                .when(writeBehindService).enqueueRename(EntityType.TEAM, 1L, "Team B");
+
+        mockMvc.perform(put("/api/teams/1")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Team B\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error").value("UNAVAILABLE"));
+
+        verifyNoInteractions(teamService);
+    }
+
+    @Test
+    void testPatchTeam_Positive() throws Exception {
+        mockMvc.perform(patch("/api/teams/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"name\": \"Team B\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(content().string(""));
+
+        verify(teamService, times(1)).patchTeam(1L, new TeamDTO(null, "Team B", null, null));
+    }
+
+    @Test
+    void testPatchTeam_Negative_NotFound() throws Exception {
+        doThrow(new NotFoundException("Team not found")).when(teamService).patchTeam(eq(1L), any());
+
+        mockMvc.perform(patch("/api/teams/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Team B\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPatchManager_Negative_InvalidEmail() throws Exception {
+        doThrow(new IllegalArgumentException("Email should be valid")).when(managerService).patchManager(eq(1L), any());
+
+        mockMvc.perform(patch("/api/managers/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"not-an-email\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_REQUEST"));
+    }
+
+    @Test
+    void testGetManagersByIds_Positive() throws Exception {
+        when(managerService.getManagersByIds(List.of(3L))).thenReturn(List.of(new ManagerDTO(3L, "Anna", "anna@test.com")));
+
+        mockMvc.perform(get("/api/managers").param("ids", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email").value("anna@test.com"));
     }
 
     @Test
@@ -351,26 +750,60 @@ class CompanyControllerTest {
         project.setId(1L);
         project.setName("Project A");
 
+        when(projectService.getProjectVersion(1L)).thenReturn(new VersionDTO("2-5", LAST_MODIFIED));
         when(projectService.getProjectById(1L)).thenReturn(project);
 
         mockMvc.perform(get("/api/projects/1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"2-5\""))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("Project A"));
 
         verify(projectService, times(1)).getProjectById(1L);
     }
 
+    @Test
+    void testGetProjectById_NotModified() throws Exception {
+        when(projectService.getProjectVersion(1L)).thenReturn(new VersionDTO("2-5", LAST_MODIFIED));
+
+        mockMvc.perform(get("/api/projects/1").header("If-None-Match", "\"2-5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(projectService, never()).getProjectById(1L);
+    }
+
     @Test
     void testGetProjectById_Negative_NotFound() throws Exception {
-        when(projectService.getProjectById(1L)).thenThrow(new RuntimeException("Project not found"));
+        when(projectService.getProjectVersion(1L)).thenThrow(new NotFoundException("Project not found"));
 
         mockMvc.perform(get("/api/projects/1"))
                 .andExpect(status().isNotFound())
-                .andExpect(jsonPath("$.message").value("Project not found"));
+                .andExpect(jsonPath("$.detail").value("Project not found"));
 
-        verify(projectService, times(1)).getProjectById(1L);
+        verify(projectService, never()).getProjectById(1L);
+    }
+
+    @Test
+    void testUpdateProject_IfMatch_Negative_PreconditionFailed() throws Exception {
+        when(projectService.updateProject(eq(1L), any(), eq("2-4")))
+                .thenThrow(new PreconditionFailedException("If-Match does not match the current entity tag"));
+
+        mockMvc.perform(put("/api/projects/1")
+                        .header("If-Match", "\"2-4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Updated Project\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value("PRECONDITION_FAILED"));
+    }
+
+    @Test
+    void testDeleteProject_IfMatch_PassesEntityTag() throws Exception {
+        mockMvc.perform(delete("/api/projects/1").header("If-Match", "\"2-5\""))
+                .andExpect(status().isNoContent());
+
+        verify(projectService, times(1)).deleteProject(1L, "2-5");
     }
 
 
@@ -415,11 +848,13 @@ class CompanyControllerTest {
         manager.setName("Mateusz Strzałko");
         manager.setEmail("mateusz.strzalko@test.com");
 
+        when(managerService.getManagerVersion(1L)).thenReturn(new VersionDTO("4", LAST_MODIFIED));
         when(managerService.getManagerById(1L)).thenReturn(manager);
 
         mockMvc.perform(get("/api/managers/1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"4\""))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("Mateusz Strzałko"))
                 .andExpect(jsonPath("$.email").value("mateusz.strzalko@test.com"));
@@ -427,18 +862,57 @@ class CompanyControllerTest {
         verify(managerService, times(1)).getManagerById(1L);
     }
 
+    @Test
+    void testUpdateManager_IfMatch_PassesEntityTag() throws Exception {
+        ManagerDTO updatedManager = new ManagerDTO();
+        updatedManager.setId(1L);
+        updatedManager.setName("Anna");
+
+        when(managerService.updateManager(eq(1L), any(), eq("4"))).thenReturn(updatedManager);
+
+        mockMvc.perform(put("/api/managers/1")
+                        .header("If-Match", "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Anna\", \"email\": \"anna@test.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Anna"));
+
+        verify(managerService, times(1)).updateManager(eq(1L), any(), eq("4"));
+    }
+
+    @Test
+    void testDeleteManager_IfMatch_Negative_Conflict() throws Exception {
+        doThrow(new OptimisticLockingFailureException("Manager was changed by another request"))
+                .when(managerService).deleteManager(1L, "4");
+
+        mockMvc.perform(delete("/api/managers/1").header("If-Match", "\"4\""))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("CONFLICT"));
+    }
+
     @Test
     void testDeleteManager_Negative_NotFound() throws Exception {
 
-        doThrow(new RuntimeException("Manager not found")).when(managerService).deleteManager(1L);
+        doThrow(new NotFoundException("Manager not found")).when(managerService).deleteManager(1L, null);
 
         mockMvc.perform(delete("/api/managers/1"))
                 .andExpect(status().isNotFound())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.error").value("ERROR"))
-                .andExpect(jsonPath("$.message").value("Manager not found"));
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.error").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.detail").value("Manager not found"));
 
-        verify(managerService, times(1)).deleteManager(1L);
+        verify(managerService, times(1)).deleteManager(1L, null);
+    }
+
+    @Test
+    void testDeleteManager_Negative_Referenced() throws Exception {
+        doThrow(new DataIntegrityViolationException("FK_PROJECT_MANAGER"))
+                .when(managerService).deleteManager(1L, null);
+
+        mockMvc.perform(delete("/api/managers/1"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("CONFLICT"))
+                .andExpect(jsonPath("$.detail").value("The request conflicts with data that depends on the resource"));
     }
 
 
@@ -473,13 +947,64 @@ class CompanyControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"name\": \"\", \"email\": \"\"}"))
                 .andExpect(status().isBadRequest())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
                 .andExpect(jsonPath("$.error").value("VALIDATION_ERROR"))
-                .andExpect(jsonPath("$.message").value("email: Email cannot be blank, name: Name cannot be blank"));
+                .andExpect(jsonPath("$.detail").value(containsString("email: Email cannot be blank")))
+                .andExpect(jsonPath("$.detail").value(containsString("name: Name cannot be blank")));
     }
 
+    // ===================== Binary Formats =====================
+    @Test
+    void testGetDepartmentsByCompanyId_Cbor() throws Exception {
+        DepartmentDTO department = new DepartmentDTO();
+        department.setId(1L);
+        department.setName("Sales");
+        when(departmentService.getDepartmentsByCompanyId(1L, 0L, 100)).thenReturn(new KeysetPage<>(List.of(department), null));
 
+        byte[] body = mockMvc.perform(get("/api/companies/1/departments").accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        DepartmentDTO[] departments = new CBORMapper().readValue(body, DepartmentDTO[].class);
+        assertEquals(1, departments.length);
+        assertEquals(1L, departments[0].getId());
+        assertEquals("Sales", departments[0].getName());
+    }
 
+    @Test
+    void testCreateTeam_SmileBodyAndResponse() throws Exception {
+        TeamDTO input = new TeamDTO();
+        input.setName("Platform");
+        TeamDTO created = new TeamDTO();
+        created.setId(3L);
+        created.setName("Platform");
+        when(teamService.createTeam(eq(1L), argThat(team -> "Platform".equals(team.getName())))).thenReturn(created);
+
+        byte[] body = mockMvc.perform(post("/api/departments/1/teams")
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(new SmileMapper().writeValueAsBytes(input)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
 
+        TeamDTO team = new SmileMapper().readValue(body, TeamDTO.class);
+        assertEquals(3L, team.getId());
+        assertEquals("Platform", team.getName());
+    }
 
+    @Test
+    void testCreateDepartment_Cbor_Negative_BadRequest() throws Exception {
+        DepartmentDTO input = new DepartmentDTO();
+        input.setName("");
+
+        mockMvc.perform(post("/api/companies/1/departments")
+                        .contentType(CBOR)
+                        .content(new CBORMapper().writeValueAsBytes(input)))
+                .andExpect(status().isBadRequest());
+
+        verify(departmentService, never()).createDepartment(eq(1L), any());
+    }
 }
@@ -0,0 +1,60 @@
+package com.company.management.company_crud.controller;
+
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.SearchHitDTO;
+import com.company.management.company_crud.service.SearchService;
+import com.company.management.company_crud.service.WriteBehindService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = SearchController.class)
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SearchService searchService;
+
+    @MockBean
+    private WriteBehindService writeBehindService;
+
+    @Test
+    void testSearch_Positive() throws Exception {
+        when(searchService.searchNames("plat", EnumSet.of(EntityType.TEAM, EntityType.PROJECT), 20))
+                .thenReturn(List.of(new SearchHitDTO(EntityType.TEAM, 3L, "Platform")));
+
+        mockMvc.perform(get("/api/search").param("q", "plat").param("types", "team,Project"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].type").value("TEAM"))
+                .andExpect(jsonPath("$[0].id").value(3L))
+                .andExpect(jsonPath("$[0].name").value("Platform"));
+    }
+
+    @Test
+    void testSearch_Negative_UnknownType() throws Exception {
+        mockMvc.perform(get("/api/search").param("q", "plat").param("types", "office"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_REQUEST"))
+                .andExpect(jsonPath("$.detail").value("Unknown type: office"));
+
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    void testSearch_Negative_LimitTooLarge() throws Exception {
+        mockMvc.perform(get("/api/search").param("q", "plat").param("limit", "101"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_REQUEST"));
+    }
+}
@@ -0,0 +1,139 @@
+package com.company.management.company_crud.reactive;
+
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.model.dto.CompanyDTO;
+import com.company.management.company_crud.repository.CompanyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reads through R2DBC what the JPA repositories wrote to the same in-memory database.
+ */
+@SpringBootTest(properties = {
+        "app.reactive.enabled=true",
+        "app.reactive.port=0",
+        "app.reactive.url=r2dbc:h2:mem:///company_db?options=MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH"
+})
+@ActiveProfiles("test")
+class ReactiveReadServerTest {
+
+    @Autowired
+    private ReactiveReadServer server;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    private WebTestClient client;
+    private Company company;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + server.getPort()).build();
+
+        company = new Company();
+        company.setName("Reactive Company");
+        for (String name : List.of("Sales", "Support")) {
+            Department department = new Department();
+            department.setName(name);
+            department.setCompany(company);
+            company.getDepartments().add(department);
+            Team team = new Team();
+            team.setName(name + " Team");
+            team.setDepartment(department);
+            department.getTeams().add(team);
+        }
+        company = companyRepository.save(company);
+    }
+
+    @AfterEach
+    void tearDown() {
+        companyRepository.deleteAll();
+    }
+
+    @Test
+    void testGetCompanyById() {
+        client.get().uri("/api/companies/{id}", company.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Reactive Company")
+                .jsonPath("$.departmentNames[0]").isEqualTo("Sales")
+                .jsonPath("$.departmentNames[1]").isEqualTo("Support");
+    }
+
+    @Test
+    void testGetCompanyById_Negative_NotFound() {
+        client.get().uri("/api/companies/{id}", -1)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("NOT_FOUND")
+                .jsonPath("$.detail").isEqualTo("Company not found");
+    }
+
+    @Test
+    void testGetDepartmentsByCompanyId_StreamsNdjson() {
+        Long salesId = company.getDepartments().get(0).getId();
+
+        client.get().uri("/api/companies/{id}/departments?afterId={after}", company.getId(), salesId)
+                .accept(ReactiveReadHandler.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(ReactiveReadHandler.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .value(body -> assertEquals(
+                        "{\"id\":" + company.getDepartments().get(1).getId()
+                                + ",\"name\":\"Support\",\"companyName\":\"Reactive Company\",\"teamNames\":[\"Support Team\"]}\n",
+                        body));
+    }
+
+    @Test
+    void testGetAllCompanies_AsJsonArray() {
+        List<CompanyDTO> companies = client.get().uri("/api/companies?afterId={after}&limit=1", company.getId() - 1)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBodyList(CompanyDTO.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(List.of(new CompanyDTO(company.getId(), "Reactive Company", List.of("Sales", "Support"))), companies);
+    }
+
+    @Test
+    void testGetTeamsByIds_InRequestOrder() {
+        Long salesTeam = company.getDepartments().get(0).getTeams().get(0).getId();
+        Long supportTeam = company.getDepartments().get(1).getTeams().get(0).getId();
+
+        client.get().uri("/api/teams?ids={ids}", supportTeam + "," + salesTeam + ",-1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("Support Team")
+                .jsonPath("$[0].departmentName").isEqualTo("Support")
+                .jsonPath("$[1].name").isEqualTo("Sales Team");
+    }
+
+    @Test
+    void testGetTeamsByIds_Negative_InvalidId() {
+        client.get().uri("/api/teams?ids=1,x")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("INVALID_REQUEST");
+    }
+}
@@ -0,0 +1,147 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.model.dto.BatchOperationDTO;
+import com.company.management.company_crud.model.dto.BatchResultDTO;
+import com.company.management.company_crud.model.dto.DepartmentDTO;
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.TeamDTO;
+import com.company.management.company_crud.repository.CompanyRepository;
+import com.company.management.company_crud.repository.ManagerRepository;
+import com.company.management.company_crud.repository.ProjectRepository;
+import com.company.management.company_crud.repository.TeamRepository;
+import com.company.management.company_crud.service.BatchService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.company.management.company_crud.model.dto.BatchOperationDTO.Action.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BatchServiceImplTest {
+
+    @Autowired
+    private BatchService batchService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ManagerRepository managerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        projectRepository.deleteAll();
+        companyRepository.deleteAll();
+        managerRepository.deleteAll();
+    }
+
+    @Test
+    void testExecute_RunsOperationsInOrderWithOneFlush() {
+        // Arrange
+        Company company = companyRepository.save(company("Batch Company"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        List<BatchResultDTO> results = batchService.execute(List.of(
+                create(EntityType.DEPARTMENT, company.getId(), null, "Sales"),
+                create(EntityType.TEAM, null, 0, "Team A"),
+                create(EntityType.TEAM, null, 0, "Team B"),
+                create(EntityType.PROJECT, null, 1, "Project X"),
+                new BatchOperationDTO(UPDATE, EntityType.COMPANY, company.getId(), null, null, data("Batch Company 2"))));
+        Long teamBId = ((TeamDTO) results.get(2).getBody()).getId();
+        List<BatchResultDTO> deleted = batchService.execute(List.of(
+                new BatchOperationDTO(DELETE, EntityType.TEAM, teamBId, null, null, null)));
+
+        // Assert
+        assertEquals(List.of(201, 201, 201, 201, 200), results.stream().map(BatchResultDTO::getStatus).toList());
+        assertEquals("Sales", ((DepartmentDTO) results.get(0).getBody()).getName());
+        Team teamA = teamRepository.findById(((TeamDTO) results.get(1).getBody()).getId()).orElseThrow();
+        assertEquals("Team A", teamA.getName());
+        assertEquals("Batch Company 2", companyRepository.findById(company.getId()).orElseThrow().getName());
+        // the delete runs as bulk statements and leaves nothing for its batch to flush
+        assertEquals(1, statistics.getFlushCount());
+        assertEquals(204, deleted.get(0).getStatus());
+        assertNull(deleted.get(0).getBody());
+        assertFalse(teamRepository.existsById(teamBId));
+    }
+
+    @Test
+    void testExecute_Negative_FailureRollsBackEveryOperation() {
+        // Arrange
+        long companies = companyRepository.count();
+
+        // Act
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> batchService.execute(List.of(
+                create(EntityType.COMPANY, null, null, "Rolled Back"),
+                new BatchOperationDTO(UPDATE, EntityType.TEAM, -1L, null, null, data("Team")))));
+
+        // Assert
+        assertEquals("Operation 1: Team not found", exception.getMessage());
+        assertEquals(companies, companyRepository.count());
+    }
+
+    @Test
+    void testExecute_Negative_InvalidOperationRejectedBeforeAnyWrite() {
+        // Arrange
+        long companies = companyRepository.count();
+
+        // Act
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> batchService.execute(List.of(
+                create(EntityType.COMPANY, null, null, "Never Written"),
+                create(EntityType.TEAM, null, 0, ""))));
+
+        // Assert
+        assertEquals("Operation 1: parentRef must point to an earlier DEPARTMENT create", exception.getMessage());
+        assertEquals(companies, companyRepository.count());
+    }
+
+    @Test
+    void testExecute_Negative_BlankName() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> batchService.execute(List.of(
+                create(EntityType.MANAGER, null, null, " "))));
+
+        assertTrue(exception.getMessage().startsWith("Operation 0: "));
+        assertTrue(exception.getMessage().contains("name: Name cannot be blank"));
+    }
+
+    private BatchOperationDTO create(EntityType entity, Long parentId, Integer parentRef, String name) {
+        return new BatchOperationDTO(CREATE, entity, null, parentId, parentRef, data(name));
+    }
+
+    private JsonNode data(String name) {
+        return objectMapper.valueToTree(Map.of("name", name));
+    }
+
+    private static Company company(String name) {
+        Company company = new Company();
+        company.setName(name);
+        return company;
+    }
+}
@@ -0,0 +1,188 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.mapper.ChangeMapperImpl;
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.dao.Manager;
+import com.company.management.company_crud.model.dto.ChangeDTO;
+import com.company.management.company_crud.model.dto.ChangeOperation;
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.repository.ChangeRecordRepository;
+import com.company.management.company_crud.repository.CompanyRepository;
+import com.company.management.company_crud.repository.ManagerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction, since changes are written when a transaction commits, and
+ * without a settle delay, so they can be read right after.
+ */
+@DataJpaTest(properties = {"app.changes.settle-delay=0ms", "app.changes.poll-interval=20ms"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ChangeFeedServiceImpl.class, ChangeLog.class, ChangeMapperImpl.class, SubtreeDeleter.class,
+        RollupCounters.class, NameIndex.class, ChildrenVersions.class})
+class ChangeFeedServiceImplTest {
+
+    @Autowired
+    private ChangeFeedServiceImpl changeFeedService;
+
+    @Autowired
+    private SubtreeDeleter subtreeDeleter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ManagerRepository managerRepository;
+
+    @Autowired
+    private ChangeRecordRepository changeRecordRepository;
+
+    private long since;
+
+    @BeforeEach
+    void setUp() {
+        since = changeRecordRepository.findLatestSequence();
+    }
+
+    @AfterEach
+    void tearDown() {
+        companyRepository.deleteAll();
+        managerRepository.deleteAll();
+        changeRecordRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testWrites_RecordedInCommitOrder() {
+        Company company = companyRepository.save(company("Company A"));
+        Long departmentId = company.getDepartments().get(0).getId();
+        inTransaction(() -> {
+            companyRepository.findById(company.getId()).orElseThrow().setName("Company B");
+            return null;
+        });
+        inTransaction(() -> subtreeDeleter.deleteCompany(company.getId(), null, null));
+
+        List<ChangeDTO> changes = changeFeedService.getChanges(since, 100);
+
+        assertEquals(List.of(
+                        change(EntityType.COMPANY, company.getId(), ChangeOperation.CREATED),
+                        change(EntityType.DEPARTMENT, departmentId, ChangeOperation.CREATED),
+                        change(EntityType.COMPANY, company.getId(), ChangeOperation.UPDATED),
+                        change(EntityType.COMPANY, company.getId(), ChangeOperation.DELETED)),
+                changes.stream().map(c -> change(c.getType(), c.getId(), c.getOperation())).toList());
+        for (int i = 1; i < changes.size(); i++) {
+            assertTrue(changes.get(i).getSequence() > changes.get(i - 1).getSequence());
+        }
+        assertEquals(2, changeFeedService.getChanges(changes.get(1).getSequence(), 100).size());
+        assertEquals(1, changeFeedService.getChanges(since, 1).size());
+    }
+
+    @Test
+    void testChangesOfOneTransaction_RecordedOncePerRow() {
+        Long companyId = inTransaction(() -> {
+            Company company = companyRepository.save(company("Company A"));
+            companyRepository.flush();
+            company.setName("Company B");
+            Manager manager = managerRepository.save(manager("anna@test.com"));
+            managerRepository.flush();
+            managerRepository.delete(manager);
+            return company.getId();
+        });
+
+        List<ChangeDTO> changes = changeFeedService.getChanges(since, 100);
+
+        assertEquals(2, changes.size());
+        assertEquals(change(EntityType.COMPANY, companyId, ChangeOperation.CREATED),
+                change(changes.get(0).getType(), changes.get(0).getId(), changes.get(0).getOperation()));
+        assertEquals(EntityType.DEPARTMENT, changes.get(1).getType());
+    }
+
+    @Test
+    void testRollback_RecordsNothing() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            managerRepository.saveAndFlush(manager("anna@test.com"));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(changeFeedService.getChanges(since, 100).isEmpty());
+    }
+
+    @Test
+    void testAwaitChanges_CompletesWhenChangeCommits() throws Exception {
+        CompletableFuture<List<ChangeDTO>> waiting = changeFeedService.awaitChanges(since, 10, Duration.ofSeconds(10));
+        assertFalse(waiting.isDone());
+        assertEquals(1, changeFeedService.waiting());
+
+        Manager manager = managerRepository.save(manager("anna@test.com"));
+
+        List<ChangeDTO> changes = waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(1, changes.size());
+        assertEquals(change(EntityType.MANAGER, manager.getId(), ChangeOperation.CREATED),
+                change(changes.get(0).getType(), changes.get(0).getId(), changes.get(0).getOperation()));
+        assertEquals(0, changeFeedService.waiting());
+    }
+
+    @Test
+    void testAwaitChanges_EmptyAfterTimeout() throws Exception {
+        CompletableFuture<List<ChangeDTO>> waiting = changeFeedService.awaitChanges(since, 10, Duration.ofMillis(100));
+
+        assertTrue(waiting.get(5, TimeUnit.SECONDS).isEmpty());
+    }
+
+    @Test
+    void testAwaitChanges_CancelStopsWaiting() {
+        CompletableFuture<List<ChangeDTO>> waiting = changeFeedService.awaitChanges(since, 10, Duration.ofSeconds(10));
+
+        waiting.cancel(false);
+
+        assertEquals(0, changeFeedService.waiting());
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+    private static String change(EntityType type, Long id, ChangeOperation operation) {
+        return operation + " " + type + " " + id;
+    }
+
+    private static Company company(String name) {
+        Company company = new Company();
+        company.setName(name);
+        Department department = new Department();
+        department.setName(name + " Sales");
+        department.setCompany(company);
+        company.getDepartments().add(department);
+        return company;
+    }
+
+    private static Manager manager(String email) {
+        Manager manager = new Manager();
+        manager.setName("Anna");
+        manager.setEmail(email);
+        return manager;
+    }
+}
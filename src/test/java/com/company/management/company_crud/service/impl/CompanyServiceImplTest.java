@@ -1,14 +1,30 @@
 package com.company.management.company_crud.service.impl;
 
+import com.company.management.company_crud.exception.PreconditionFailedException;
 import com.company.management.company_crud.mapper.CompanyMapper;
 import com.company.management.company_crud.model.dao.Company;
 import com.company.management.company_crud.model.dto.CompanyDTO;
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.KeysetPage;
+import com.company.management.company_crud.model.dto.VersionDTO;
+import com.company.management.company_crud.model.projection.ChildName;
+import com.company.management.company_crud.model.projection.CompanyView;
+import com.company.management.company_crud.model.projection.VersionView;
 import com.company.management.company_crud.repository.CompanyRepository;
+import com.company.management.company_crud.repository.DepartmentRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
-import java.util.Arrays;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.Mockito.*;
@@ -22,9 +38,26 @@ class CompanyServiceImplTest {
     @Mock
     private CompanyRepository companyRepository;
 
+    @Mock
+    private DepartmentRepository departmentRepository;
+
     @Mock
     private CompanyMapper companyMapper;
 
+    @Mock
+    private SubtreeDeleter subtreeDeleter;
+
+    @Mock
+    private NameIndex nameIndex;
+
+    @Mock
+    private ChangeLog changeLog;
+
+    @Spy
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -33,17 +66,10 @@ class CompanyServiceImplTest {
     @Test
     void testGetAllCompanies() {
         // Arrange
-        Company company1 = new Company();
-        company1.setId(1L);
-        company1.setName("Company1");
-
-        Company company2 = new Company();
-        company2.setId(2L);
-        company2.setName("Company2");
+        CompanyView company1 = projections.createProjection(CompanyView.class, Map.of("id", 1L, "name", "Company1"));
+        CompanyView company2 = projections.createProjection(CompanyView.class, Map.of("id", 2L, "name", "Company2"));
 
-        List<Company> companies = Arrays.asList(company1, company2);
-
-        when(companyRepository.findAll()).thenReturn(companies);
+        when(companyRepository.findViewsByIdGreaterThan(0L, Limit.of(3))).thenReturn(List.of(company1, company2));
 
         CompanyDTO companyDTO1 = new CompanyDTO();
         companyDTO1.setId(1L);
@@ -53,38 +79,64 @@ class CompanyServiceImplTest {
         companyDTO2.setId(2L);
         companyDTO2.setName("Company2");
 
-        when(companyMapper.companyToCompanyDTO(company1)).thenReturn(companyDTO1);
-        when(companyMapper.companyToCompanyDTO(company2)).thenReturn(companyDTO2);
+        when(departmentRepository.findNamesByCompanyIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(childName(1L, "Sales"), childName(1L, "Support")));
+        when(companyMapper.companyViewToCompanyDTO(company1, List.of("Sales", "Support"))).thenReturn(companyDTO1);
+        when(companyMapper.companyViewToCompanyDTO(company2, List.of())).thenReturn(companyDTO2);
 
         // Act
-        List<CompanyDTO> result = companyService.getAllCompanies();
+        KeysetPage<CompanyDTO> result = companyService.getAllCompanies(0L, 2);
 
         // Assert
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("Company1", result.get(0).getName());
-        assertEquals("Company2", result.get(1).getName());
+        assertEquals(2, result.getItems().size());
+        assertEquals("Company1", result.getItems().get(0).getName());
+        assertEquals("Company2", result.getItems().get(1).getName());
+        assertFalse(result.hasNext());
+
+        verify(companyRepository, times(1)).findViewsByIdGreaterThan(0L, Limit.of(3));
+        verify(departmentRepository, times(1)).findNamesByCompanyIdIn(List.of(1L, 2L));
+        verify(companyMapper, times(1)).companyViewToCompanyDTO(company1, List.of("Sales", "Support"));
+        verify(companyMapper, times(1)).companyViewToCompanyDTO(company2, List.of());
+    }
+    @Test
+    void testGetAllCompanies_HasNextPage() {
+        // Arrange
+        CompanyView company1 = projections.createProjection(CompanyView.class, Map.of("id", 1L, "name", "Company1"));
+        CompanyView company2 = projections.createProjection(CompanyView.class, Map.of("id", 2L, "name", "Company2"));
+
+        CompanyDTO companyDTO1 = new CompanyDTO();
+        companyDTO1.setId(1L);
+
+        when(companyRepository.findViewsByIdGreaterThan(0L, Limit.of(2))).thenReturn(List.of(company1, company2));
+        when(companyMapper.companyViewToCompanyDTO(company1, List.of())).thenReturn(companyDTO1);
+
+        // Act
+        KeysetPage<CompanyDTO> result = companyService.getAllCompanies(0L, 1);
 
-        verify(companyRepository, times(1)).findAll();
-        verify(companyMapper, times(1)).companyToCompanyDTO(company1);
-        verify(companyMapper, times(1)).companyToCompanyDTO(company2);
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertEquals(1L, result.getNextAfterId());
+        verify(departmentRepository, times(1)).findNamesByCompanyIdIn(List.of(1L));
     }
+
     @Test
     void testGetCompanyById() {
         // Arrange
         Long companyId = 1L;
 
-        Company company = new Company();
-        company.setId(companyId);
-        company.setName("Test Company");
+        CompanyView company = projections.createProjection(CompanyView.class,
+                Map.of("id", companyId, "name", "Test Company"));
 
-        when(companyRepository.findById(companyId)).thenReturn(Optional.of(company));
+        when(companyRepository.findViewById(companyId)).thenReturn(Optional.of(company));
+        when(departmentRepository.findNamesByCompanyIdIn(List.of(companyId)))
+                .thenReturn(List.of(childName(companyId, "Sales")));
 
         CompanyDTO companyDTO = new CompanyDTO();
         companyDTO.setId(companyId);
         companyDTO.setName("Test Company");
 
-        when(companyMapper.companyToCompanyDTO(company)).thenReturn(companyDTO);
+        when(companyMapper.companyViewToCompanyDTO(company, List.of("Sales"))).thenReturn(companyDTO);
 
         // Act
         CompanyDTO result = companyService.getCompanyById(companyId);
@@ -94,8 +146,8 @@ class CompanyServiceImplTest {
         assertEquals(companyId, result.getId());
         assertEquals("Test Company", result.getName());
 
-        verify(companyRepository, times(1)).findById(companyId);
-        verify(companyMapper, times(1)).companyToCompanyDTO(company);
+        verify(companyRepository, times(1)).findViewById(companyId);
+        verify(companyMapper, times(1)).companyViewToCompanyDTO(company, List.of("Sales"));
     }
     @Test
     void testCreateCompany() {
@@ -156,7 +208,7 @@ class CompanyServiceImplTest {
         when(companyMapper.companyToCompanyDTO(updatedCompany)).thenReturn(updatedCompanyDTO);
 
         // Act
-        CompanyDTO result = companyService.updateCompany(companyId, companyDTO);
+        CompanyDTO result = companyService.updateCompany(companyId, companyDTO, null);
 
         // Assert
         assertNotNull(result);
@@ -172,18 +224,117 @@ class CompanyServiceImplTest {
         // Arrange
         Long companyId = 1L;
 
+        when(subtreeDeleter.deleteCompany(companyId, null, null)).thenReturn(true);
+
+        // Act
+        companyService.deleteCompany(companyId, null);
+
+        // Assert
+        verify(subtreeDeleter, times(1)).deleteCompany(companyId, null, null);
+        verify(companyRepository, never()).findById(any());
+    }
+
+    @Test
+    void testDeleteCompany_NotFound() {
+        Long companyId = 1L;
+
+        when(subtreeDeleter.deleteCompany(companyId, null, null)).thenReturn(false);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> companyService.deleteCompany(companyId, null));
+
+        assertEquals("Company not found", exception.getMessage());
+    }
+
+    @Test
+    void testUpdateCompany_Negative_EntityTagMismatch() {
+        // Arrange
+        Company company = new Company();
+        company.setId(1L);
+        company.setVersion(4L);
+        CompanyDTO companyDTO = new CompanyDTO();
+        companyDTO.setName("Updated Company");
+
+        when(companyRepository.findById(1L)).thenReturn(Optional.of(company));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () -> companyService.updateCompany(1L, companyDTO, "3"));
+        assertNull(company.getName());
+        verify(companyRepository, never()).save(any());
+    }
+
+    @Test
+    void testDeleteCompany_EntityTag_DeletesOnlyThatVersion() {
+        // Arrange
+        VersionView version = projections.createProjection(VersionView.class, Map.of("version", 3L, "childrenVersion", 2L));
+        when(companyRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+        when(subtreeDeleter.deleteCompany(1L, 3L, 2L)).thenReturn(true);
+
+        // Act
+        companyService.deleteCompany(1L, "3.2");
+
+        // Assert
+        verify(subtreeDeleter, times(1)).deleteCompany(1L, 3L, 2L);
+    }
+
+    @Test
+    void testDeleteCompany_Negative_EntityTagMismatch() {
+        VersionView version = projections.createProjection(VersionView.class, Map.of("version", 4L));
+        when(companyRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+
+        assertThrows(PreconditionFailedException.class, () -> companyService.deleteCompany(1L, "3"));
+
+        verifyNoInteractions(subtreeDeleter);
+    }
+
+    @Test
+    void testDeleteCompany_Negative_ChangedConcurrently() {
+        VersionView version = projections.createProjection(VersionView.class, Map.of("version", 3L, "childrenVersion", 2L));
+        when(companyRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+        when(subtreeDeleter.deleteCompany(1L, 3L, 2L)).thenReturn(false);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> companyService.deleteCompany(1L, "3.2"));
+    }
+
+    @Test
+    void testPatchCompany() {
+        // Arrange
+        Long companyId = 1L;
+
+        when(companyRepository.updateName(eq(companyId), eq("Renamed"), any())).thenReturn(1);
+
         // Act
-        companyService.deleteCompany(companyId);
+        companyService.patchCompany(companyId, new CompanyDTO(null, "Renamed", null));
 
         // Assert
-        verify(companyRepository, times(1)).deleteById(companyId);
+        verify(companyRepository, never()).findById(any());
+        verify(companyRepository, never()).save(any());
+        verify(nameIndex, times(1)).renameAfterCommit(EntityType.COMPANY, companyId, "Renamed");
+    }
+
+    @Test
+    void testPatchCompany_NotFound() {
+        when(companyRepository.updateName(eq(1L), eq("Renamed"), any())).thenReturn(0);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> companyService.patchCompany(1L, new CompanyDTO(null, "Renamed", null)));
+
+        assertEquals("Company not found", exception.getMessage());
+    }
+
+    @Test
+    void testPatchCompany_BlankName() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> companyService.patchCompany(1L, new CompanyDTO(null, " ", null)));
+
+        assertEquals("Name cannot be blank", exception.getMessage());
+        verifyNoInteractions(companyRepository);
     }
     @Test
     void testGetCompanyById_NotFound() {
         // Arrange
         Long companyId = 1L;
 
-        when(companyRepository.findById(companyId)).thenReturn(Optional.empty());
+        when(companyRepository.findViewById(companyId)).thenReturn(Optional.empty());
 
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -192,9 +343,31 @@ class CompanyServiceImplTest {
 
         assertEquals("Company not found", exception.getMessage());
 
-        verify(companyRepository, times(1)).findById(companyId);
+        verify(companyRepository, times(1)).findViewById(companyId);
         verifyNoInteractions(companyMapper);
     }
 
+    @Test
+    void testGetCompanyVersion() {
+        // Arrange
+        Long companyId = 1L;
+        Instant modified = Instant.parse("2026-10-18T10:00:00Z");
 
+        VersionView version = projections.createProjection(VersionView.class,
+                Map.of("version", 3L, "lastModified", modified));
+
+        when(companyRepository.findVersionById(companyId)).thenReturn(Optional.of(version));
+
+        // Act
+        VersionDTO result = companyService.getCompanyVersion(companyId);
+
+        // Assert
+        assertEquals("3", result.getEntityTag());
+        assertEquals(modified, result.getLastModified());
+        verifyNoInteractions(departmentRepository, companyMapper);
+    }
+
+    private ChildName childName(Long parentId, String name) {
+        return projections.createProjection(ChildName.class, Map.of("parentId", parentId, "name", name));
+    }
 }
@@ -4,14 +4,23 @@ import com.company.management.company_crud.mapper.DepartmentMapper;
 import com.company.management.company_crud.model.dao.Company;
 import com.company.management.company_crud.model.dao.Department;
 import com.company.management.company_crud.model.dto.DepartmentDTO;
+import com.company.management.company_crud.model.dto.KeysetPage;
+import com.company.management.company_crud.model.projection.ChildName;
+import com.company.management.company_crud.model.projection.DepartmentView;
 import com.company.management.company_crud.repository.CompanyRepository;
 import com.company.management.company_crud.repository.DepartmentRepository;
+import com.company.management.company_crud.repository.TeamRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,9 +37,29 @@ class DepartmentServiceImplTest {
     @Mock
     private CompanyRepository companyRepository;
 
+    @Mock
+    private TeamRepository teamRepository;
+
     @Mock
     private DepartmentMapper departmentMapper;
 
+    @Mock
+    private SubtreeDeleter subtreeDeleter;
+
+    @Mock
+    private NameIndex nameIndex;
+
+    @Mock
+    private ChangeLog changeLog;
+
+    @Mock
+    private ChildrenVersions childrenVersions;
+
+    @Spy
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -41,20 +70,10 @@ class DepartmentServiceImplTest {
         // Arrange
         Long companyId = 1L;
 
-        Company company = new Company();
-        company.setId(companyId);
-
-        Department department1 = new Department();
-        department1.setId(1L);
-        department1.setName("Department 1");
-        department1.setCompany(company);
-
-        Department department2 = new Department();
-        department2.setId(2L);
-        department2.setName("Department 2");
-        department2.setCompany(company);
-
-        List<Department> departments = Arrays.asList(department1, department2);
+        DepartmentView department1 = projections.createProjection(DepartmentView.class,
+                Map.of("id", 1L, "name", "Department 1", "companyName", "Company"));
+        DepartmentView department2 = projections.createProjection(DepartmentView.class,
+                Map.of("id", 2L, "name", "Department 2", "companyName", "Company"));
 
         DepartmentDTO departmentDTO1 = new DepartmentDTO();
         departmentDTO1.setId(1L);
@@ -64,38 +83,42 @@ class DepartmentServiceImplTest {
         departmentDTO2.setId(2L);
         departmentDTO2.setName("Department 2");
 
-        when(departmentRepository.findAll()).thenReturn(departments);
-        when(departmentMapper.departmentToDepartmentDTO(department1)).thenReturn(departmentDTO1);
-        when(departmentMapper.departmentToDepartmentDTO(department2)).thenReturn(departmentDTO2);
+        when(departmentRepository.findViewsByCompanyId(companyId, 0L, Limit.of(11)))
+                .thenReturn(List.of(department1, department2));
+        when(teamRepository.findNamesByDepartmentIdIn(List.of(1L, 2L))).thenReturn(List.of());
+        when(departmentMapper.departmentViewToDepartmentDTO(department1, List.of())).thenReturn(departmentDTO1);
+        when(departmentMapper.departmentViewToDepartmentDTO(department2, List.of())).thenReturn(departmentDTO2);
 
         // Act
-        List<DepartmentDTO> result = departmentService.getDepartmentsByCompanyId(companyId);
+        KeysetPage<DepartmentDTO> result = departmentService.getDepartmentsByCompanyId(companyId, 0L, 10);
 
         // Assert
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("Department 1", result.get(0).getName());
-        assertEquals("Department 2", result.get(1).getName());
-
-        verify(departmentRepository, times(1)).findAll();
-        verify(departmentMapper, times(1)).departmentToDepartmentDTO(department1);
-        verify(departmentMapper, times(1)).departmentToDepartmentDTO(department2);
+        assertEquals(2, result.getItems().size());
+        assertEquals("Department 1", result.getItems().get(0).getName());
+        assertEquals("Department 2", result.getItems().get(1).getName());
+        assertFalse(result.hasNext());
+
+        verify(departmentRepository, times(1)).findViewsByCompanyId(companyId, 0L, Limit.of(11));
+        verify(teamRepository, times(1)).findNamesByDepartmentIdIn(List.of(1L, 2L));
+        verify(departmentMapper, times(1)).departmentViewToDepartmentDTO(department1, List.of());
+        verify(departmentMapper, times(1)).departmentViewToDepartmentDTO(department2, List.of());
     }
     @Test
     void testGetDepartmentById() {
         // Arrange
         Long departmentId = 1L;
 
-        Department department = new Department();
-        department.setId(departmentId);
-        department.setName("Department");
+        DepartmentView department = projections.createProjection(DepartmentView.class,
+                Map.of("id", departmentId, "name", "Department"));
 
         DepartmentDTO departmentDTO = new DepartmentDTO();
         departmentDTO.setId(departmentId);
         departmentDTO.setName("Department");
 
-        when(departmentRepository.findById(departmentId)).thenReturn(Optional.of(department));
-        when(departmentMapper.departmentToDepartmentDTO(department)).thenReturn(departmentDTO);
+        when(departmentRepository.findViewById(departmentId)).thenReturn(Optional.of(department));
+        when(teamRepository.findNamesByDepartmentIdIn(List.of(departmentId))).thenReturn(List.of());
+        when(departmentMapper.departmentViewToDepartmentDTO(department, List.of())).thenReturn(departmentDTO);
 
         // Act
         DepartmentDTO result = departmentService.getDepartmentById(departmentId);
@@ -105,8 +128,8 @@ class DepartmentServiceImplTest {
         assertEquals(departmentId, result.getId());
         assertEquals("Department", result.getName());
 
-        verify(departmentRepository, times(1)).findById(departmentId);
-        verify(departmentMapper, times(1)).departmentToDepartmentDTO(department);
+        verify(departmentRepository, times(1)).findViewById(departmentId);
+        verify(departmentMapper, times(1)).departmentViewToDepartmentDTO(department, List.of());
     }
     @Test
     void testCreateDepartment() {
@@ -148,6 +171,7 @@ class DepartmentServiceImplTest {
         verify(departmentMapper, times(1)).departmentDTOToDepartment(departmentDTO);
         verify(departmentRepository, times(1)).save(department);
         verify(departmentMapper, times(1)).departmentToDepartmentDTO(savedDepartment);
+        verify(childrenVersions, times(1)).moveCompany(eq(companyId), any());
     }
     @Test
     void testUpdateDepartment() {
@@ -174,7 +198,7 @@ class DepartmentServiceImplTest {
         when(departmentMapper.departmentToDepartmentDTO(updatedDepartment)).thenReturn(updatedDepartmentDTO);
 
         // Act
-        DepartmentDTO result = departmentService.updateDepartment(departmentId, departmentDTO);
+        DepartmentDTO result = departmentService.updateDepartment(departmentId, departmentDTO, null);
 
         // Assert
         assertNotNull(result);
@@ -186,28 +210,120 @@ class DepartmentServiceImplTest {
         verify(departmentMapper, times(1)).departmentToDepartmentDTO(updatedDepartment);
     }
     @Test
+    void testUpdateDepartment_MovesCompanyChildrenVersionOnly() {
+        // Arrange
+        Long departmentId = 1L;
+        Long companyId = 2L;
+
+        Company company = new Company();
+        company.setId(companyId);
+        company.setVersion(3L);
+
+        Department existingDepartment = new Department();
+        existingDepartment.setId(departmentId);
+        existingDepartment.setVersion(5L);
+        existingDepartment.setChildrenVersion(1L);
+        existingDepartment.setCompany(company);
+
+        DepartmentDTO departmentDTO = new DepartmentDTO();
+        departmentDTO.setName("Updated Department");
+
+        when(departmentRepository.findById(departmentId)).thenReturn(Optional.of(existingDepartment));
+        when(departmentRepository.save(existingDepartment)).thenReturn(existingDepartment);
+
+        // Act
+        departmentService.updateDepartment(departmentId, departmentDTO, "5.1-3");
+
+        // Assert
+        verify(childrenVersions, times(1)).moveCompany(eq(companyId), any());
+        assertEquals(3L, company.getVersion());
+        assertNull(company.getLastModified());
+    }
+    @Test
     void testDeleteDepartment() {
         // Arrange
         Long departmentId = 1L;
 
+        when(subtreeDeleter.deleteDepartment(departmentId, null, null)).thenReturn(true);
+
+        // Act
+        departmentService.deleteDepartment(departmentId, null);
+
+        // Assert
+        verify(subtreeDeleter, times(1)).deleteDepartment(departmentId, null, null);
+        verify(departmentRepository, never()).findById(any());
+    }
+    @Test
+    void testDeleteDepartment_NotFound() {
+        Long departmentId = 1L;
+
+        when(subtreeDeleter.deleteDepartment(departmentId, null, null)).thenReturn(false);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> departmentService.deleteDepartment(departmentId, null));
+
+        assertEquals("Department not found", exception.getMessage());
+    }
+
+    @Test
+    void testPatchDepartment_TouchesCompany() {
+        // Arrange
+        Long departmentId = 1L;
+
+        when(departmentRepository.updateName(eq(departmentId), eq("Renamed"), any())).thenReturn(1);
+
         // Act
-        departmentService.deleteDepartment(departmentId);
+        departmentService.patchDepartment(departmentId, new DepartmentDTO(null, "Renamed", null, null));
 
         // Assert
-        verify(departmentRepository, times(1)).deleteById(departmentId);
+        verify(childrenVersions, times(1)).moveCompanyOfDepartment(eq(departmentId), any());
+        verify(departmentRepository, never()).findById(any());
+    }
+    @Test
+    void testPatchDepartment_Negative_NameTooLong() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> departmentService.patchDepartment(1L, new DepartmentDTO(null, "x".repeat(256), null, null)));
+
+        assertEquals("Name must be at most 255 characters", exception.getMessage());
+        verifyNoInteractions(departmentRepository, companyRepository, childrenVersions);
     }
     @Test
     void testGetDepartmentById_NotFound() {
         Long departmentId = 1L;
 
-        when(departmentRepository.findById(departmentId)).thenReturn(Optional.empty());
+        when(departmentRepository.findViewById(departmentId)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             departmentService.getDepartmentById(departmentId);
         });
 
         assertEquals("Department not found", exception.getMessage());
-        verify(departmentRepository, times(1)).findById(departmentId);
+        verify(departmentRepository, times(1)).findViewById(departmentId);
     }
 
+
+    @Test
+    void testGetDepartmentsByIds_InRequestOrderWithTeamNames() {
+        // Arrange
+        DepartmentView department1 = projections.createProjection(DepartmentView.class,
+                Map.of("id", 1L, "name", "Sales"));
+        DepartmentView department2 = projections.createProjection(DepartmentView.class,
+                Map.of("id", 2L, "name", "Support"));
+        ChildName team = projections.createProjection(ChildName.class, Map.of("parentId", 1L, "name", "Team A"));
+        DepartmentDTO departmentDTO1 = new DepartmentDTO(1L, "Sales", null, List.of("Team A"));
+        DepartmentDTO departmentDTO2 = new DepartmentDTO(2L, "Support", null, List.of());
+        List<Long> ids = List.of(2L, 1L);
+
+        when(departmentRepository.findViewsByIdIn(ids)).thenReturn(List.of(department1, department2));
+        when(teamRepository.findNamesByDepartmentIdIn(List.of(2L, 1L))).thenReturn(List.of(team));
+        when(departmentMapper.departmentViewToDepartmentDTO(department1, List.of("Team A"))).thenReturn(departmentDTO1);
+        when(departmentMapper.departmentViewToDepartmentDTO(department2, List.of())).thenReturn(departmentDTO2);
+
+        // Act
+        List<DepartmentDTO> result = departmentService.getDepartmentsByIds(ids);
+
+        // Assert
+        assertEquals(List.of(departmentDTO2, departmentDTO1), result);
+        verify(teamRepository, times(1)).findNamesByDepartmentIdIn(List.of(2L, 1L));
+    }
 }
@@ -0,0 +1,114 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.projection.HierarchyRow;
+import com.company.management.company_crud.model.projection.ManagerView;
+import com.company.management.company_crud.repository.CompanyRepository;
+import com.company.management.company_crud.repository.ManagerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ExportServiceImplTest {
+
+    private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+    @Mock
+    private CompanyRepository companyRepository;
+
+    @Mock
+    private ManagerRepository managerRepository;
+
+    private ExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        exportService = new ExportServiceImpl(companyRepository, managerRepository, new ObjectMapper());
+        when(managerRepository.streamUnassigned()).thenReturn(Stream.empty());
+    }
+
+    @Test
+    void testExportHierarchy_WritesOneLinePerEntity() throws Exception {
+        // Arrange
+        when(companyRepository.streamHierarchy()).thenReturn(Stream.of(
+                row(1L, "Company A", 10L, "Sales", 100L, "Team 1", 1000L, "Project X", 5L, "Anna", "anna@test.com"),
+                row(1L, "Company A", 10L, "Sales", 101L, "Team 2", null, null, null, null, null),
+                row(1L, "Company A", 11L, "Support", null, null, null, null, null, null, null),
+                row(2L, "Company B", null, null, null, null, null, null, null, null, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exportService.exportHierarchy(out);
+
+        // Assert
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(List.of(
+                "{\"type\":\"company\",\"id\":1,\"name\":\"Company A\"}",
+                "{\"type\":\"department\",\"id\":10,\"companyId\":1,\"name\":\"Sales\"}",
+                "{\"type\":\"team\",\"id\":100,\"departmentId\":10,\"name\":\"Team 1\"}",
+                "{\"type\":\"project\",\"id\":1000,\"teamId\":100,\"name\":\"Project X\"}",
+                "{\"type\":\"manager\",\"id\":5,\"projectId\":1000,\"name\":\"Anna\",\"email\":\"anna@test.com\"}",
+                "{\"type\":\"team\",\"id\":101,\"departmentId\":10,\"name\":\"Team 2\"}",
+                "{\"type\":\"department\",\"id\":11,\"companyId\":1,\"name\":\"Support\"}",
+                "{\"type\":\"company\",\"id\":2,\"name\":\"Company B\"}"), lines);
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("\n"));
+        verify(companyRepository, times(1)).streamHierarchy();
+    }
+
+    @Test
+    void testExportHierarchy_EmptyDatabase() throws Exception {
+        when(companyRepository.streamHierarchy()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportHierarchy(out);
+
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void testExportHierarchy_AppendsUnassignedManagers() throws Exception {
+        when(companyRepository.streamHierarchy()).thenReturn(Stream.of(
+                row(1L, "Company A", null, null, null, null, null, null, null, null, null)));
+        when(managerRepository.streamUnassigned()).thenReturn(Stream.of(
+                projections.createProjection(ManagerView.class, Map.of("id", 7L, "name", "Ben", "email", "ben@test.com"))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportHierarchy(out);
+
+        assertEquals(List.of(
+                "{\"type\":\"company\",\"id\":1,\"name\":\"Company A\"}",
+                "{\"type\":\"manager\",\"id\":7,\"name\":\"Ben\",\"email\":\"ben@test.com\"}"),
+                out.toString(StandardCharsets.UTF_8).lines().toList());
+    }
+
+    private HierarchyRow row(Long companyId, String companyName, Long departmentId, String departmentName,
+                             Long teamId, String teamName, Long projectId, String projectName,
+                             Long managerId, String managerName, String managerEmail) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("companyId", companyId);
+        values.put("companyName", companyName);
+        values.put("departmentId", departmentId);
+        values.put("departmentName", departmentName);
+        values.put("teamId", teamId);
+        values.put("teamName", teamName);
+        values.put("projectId", projectId);
+        values.put("projectName", projectName);
+        values.put("managerId", managerId);
+        values.put("managerName", managerName);
+        values.put("managerEmail", managerEmail);
+        return projections.createProjection(HierarchyRow.class, values);
+    }
+}
@@ -0,0 +1,147 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.exception.ImportFailedException;
+import com.company.management.company_crud.mapper.CompanyMapperImpl;
+import com.company.management.company_crud.mapper.DepartmentMapperImpl;
+import com.company.management.company_crud.mapper.ProjectMapperImpl;
+import com.company.management.company_crud.mapper.TeamMapperImpl;
+import com.company.management.company_crud.model.dao.Project;
+import com.company.management.company_crud.model.dto.ImportResultDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class ImportServiceImplTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        // a batch size of 2 forces several flush-and-clear cycles inside a single document
+        importService = new ImportServiceImpl(entityManager, new TransactionTemplate(transactionManager),
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+                new CompanyMapperImpl(), new DepartmentMapperImpl(), new TeamMapperImpl(), new ProjectMapperImpl(), 2);
+    }
+
+    @Test
+    void testImportCompanies_PersistsNestedDocuments() throws Exception {
+        // Arrange
+        String body = """
+                {"name":"Company A","departments":[{"name":"Sales","teams":[{"name":"Team 1","project":{"name":"Project X","manager":{"name":"Anna","email":"anna@test.com"}}},{"name":"Team 2"}]}]}
+                {"name":"Company B"}
+                """;
+
+        // Act
+        ImportResultDTO result = importService.importCompanies(stream(body));
+
+        // Assert
+        assertEquals(2, result.getCompanies());
+        assertEquals(1, result.getDepartments());
+        assertEquals(2, result.getTeams());
+        assertEquals(1, result.getProjects());
+        assertEquals(1, result.getManagers());
+        assertEquals(7, result.getRows());
+
+        List<Project> projects = entityManager.createQuery("select p from Project p", Project.class).getResultList();
+        assertEquals(1, projects.size());
+        assertEquals("Team 1", projects.get(0).getTeam().getName());
+        assertEquals("Sales", projects.get(0).getTeam().getDepartment().getName());
+        assertEquals("Company A", projects.get(0).getTeam().getDepartment().getCompany().getName());
+        assertEquals("anna@test.com", projects.get(0).getManager().getEmail());
+    }
+
+    @Test
+    void testImportCompanies_Negative_InvalidDocument() {
+        // Arrange
+        String body = """
+                {"name":"Company A"}
+                {"name":"Company B","departments":[{"name":""}]}
+                """;
+
+        // Act & Assert
+        ImportFailedException exception = assertThrows(ImportFailedException.class,
+                () -> importService.importCompanies(stream(body)));
+
+        assertEquals("Invalid document 2: departments[0].name: Name cannot be blank", exception.getMessage());
+        assertEquals(0, exception.getCommitted().getRows());
+    }
+
+    @Test
+    void testImportCompanies_Negative_MalformedDocument() {
+        // Arrange
+        String body = """
+                {"name":"Company A"}
+                {"name":
+                """;
+
+        // Act & Assert
+        ImportFailedException exception = assertThrows(ImportFailedException.class,
+                () -> importService.importCompanies(stream(body)));
+
+        assertTrue(exception.getMessage().startsWith("Malformed document 2"));
+    }
+
+    @Test
+    void testImportCompanies_Negative_ReportsCommittedBatches() {
+        // Arrange: the first document fills a batch of 2 rows, which commits before the second is read
+        String body = """
+                {"name":"Company A","departments":[{"name":"Sales"}]}
+                {"name":""}
+                """;
+
+        // Act & Assert
+        ImportFailedException exception = assertThrows(ImportFailedException.class,
+                () -> importService.importCompanies(stream(body)));
+
+        assertEquals(1, exception.getCommitted().getCompanies());
+        assertEquals(1, exception.getCommitted().getDepartments());
+        assertEquals(2, exception.getCommitted().getRows());
+        assertEquals(1L, entityManager.createQuery("select count(c) from Company c", Long.class).getSingleResult());
+    }
+
+    @Test
+    void testImportCompanies_Negative_CountsManagersTowardsTheBatch() {
+        // Arrange: with the cascaded manager the first document holds 5 rows, which fills a batch of 5
+        importService = new ImportServiceImpl(entityManager, new TransactionTemplate(transactionManager),
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+                new CompanyMapperImpl(), new DepartmentMapperImpl(), new TeamMapperImpl(), new ProjectMapperImpl(), 5);
+        String body = """
+                {"name":"Company A","departments":[{"name":"Sales","teams":[{"name":"Team 1","project":{"name":"Project X","manager":{"name":"Anna","email":"anna@test.com"}}}]}]}
+                {"name":""}
+                """;
+
+        // Act & Assert
+        ImportFailedException exception = assertThrows(ImportFailedException.class,
+                () -> importService.importCompanies(stream(body)));
+
+        assertEquals(1, exception.getCommitted().getManagers());
+        assertEquals(5, exception.getCommitted().getRows());
+    }
+
+    private ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
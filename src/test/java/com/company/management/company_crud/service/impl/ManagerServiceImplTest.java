@@ -1,13 +1,21 @@
 package com.company.management.company_crud.service.impl;
 
+import com.company.management.company_crud.exception.PreconditionFailedException;
 import com.company.management.company_crud.mapper.ManagerMapper;
 import com.company.management.company_crud.model.dao.Manager;
 import com.company.management.company_crud.model.dto.ManagerDTO;
+import com.company.management.company_crud.model.projection.ManagerView;
+import com.company.management.company_crud.model.projection.VersionView;
 import com.company.management.company_crud.repository.ManagerRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,6 +32,19 @@ class ManagerServiceImplTest {
     @Mock
     private ManagerMapper managerMapper;
 
+    @Mock
+    private SubtreeDeleter subtreeDeleter;
+
+    @Mock
+    private NameIndex nameIndex;
+
+    @Mock
+    private ChangeLog changeLog;
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -34,18 +55,16 @@ class ManagerServiceImplTest {
         // Arrange
         Long managerId = 1L;
 
-        Manager manager = new Manager();
-        manager.setId(managerId);
-        manager.setName("Mateusz Strzałko");
-        manager.setEmail("mateusz.strzalko@test.com");
+        ManagerView manager = projections.createProjection(ManagerView.class, Map.of(
+                "id", managerId, "name", "Mateusz Strzałko", "email", "mateusz.strzalko@test.com"));
 
         ManagerDTO managerDTO = new ManagerDTO();
         managerDTO.setId(managerId);
         managerDTO.setName("Mateusz Strzałko");
         managerDTO.setEmail("mateusz.strzalko@test.com");
 
-        when(managerRepository.findById(managerId)).thenReturn(Optional.of(manager));
-        when(managerMapper.managerToManagerDTO(manager)).thenReturn(managerDTO);
+        when(managerRepository.findViewById(managerId)).thenReturn(Optional.of(manager));
+        when(managerMapper.managerViewToManagerDTO(manager)).thenReturn(managerDTO);
 
         // Act
         ManagerDTO result = managerService.getManagerById(managerId);
@@ -56,15 +75,15 @@ class ManagerServiceImplTest {
         assertEquals("Mateusz Strzałko", result.getName());
         assertEquals("mateusz.strzalko@test.com", result.getEmail());
 
-        verify(managerRepository, times(1)).findById(managerId);
-        verify(managerMapper, times(1)).managerToManagerDTO(manager);
+        verify(managerRepository, times(1)).findViewById(managerId);
+        verify(managerMapper, times(1)).managerViewToManagerDTO(manager);
     }
     @Test
     void testGetManagerById_NotFound() {
         // Arrange
         Long managerId = 1L;
 
-        when(managerRepository.findById(managerId)).thenReturn(Optional.empty());
+        when(managerRepository.findViewById(managerId)).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -72,7 +91,7 @@ class ManagerServiceImplTest {
         });
 
         assertEquals("Manager not found", exception.getMessage());
-        verify(managerRepository, times(1)).findById(managerId);
+        verify(managerRepository, times(1)).findViewById(managerId);
         verifyNoInteractions(managerMapper);
     }
     @Test
@@ -142,7 +161,7 @@ class ManagerServiceImplTest {
         when(managerMapper.managerToManagerDTO(updatedManager)).thenReturn(updatedManagerDTO);
 
         // Act
-        ManagerDTO result = managerService.updateManager(managerId, managerDTO);
+        ManagerDTO result = managerService.updateManager(managerId, managerDTO, null);
 
         // Assert
         assertNotNull(result);
@@ -159,11 +178,72 @@ class ManagerServiceImplTest {
         // Arrange
         Long managerId = 1L;
 
+        when(subtreeDeleter.deleteManager(managerId, null)).thenReturn(true);
+
+        // Act
+        managerService.deleteManager(managerId, null);
+
+        // Assert
+        verify(subtreeDeleter, times(1)).deleteManager(managerId, null);
+    }
+
+    @Test
+    void testDeleteManager_IfMatch_PassesVersion() {
+        // Arrange
+        VersionView version = projections.createProjection(VersionView.class, Map.of("version", 4L));
+
+        when(managerRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+        when(subtreeDeleter.deleteManager(1L, 4L)).thenReturn(true);
+
         // Act
-        managerService.deleteManager(managerId);
+        managerService.deleteManager(1L, "4");
 
         // Assert
-        verify(managerRepository, times(1)).deleteById(managerId);
+        verify(subtreeDeleter, times(1)).deleteManager(1L, 4L);
+    }
+
+    @Test
+    void testDeleteManager_IfMatch_Negative_PreconditionFailed() {
+        VersionView version = projections.createProjection(VersionView.class, Map.of("version", 5L));
+
+        when(managerRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+
+        assertThrows(PreconditionFailedException.class, () -> managerService.deleteManager(1L, "4"));
+        verifyNoInteractions(subtreeDeleter);
+    }
+
+    @Test
+    void testPatchManager_OnlyEmail() {
+        // Arrange
+        ManagerServiceImpl service = new ManagerServiceImpl(managerRepository, managerMapper, subtreeDeleter, nameIndex, changeLog, validator);
+
+        when(managerRepository.updateDetails(eq(1L), isNull(), eq("new@test.com"), any())).thenReturn(1);
+
+        // Act
+        service.patchManager(1L, new ManagerDTO(null, null, "new@test.com"));
+
+        // Assert
+        verify(managerRepository, times(1)).updateDetails(eq(1L), isNull(), eq("new@test.com"), any());
+        verify(managerRepository, never()).findById(any());
+    }
+
+    @Test
+    void testPatchManager_InvalidEmail() {
+        ManagerServiceImpl service = new ManagerServiceImpl(managerRepository, managerMapper, subtreeDeleter, nameIndex, changeLog, validator);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.patchManager(1L, new ManagerDTO(null, null, "not-an-email")));
+
+        assertEquals("Email should be valid", exception.getMessage());
+        verifyNoInteractions(managerRepository);
+    }
+
+    @Test
+    void testPatchManager_NothingToUpdate() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> managerService.patchManager(1L, new ManagerDTO()));
+
+        assertEquals("Nothing to update", exception.getMessage());
     }
 
 }
@@ -0,0 +1,120 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.dao.Manager;
+import com.company.management.company_crud.model.dao.Project;
+import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.SearchHitDTO;
+import com.company.management.company_crud.repository.CompanyRepository;
+import com.company.management.company_crud.repository.ManagerRepository;
+import com.company.management.company_crud.repository.ProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction, since the index only takes changes that committed.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({NameIndex.class, NameIndexLoader.class})
+@ImportAutoConfiguration(TaskExecutionAutoConfiguration.class)
+class NameIndexLoaderTest {
+
+    private static final Set<EntityType> ALL = EnumSet.allOf(EntityType.class);
+
+    @Autowired
+    private NameIndex nameIndex;
+
+    @Autowired
+    private NameIndexLoader nameIndexLoader;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ManagerRepository managerRepository;
+
+    private Company company;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        Company newCompany = new Company();
+        newCompany.setName("Umbrella");
+        Department department = new Department();
+        department.setName("Umbrella Labs");
+        department.setCompany(newCompany);
+        newCompany.getDepartments().add(department);
+        Team team = new Team();
+        team.setName("Hive");
+        team.setDepartment(department);
+        department.getTeams().add(team);
+        company = companyRepository.save(newCompany);
+
+        Manager manager = new Manager();
+        manager.setName("Albert Wesker");
+        manager.setEmail("wesker@test.com");
+        Project newProject = new Project();
+        newProject.setName("Umbrella Nemesis");
+        newProject.setTeam(company.getDepartments().get(0).getTeams().get(0));
+        newProject.setManager(manager);
+        project = projectRepository.save(newProject);
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectRepository.deleteAll();
+        companyRepository.deleteAll();
+        managerRepository.deleteAll();
+    }
+
+    @Test
+    void testListener_AppliesCommittedWrites() {
+        assertEquals(3, nameIndex.search("umbrella", ALL, 10).size());
+
+        Company renamed = companyRepository.findById(company.getId()).orElseThrow();
+        renamed.setName("Tricell");
+        companyRepository.save(renamed);
+
+        assertEquals(List.of(new SearchHitDTO(EntityType.COMPANY, company.getId(), "Tricell")),
+                nameIndex.search("tricell", ALL, 10));
+        assertEquals(2, nameIndex.search("umbrella", ALL, 10).size());
+    }
+
+    @Test
+    void testRebuild_LoadsEveryTypeWithItsLinks() {
+        nameIndex.clear();
+
+        nameIndexLoader.rebuild().join();
+
+        assertEquals(List.of(new SearchHitDTO(EntityType.MANAGER, project.getManager().getId(), "Albert Wesker")),
+                nameIndex.search("wesker", ALL, 10));
+        assertEquals(1, nameIndex.search("hive", ALL, 10).size());
+        nameIndex.remove(EntityType.TEAM, project.getTeam().getId());
+        assertTrue(nameIndex.search("wesker", ALL, 10).isEmpty());
+        assertEquals(2, nameIndex.search("umbrella", ALL, 10).size());
+    }
+}
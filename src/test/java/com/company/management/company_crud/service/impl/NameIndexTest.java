@@ -0,0 +1,75 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.SearchHitDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameIndexTest {
+
+    private static final Set<EntityType> ALL = EnumSet.allOf(EntityType.class);
+
+    private NameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NameIndex();
+        index.put(EntityType.COMPANY, 1L, "Acme Corporation", null);
+        index.put(EntityType.DEPARTMENT, 2L, "Acme Research", 1L);
+        index.put(EntityType.TEAM, 3L, "Platform", 2L);
+        index.put(EntityType.PROJECT, 4L, "Data Platform Migration", 3L);
+        index.put(EntityType.MANAGER, 5L, "Anna Platt", null);
+        index.linkManager(4L, 5L);
+        index.put(EntityType.COMPANY, 6L, "Globex", null);
+    }
+
+    @Test
+    void testSearch_SubstringIgnoresCaseAndRanksPrefixesFirst() {
+        List<SearchHitDTO> hits = index.search("PLAT", ALL, 10);
+
+        assertEquals(List.of(
+                new SearchHitDTO(EntityType.TEAM, 3L, "Platform"),
+                new SearchHitDTO(EntityType.MANAGER, 5L, "Anna Platt"),
+                new SearchHitDTO(EntityType.PROJECT, 4L, "Data Platform Migration")), hits);
+    }
+
+    @Test
+    void testSearch_ShortQueryMatchesPrefixesOnly() {
+        assertEquals(List.of(new SearchHitDTO(EntityType.COMPANY, 6L, "Globex")), index.search("g", ALL, 10));
+        assertEquals(2, index.search("ac", ALL, 10).size());
+        assertTrue(index.search("ex", ALL, 10).isEmpty());
+    }
+
+    @Test
+    void testSearch_FiltersTypesAndLimits() {
+        assertEquals(List.of(new SearchHitDTO(EntityType.DEPARTMENT, 2L, "Acme Research")),
+                index.search("acme", EnumSet.of(EntityType.DEPARTMENT, EntityType.TEAM), 10));
+        assertEquals(1, index.search("acme", ALL, 1).size());
+    }
+
+    @Test
+    void testRename_ReplacesOldGrams() {
+        index.rename(EntityType.COMPANY, 6L, "Initech");
+        index.rename(EntityType.COMPANY, 99L, "Unknown");
+
+        assertTrue(index.search("globex", ALL, 10).isEmpty());
+        assertEquals(1, index.search("itech", ALL, 10).size());
+        assertTrue(index.search("unknown", ALL, 10).isEmpty());
+    }
+
+    @Test
+    void testRemove_DropsEverythingBelow() {
+        index.remove(EntityType.DEPARTMENT, 2L);
+
+        assertEquals(List.of(new SearchHitDTO(EntityType.COMPANY, 1L, "Acme Corporation")),
+                index.search("acme", ALL, 10));
+        assertTrue(index.search("plat", ALL, 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+}
@@ -1,15 +1,25 @@
 package com.company.management.company_crud.service.impl;
 
+import com.company.management.company_crud.exception.PreconditionFailedException;
 import com.company.management.company_crud.mapper.ProjectMapper;
+import com.company.management.company_crud.model.dao.Manager;
 import com.company.management.company_crud.model.dao.Project;
 import com.company.management.company_crud.model.dao.Team;
 import com.company.management.company_crud.model.dto.ProjectDTO;
+import com.company.management.company_crud.model.projection.ProjectView;
+import com.company.management.company_crud.model.projection.VersionView;
 import com.company.management.company_crud.repository.ProjectRepository;
 import com.company.management.company_crud.repository.TeamRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,6 +39,20 @@ class ProjectServiceImplTest {
     @Mock
     private ProjectMapper projectMapper;
 
+    @Mock
+    private SubtreeDeleter subtreeDeleter;
+
+    @Mock
+    private NameIndex nameIndex;
+
+    @Mock
+    private ChangeLog changeLog;
+
+    @Spy
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -39,16 +63,15 @@ class ProjectServiceImplTest {
         // Arrange
         Long projectId = 1L;
 
-        Project project = new Project();
-        project.setId(projectId);
-        project.setName("Project A");
+        ProjectView project = projections.createProjection(ProjectView.class,
+                Map.of("id", projectId, "name", "Project A", "teamName", "Team A"));
 
         ProjectDTO projectDTO = new ProjectDTO();
         projectDTO.setId(projectId);
         projectDTO.setName("Project A");
 
-        when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
-        when(projectMapper.projectToProjectDTO(project)).thenReturn(projectDTO);
+        when(projectRepository.findViewById(projectId)).thenReturn(Optional.of(project));
+        when(projectMapper.projectViewToProjectDTO(project)).thenReturn(projectDTO);
 
         // Act
         ProjectDTO result = projectService.getProjectById(projectId);
@@ -58,15 +81,15 @@ class ProjectServiceImplTest {
         assertEquals(projectId, result.getId());
         assertEquals("Project A", result.getName());
 
-        verify(projectRepository, times(1)).findById(projectId);
-        verify(projectMapper, times(1)).projectToProjectDTO(project);
+        verify(projectRepository, times(1)).findViewById(projectId);
+        verify(projectMapper, times(1)).projectViewToProjectDTO(project);
     }
     @Test
     void testGetProjectById_NotFound() {
         // Arrange
         Long projectId = 1L;
 
-        when(projectRepository.findById(projectId)).thenReturn(Optional.empty());
+        when(projectRepository.findViewById(projectId)).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -74,7 +97,7 @@ class ProjectServiceImplTest {
         });
 
         assertEquals("Project not found", exception.getMessage());
-        verify(projectRepository, times(1)).findById(projectId);
+        verify(projectRepository, times(1)).findViewById(projectId);
         verifyNoInteractions(projectMapper);
     }
     @Test
@@ -161,7 +184,7 @@ class ProjectServiceImplTest {
         when(projectMapper.projectToProjectDTO(updatedProject)).thenReturn(updatedProjectDTO);
 
         // Act
-        ProjectDTO result = projectService.updateProject(projectId, projectDTO);
+        ProjectDTO result = projectService.updateProject(projectId, projectDTO, null);
 
         // Assert
         assertNotNull(result);
@@ -177,11 +200,57 @@ class ProjectServiceImplTest {
         // Arrange
         Long projectId = 1L;
 
+        when(subtreeDeleter.deleteProject(projectId, null)).thenReturn(true);
+
         // Act
-        projectService.deleteProject(projectId);
+        projectService.deleteProject(projectId, null);
 
         // Assert
-        verify(projectRepository, times(1)).deleteById(projectId);
+        verify(subtreeDeleter, times(1)).deleteProject(projectId, null);
+    }
+
+    @Test
+    void testUpdateProject_IfMatch_Negative_PreconditionFailed() {
+        // Arrange
+        Team team = new Team();
+        team.setVersion(3L);
+        Manager manager = new Manager();
+        manager.setVersion(1L);
+
+        Project existingProject = new Project();
+        existingProject.setId(1L);
+        existingProject.setVersion(2L);
+        existingProject.setTeam(team);
+        existingProject.setManager(manager);
+
+        ProjectDTO projectDTO = new ProjectDTO();
+        projectDTO.setName("Updated Project");
+
+        when(projectRepository.findById(1L)).thenReturn(Optional.of(existingProject));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () -> projectService.updateProject(1L, projectDTO, "2-3"));
+        verify(projectRepository, never()).save(any());
+    }
+
+    @Test
+    void testDeleteProject_IfMatch_Negative_Conflict() {
+        VersionView version = projections.createProjection(VersionView.class, Map.of(
+                "version", 2L, "parentVersion", 4L));
+
+        when(projectRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+        when(subtreeDeleter.deleteProject(1L, 2L)).thenReturn(false);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> projectService.deleteProject(1L, "2-4"));
+    }
+
+    @Test
+    void testDeleteProject_NotFound() {
+        when(subtreeDeleter.deleteProject(1L, null)).thenReturn(false);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> projectService.deleteProject(1L, null));
+
+        assertEquals("Project not found", exception.getMessage());
     }
 
 }
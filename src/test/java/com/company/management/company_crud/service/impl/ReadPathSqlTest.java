@@ -0,0 +1,132 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.mapper.CompanyMapperImpl;
+import com.company.management.company_crud.mapper.DepartmentMapperImpl;
+import com.company.management.company_crud.mapper.TeamMapperImpl;
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.model.dto.CompanyDTO;
+import com.company.management.company_crud.model.dto.DepartmentDTO;
+import com.company.management.company_crud.model.dto.TeamDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies the SQL issued by the list endpoints: only the requested parent's children are loaded,
+ * the child name lists of a whole page are filled by one extra query rather than one per row, and
+ * rows are read as projections without hydrating managed entities.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({CompanyServiceImpl.class, DepartmentServiceImpl.class, TeamServiceImpl.class, SubtreeDeleter.class,
+        NameIndex.class, RollupCounters.class, ChangeLog.class, CompanyMapperImpl.class, DepartmentMapperImpl.class,
+        TeamMapperImpl.class, LocalValidatorFactoryBean.class, ChildrenVersions.class})
+class ReadPathSqlTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CompanyServiceImpl companyService;
+
+    @Autowired
+    private DepartmentServiceImpl departmentService;
+
+    @Autowired
+    private TeamServiceImpl teamService;
+
+    private Statistics statistics;
+    private Company target;
+    private Department targetDepartment;
+
+    @BeforeEach
+    void setUp() {
+        target = persistCompany("Target", 3, 2);
+        persistCompany("Other", 20, 5);
+        targetDepartment = target.getDepartments().get(0);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testGetAllCompanies_FillsDepartmentNamesWithOneQueryPerPage() {
+        for (int i = 0; i < 10; i++) {
+            persistCompany("Filler " + i, 4, 0);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<CompanyDTO> result = companyService.getAllCompanies(0L, 100).getItems();
+
+        assertEquals(12, result.size());
+        assertEquals(List.of("Target Department 0", "Target Department 1", "Target Department 2"),
+                result.get(0).getDepartmentNames());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testGetDepartmentsByCompanyId_LoadsOnlyThatCompanysDepartments() {
+        List<DepartmentDTO> result = departmentService.getDepartmentsByCompanyId(target.getId(), 0L, 100).getItems();
+
+        assertEquals(3, result.size());
+        assertEquals(2, result.get(0).getTeamNames().size());
+        assertEquals(2, statistics.getQueryExecutionCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testGetTeamsByDepartmentId_LoadsOnlyThatDepartmentsTeams() {
+        List<TeamDTO> result = teamService.getTeamsByDepartmentId(targetDepartment.getId(), 0L, 100).getItems();
+
+        assertEquals(2, result.size());
+        assertEquals(1, statistics.getQueryExecutionCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private Company persistCompany(String name, int departments, int teamsPerDepartment) {
+        Company company = new Company();
+        company.setName(name);
+        for (int d = 0; d < departments; d++) {
+            Department department = new Department();
+            department.setName(name + " Department " + d);
+            department.setCompany(company);
+            for (int t = 0; t < teamsPerDepartment; t++) {
+                Team team = new Team();
+                team.setName(name + " Team " + d + "." + t);
+                team.setDepartment(department);
+                department.getTeams().add(team);
+            }
+            company.getDepartments().add(department);
+        }
+        return entityManager.persist(company);
+    }
+}
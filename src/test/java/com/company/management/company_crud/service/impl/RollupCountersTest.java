@@ -0,0 +1,214 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.CompanyStats;
+import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.dao.DepartmentStats;
+import com.company.management.company_crud.model.dao.Manager;
+import com.company.management.company_crud.model.dao.Project;
+import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.repository.CompanyRepository;
+import com.company.management.company_crud.repository.CompanyStatsRepository;
+import com.company.management.company_crud.repository.DepartmentRepository;
+import com.company.management.company_crud.repository.DepartmentStatsRepository;
+import com.company.management.company_crud.repository.ManagerRepository;
+import com.company.management.company_crud.repository.ProjectRepository;
+import com.company.management.company_crud.repository.TeamRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction, since the counters are written when a transaction commits.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RollupCounters.class, ChangeLog.class, SubtreeDeleter.class, NameIndex.class, ChildrenVersions.class})
+class RollupCountersTest {
+
+    @Autowired
+    private RollupCounters rollupCounters;
+
+    @Autowired
+    private SubtreeDeleter subtreeDeleter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ManagerRepository managerRepository;
+
+    @Autowired
+    private CompanyStatsRepository companyStatsRepository;
+
+    @Autowired
+    private DepartmentStatsRepository departmentStatsRepository;
+
+    private Long companyId;
+    private Department sales;
+    private Department support;
+    private Team staffed;
+
+    @BeforeEach
+    void setUp() {
+        Company company = new Company();
+        company.setName("Company A");
+        for (String name : new String[]{"Sales", "Support"}) {
+            Department department = new Department();
+            department.setName(name);
+            department.setCompany(company);
+            company.getDepartments().add(department);
+            for (int t = 1; t <= 2; t++) {
+                Team team = new Team();
+                team.setName(name + " Team " + t);
+                team.setDepartment(department);
+                department.getTeams().add(team);
+            }
+        }
+        company = companyRepository.save(company);
+        companyId = company.getId();
+        sales = company.getDepartments().get(0);
+        support = company.getDepartments().get(1);
+        staffed = sales.getTeams().get(0);
+
+        Manager manager = new Manager();
+        manager.setName("Anna");
+        manager.setEmail("anna@test.com");
+        projectRepository.save(project("Project X", staffed, manager));
+        projectRepository.save(project("Project Y", sales.getTeams().get(1), null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectRepository.deleteAll();
+        companyRepository.deleteAll();
+        managerRepository.deleteAll();
+    }
+
+    @Test
+    void testInserts_CountRowsOfEachLevel() {
+        assertEquals(new CompanyStats(companyId, 2, 4, 2, 1), companyStats());
+        assertEquals(new DepartmentStats(sales.getId(), companyId, 2, 2, 1), departmentStats(sales));
+        assertEquals(new DepartmentStats(support.getId(), companyId, 2, 0, 0), departmentStats(support));
+    }
+
+    @Test
+    void testSubtreeDeletes_TakeOffWhatTheyRemoved() {
+        inTransaction(() -> subtreeDeleter.deleteTeam(staffed.getId(), null));
+
+        assertEquals(new CompanyStats(companyId, 2, 3, 1, 0), companyStats());
+        assertEquals(new DepartmentStats(sales.getId(), companyId, 1, 1, 0), departmentStats(sales));
+
+        inTransaction(() -> subtreeDeleter.deleteDepartment(support.getId(), null, null));
+
+        assertEquals(new CompanyStats(companyId, 1, 1, 1, 0), companyStats());
+        assertFalse(departmentStatsRepository.existsById(support.getId()));
+
+        inTransaction(() -> subtreeDeleter.deleteCompany(companyId, null, null));
+
+        assertEquals(0, companyStatsRepository.count());
+        assertEquals(0, departmentStatsRepository.count());
+    }
+
+    @Test
+    void testCreateAndDeleteInOneTransaction_CancelOut() {
+        inTransaction(() -> {
+            Department department = new Department();
+            department.setName("Temporary");
+            department.setCompany(companyRepository.findById(companyId).orElseThrow());
+            Team team = new Team();
+            team.setName("Temporary Team");
+            team.setDepartment(department);
+            department.getTeams().add(team);
+            return subtreeDeleter.deleteDepartment(departmentRepository.save(department).getId(), null, null);
+        });
+
+        assertEquals(new CompanyStats(companyId, 2, 4, 2, 1), companyStats());
+        assertEquals(2, departmentStatsRepository.count());
+    }
+
+    @Test
+    void testRollback_LeavesCountersUnchanged() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Team team = new Team();
+            team.setName("Support Team 3");
+            team.setDepartment(departmentRepository.findById(support.getId()).orElseThrow());
+            teamRepository.save(team);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(new CompanyStats(companyId, 2, 4, 2, 1), companyStats());
+        assertEquals(new DepartmentStats(support.getId(), companyId, 2, 0, 0), departmentStats(support));
+    }
+
+    @Test
+    void testEntityDeletes_DropCounters() {
+        projectRepository.deleteAll();
+
+        assertEquals(new CompanyStats(companyId, 2, 4, 0, 0), companyStats());
+
+        companyRepository.deleteAll();
+
+        assertEquals(0, companyStatsRepository.count());
+        assertEquals(0, departmentStatsRepository.count());
+    }
+
+    @Test
+    void testBackfill_CountsCompaniesWithoutCounters() {
+        companyStatsRepository.deleteAllInBatch();
+        departmentStatsRepository.deleteAllInBatch();
+
+        rollupCounters.backfill();
+
+        assertEquals(new CompanyStats(companyId, 2, 4, 2, 1), companyStats());
+        assertEquals(new DepartmentStats(sales.getId(), companyId, 2, 2, 1), departmentStats(sales));
+        assertEquals(new DepartmentStats(support.getId(), companyId, 2, 0, 0), departmentStats(support));
+    }
+
+    private CompanyStats companyStats() {
+        return companyStatsRepository.findById(companyId).orElseThrow();
+    }
+
+    private DepartmentStats departmentStats(Department department) {
+        return departmentStatsRepository.findById(department.getId()).orElseThrow();
+    }
+
+    private void inTransaction(Supplier<Boolean> action) {
+        assertEquals(Boolean.TRUE, new TransactionTemplate(transactionManager).execute(status -> action.get()));
+    }
+
+    private static Project project(String name, Team team, Manager manager) {
+        Project project = new Project();
+        project.setName(name);
+        project.setTeam(team);
+        project.setManager(manager);
+        return project;
+    }
+}
@@ -0,0 +1,204 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.mapper.CompanyMapperImpl;
+import com.company.management.company_crud.mapper.DepartmentMapperImpl;
+import com.company.management.company_crud.mapper.ManagerMapperImpl;
+import com.company.management.company_crud.mapper.TeamMapperImpl;
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.dao.Manager;
+import com.company.management.company_crud.model.dto.CompanyDTO;
+import com.company.management.company_crud.model.dto.DepartmentDTO;
+import com.company.management.company_crud.model.dto.TeamDTO;
+import com.company.management.company_crud.repository.CompanyRepository;
+import com.company.management.company_crud.repository.ManagerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that repeated reads are answered from the second-level and query caches, and that the
+ * write paths evict what they change. Runs without a test transaction so every call commits and
+ * uses its own session, as it would behind the controllers.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CompanyServiceImpl.class, DepartmentServiceImpl.class, ManagerServiceImpl.class, TeamServiceImpl.class,
+        SubtreeDeleter.class, NameIndex.class, RollupCounters.class, ChangeLog.class, ChildrenVersions.class,
+        CompanyMapperImpl.class, DepartmentMapperImpl.class, ManagerMapperImpl.class, TeamMapperImpl.class,
+        LocalValidatorFactoryBean.class})
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ManagerRepository managerRepository;
+
+    @Autowired
+    private CompanyServiceImpl companyService;
+
+    @Autowired
+    private DepartmentServiceImpl departmentService;
+
+    @Autowired
+    private ManagerServiceImpl managerService;
+
+    @Autowired
+    private TeamServiceImpl teamService;
+
+    private Statistics statistics;
+    private TransactionTemplate transactionTemplate;
+    private Company company;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Company newCompany = new Company();
+        newCompany.setName("Cached");
+        for (String name : List.of("Sales", "Support")) {
+            Department department = new Department();
+            department.setName(name);
+            department.setCompany(newCompany);
+            newCompany.getDepartments().add(department);
+        }
+        company = companyRepository.save(newCompany);
+    }
+
+    @AfterEach
+    void tearDown() {
+        companyRepository.deleteAll();
+        managerRepository.deleteAll();
+    }
+
+    @Test
+    void testGetCompanyById_RepeatedReadIssuesNoSql() {
+        companyService.getCompanyById(company.getId());
+        statistics.clear();
+
+        CompanyDTO result = companyService.getCompanyById(company.getId());
+
+        assertEquals(List.of("Sales", "Support"), result.getDepartmentNames());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void testGetManagerById_RepeatedReadIssuesNoSql() {
+        Manager manager = new Manager();
+        manager.setName("Anna");
+        manager.setEmail("anna@test.com");
+        Long managerId = managerRepository.save(manager).getId();
+        managerService.getManagerById(managerId);
+        statistics.clear();
+
+        assertEquals("anna@test.com", managerService.getManagerById(managerId).getEmail());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindById_ServedFromEntityAndCollectionCache() {
+        loadDepartmentNames();
+        statistics.clear();
+
+        List<String> names = loadDepartmentNames();
+
+        assertEquals(List.of("Sales", "Support"), names);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        // the company, its departments collection and both departments
+        assertEquals(4, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+    }
+
+    @Test
+    void testUpdateCompany_EvictsCachedReads() {
+        companyService.getCompanyById(company.getId());
+        loadDepartmentNames();
+
+        CompanyDTO update = new CompanyDTO();
+        update.setName("Renamed");
+        companyService.updateCompany(company.getId(), update, null);
+
+        assertEquals("Renamed", companyService.getCompanyById(company.getId()).getName());
+        assertEquals("Renamed", transactionTemplate.execute(status ->
+                companyRepository.findById(company.getId()).orElseThrow().getName()));
+    }
+
+    @Test
+    void testDeleteDepartment_EvictsCompanyDepartments() {
+        companyService.getCompanyById(company.getId());
+        loadDepartmentNames();
+        String entityTag = companyService.getCompanyVersion(company.getId()).getEntityTag();
+
+        departmentService.deleteDepartment(company.getDepartments().get(0).getId(), null);
+
+        assertEquals(List.of("Support"), companyService.getCompanyById(company.getId()).getDepartmentNames());
+        assertEquals(List.of("Support"), loadDepartmentNames());
+        assertNotEquals(entityTag, companyService.getCompanyVersion(company.getId()).getEntityTag());
+    }
+
+    @Test
+    void testPatchDepartment_EvictsCachedReadsWithoutLoading() {
+        Long departmentId = company.getDepartments().get(0).getId();
+        companyService.getCompanyById(company.getId());
+        loadDepartmentNames();
+        String entityTag = companyService.getCompanyVersion(company.getId()).getEntityTag();
+        statistics.clear();
+
+        departmentService.patchDepartment(departmentId, new DepartmentDTO(null, "Renamed", null, null));
+
+        // the department's name, nothing loaded first; the company's children version moves over JDBC
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(List.of("Renamed", "Support"), companyService.getCompanyById(company.getId()).getDepartmentNames());
+        assertEquals(List.of("Renamed", "Support"), loadDepartmentNames());
+        assertNotEquals(entityTag, companyService.getCompanyVersion(company.getId()).getEntityTag());
+    }
+
+    @Test
+    void testCreateTeam_KeepsOtherDepartmentsCached() {
+        Long salesId = company.getDepartments().get(0).getId();
+        loadDepartmentNames();
+        String entityTag = departmentService.getDepartmentVersion(salesId).getEntityTag();
+
+        teamService.createTeam(salesId, new TeamDTO(null, "Team A", null, null));
+        statistics.clear();
+
+        assertEquals(List.of("Sales", "Support"), loadDepartmentNames());
+        // the company, its departments collection and Support; only Sales, whose children version moved, is reloaded
+        assertEquals(3, statistics.getSecondLevelCacheHitCount());
+        assertEquals(1, statistics.getSecondLevelCacheMissCount());
+        assertNotEquals(entityTag, departmentService.getDepartmentVersion(salesId).getEntityTag());
+    }
+
+    private List<String> loadDepartmentNames() {
+        return transactionTemplate.execute(status -> companyRepository.findById(company.getId()).orElseThrow()
+                .getDepartments().stream().map(Department::getName).toList());
+    }
+}
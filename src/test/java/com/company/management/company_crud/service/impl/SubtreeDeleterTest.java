@@ -0,0 +1,262 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.dao.Manager;
+import com.company.management.company_crud.model.dao.Project;
+import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.repository.CompanyRepository;
+import com.company.management.company_crud.repository.DepartmentRepository;
+import com.company.management.company_crud.repository.ManagerRepository;
+import com.company.management.company_crud.repository.ProjectRepository;
+import com.company.management.company_crud.repository.TeamRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.FlushModeType;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction so that every delete commits and the assertions read what is
+ * left in the database.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RollupCounters.class, ChangeLog.class, ChildrenVersions.class})
+class SubtreeDeleterTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ManagerRepository managerRepository;
+
+    @Autowired
+    private RollupCounters rollupCounters;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private ChildrenVersions childrenVersions;
+
+    private SubtreeDeleter subtreeDeleter;
+    private NameIndex nameIndex;
+    private Statistics statistics;
+    private Company company;
+    private Company otherCompany;
+    private Manager unassigned;
+
+    @BeforeEach
+    void setUp() {
+        nameIndex = new NameIndex();
+        subtreeDeleter = new SubtreeDeleter(entityManager, companyRepository, departmentRepository, teamRepository,
+                projectRepository, managerRepository, nameIndex, rollupCounters, changeLog, childrenVersions);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        company = companyRepository.save(company("Company A", 2, 3));
+        otherCompany = companyRepository.save(company("Company B", 1, 2));
+        for (Company saved : List.of(company, otherCompany)) {
+            for (Department department : saved.getDepartments()) {
+                for (Team team : department.getTeams()) {
+                    Manager manager = new Manager();
+                    manager.setName("Manager of " + team.getName());
+                    manager.setEmail(team.getId() + "@test.com");
+                    Project project = new Project();
+                    project.setName("Project of " + team.getName());
+                    project.setTeam(team);
+                    project.setManager(manager);
+                    projectRepository.save(project);
+                }
+            }
+        }
+        unassigned = new Manager();
+        unassigned.setName("Unassigned");
+        unassigned.setEmail("unassigned@test.com");
+        unassigned = managerRepository.save(unassigned);
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectRepository.deleteAll();
+        companyRepository.deleteAll();
+        managerRepository.deleteAll();
+    }
+
+    @Test
+    void testDeleteCompany_RemovesSubtreeWithSetBasedStatements() {
+        statistics.clear();
+
+        assertTrue(inTransaction(() -> subtreeDeleter.deleteCompany(company.getId(), null, null)));
+
+        // the manager id query, four deletes down the tree and one for the managers
+        assertEquals(6, statistics.getPrepareStatementCount());
+        assertFalse(companyRepository.existsById(company.getId()));
+        assertEquals(1, departmentRepository.count());
+        assertEquals(2, teamRepository.count());
+        assertEquals(2, projectRepository.count());
+        assertEquals(3, managerRepository.count());
+        assertTrue(managerRepository.existsById(unassigned.getId()));
+    }
+
+    @Test
+    void testDeleteCompany_DropsSubtreeFromNameIndexOnCommit() {
+        for (Project project : projectRepository.findAll()) {
+            Team team = project.getTeam();
+            Department department = team.getDepartment();
+            nameIndex.put(EntityType.COMPANY, department.getCompany().getId(), department.getCompany().getName(), null);
+            nameIndex.put(EntityType.DEPARTMENT, department.getId(), department.getName(), department.getCompany().getId());
+            nameIndex.put(EntityType.TEAM, team.getId(), team.getName(), department.getId());
+            nameIndex.put(EntityType.PROJECT, project.getId(), project.getName(), team.getId());
+            nameIndex.put(EntityType.MANAGER, project.getManager().getId(), project.getManager().getName(), project.getId());
+        }
+        int indexed = nameIndex.size();
+
+        inTransaction(() -> subtreeDeleter.deleteCompany(company.getId(), null, null));
+
+        // the company, 2 departments, 6 teams, 6 projects and their 6 managers
+        assertEquals(indexed - 21, nameIndex.size());
+        assertTrue(nameIndex.search("company a", EnumSet.allOf(EntityType.class), 100).isEmpty());
+        assertFalse(nameIndex.search("company b", EnumSet.allOf(EntityType.class), 100).isEmpty());
+    }
+
+    @Test
+    void testDeleteDepartment_KeepsSiblings() {
+        Department department = company.getDepartments().get(0);
+        Company before = companyRepository.findById(company.getId()).orElseThrow();
+
+        assertTrue(inTransaction(() -> subtreeDeleter.deleteDepartment(department.getId(), null, null)));
+
+        assertFalse(departmentRepository.existsById(department.getId()));
+        Company after = companyRepository.findById(company.getId()).orElseThrow();
+        assertEquals(before.getVersion(), after.getVersion());
+        assertEquals(before.getChildrenVersion() + 1, after.getChildrenVersion());
+        assertEquals(2, departmentRepository.count());
+        assertEquals(5, teamRepository.count());
+        assertEquals(5, projectRepository.count());
+        assertEquals(6, managerRepository.count());
+    }
+
+    @Test
+    void testDeleteDepartment_Negative_ChildrenChangedSinceTagWasRead() {
+        Department department = departmentRepository.findById(company.getDepartments().get(0).getId()).orElseThrow();
+        inTransaction(() -> {
+            childrenVersions.moveDepartment(department.getId(), Instant.now());
+            return true;
+        });
+
+        assertFalse(inTransaction(() -> subtreeDeleter.deleteDepartment(department.getId(), department.getVersion(),
+                department.getChildrenVersion())));
+
+        assertTrue(departmentRepository.existsById(department.getId()));
+    }
+
+    @Test
+    void testDeleteTeam_FlushesPendingRenameFirst() {
+        Team team = company.getDepartments().get(0).getTeams().get(0);
+
+        inTransaction(() -> {
+            entityManager.setFlushMode(FlushModeType.COMMIT);
+            Department department = entityManager.find(Department.class, team.getDepartment().getId());
+            department.setName("Renamed");
+            return subtreeDeleter.deleteTeam(team.getId(), null);
+        });
+
+        assertFalse(teamRepository.existsById(team.getId()));
+        assertEquals(7, teamRepository.count());
+        assertEquals(7, projectRepository.count());
+        assertEquals("Renamed", departmentRepository.findById(team.getDepartment().getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void testDeleteProject_RemovesItsManager() {
+        Project project = projectRepository.findAll().get(0);
+
+        assertTrue(inTransaction(() -> subtreeDeleter.deleteProject(project.getId(), null)));
+
+        assertFalse(projectRepository.existsById(project.getId()));
+        assertFalse(managerRepository.existsById(project.getManager().getId()));
+        assertEquals(8, managerRepository.count());
+    }
+
+    @Test
+    void testDelete_Negative_NotFound() {
+        assertFalse(inTransaction(() -> subtreeDeleter.deleteTeam(-1L, null)));
+        assertFalse(inTransaction(() -> subtreeDeleter.deleteManager(-1L, null)));
+        assertEquals(8, teamRepository.count());
+    }
+
+    @Test
+    void testDeleteTeam_WithVersion_KeepsChangedRow() {
+        Team team = company.getDepartments().get(0).getTeams().get(0);
+        long version = teamRepository.findById(team.getId()).orElseThrow().getVersion();
+
+        assertFalse(inTransaction(() -> subtreeDeleter.deleteTeam(team.getId(), version + 1)));
+        assertTrue(teamRepository.existsById(team.getId()));
+
+        assertTrue(inTransaction(() -> subtreeDeleter.deleteTeam(team.getId(), version)));
+        assertFalse(teamRepository.existsById(team.getId()));
+    }
+
+    private boolean inTransaction(Supplier<Boolean> action) {
+        return Boolean.TRUE.equals(new TransactionTemplate(transactionManager).execute(status -> action.get()));
+    }
+
+    private static Company company(String name, int departments, int teams) {
+        Company company = new Company();
+        company.setName(name);
+        for (int d = 1; d <= departments; d++) {
+            Department department = new Department();
+            department.setName(name + " Department " + d);
+            department.setCompany(company);
+            company.getDepartments().add(department);
+            for (int t = 1; t <= teams; t++) {
+                Team team = new Team();
+                team.setName(department.getName() + " Team " + t);
+                team.setDepartment(department);
+                department.getTeams().add(team);
+            }
+        }
+        return company;
+    }
+}
@@ -3,16 +3,28 @@ package com.company.management.company_crud.service.impl;
 import com.company.management.company_crud.mapper.TeamMapper;
 import com.company.management.company_crud.model.dao.Department;
 import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.model.dto.KeysetPage;
 import com.company.management.company_crud.model.dto.TeamDTO;
+import com.company.management.company_crud.model.dto.VersionDTO;
+import com.company.management.company_crud.model.projection.TeamView;
+import com.company.management.company_crud.model.projection.VersionView;
 import com.company.management.company_crud.repository.DepartmentRepository;
 import com.company.management.company_crud.repository.TeamRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +44,23 @@ class TeamServiceImplTest {
     @Mock
     private TeamMapper teamMapper;
 
+    @Mock
+    private SubtreeDeleter subtreeDeleter;
+
+    @Mock
+    private NameIndex nameIndex;
+
+    @Mock
+    private ChangeLog changeLog;
+
+    @Mock
+    private ChildrenVersions childrenVersions;
+
+    @Spy
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -42,20 +71,8 @@ class TeamServiceImplTest {
         // Arrange
         Long departmentId = 1L;
 
-        Department department = new Department();
-        department.setId(departmentId);
-
-        Team team1 = new Team();
-        team1.setId(1L);
-        team1.setName("Team A");
-        team1.setDepartment(department);
-
-        Team team2 = new Team();
-        team2.setId(2L);
-        team2.setName("Team B");
-        team2.setDepartment(department);
-
-        List<Team> teams = List.of(team1, team2);
+        TeamView team1 = projections.createProjection(TeamView.class, Map.of("id", 1L, "name", "Team A"));
+        TeamView team2 = projections.createProjection(TeamView.class, Map.of("id", 2L, "name", "Team B"));
 
         TeamDTO teamDTO1 = new TeamDTO();
         teamDTO1.setId(1L);
@@ -65,22 +82,23 @@ class TeamServiceImplTest {
         teamDTO2.setId(2L);
         teamDTO2.setName("Team B");
 
-        when(teamRepository.findAll()).thenReturn(teams);
-        when(teamMapper.teamToTeamDTO(team1)).thenReturn(teamDTO1);
-        when(teamMapper.teamToTeamDTO(team2)).thenReturn(teamDTO2);
+        when(teamRepository.findViewsByDepartmentId(departmentId, 0L, Limit.of(11))).thenReturn(List.of(team1, team2));
+        when(teamMapper.teamViewToTeamDTO(team1)).thenReturn(teamDTO1);
+        when(teamMapper.teamViewToTeamDTO(team2)).thenReturn(teamDTO2);
 
         // Act
-        List<TeamDTO> result = teamService.getTeamsByDepartmentId(departmentId);
+        KeysetPage<TeamDTO> result = teamService.getTeamsByDepartmentId(departmentId, 0L, 10);
 
         // Assert
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("Team A", result.get(0).getName());
-        assertEquals("Team B", result.get(1).getName());
-
-        verify(teamRepository, times(1)).findAll();
-        verify(teamMapper, times(1)).teamToTeamDTO(team1);
-        verify(teamMapper, times(1)).teamToTeamDTO(team2);
+        assertEquals(2, result.getItems().size());
+        assertEquals("Team A", result.getItems().get(0).getName());
+        assertEquals("Team B", result.getItems().get(1).getName());
+        assertFalse(result.hasNext());
+
+        verify(teamRepository, times(1)).findViewsByDepartmentId(departmentId, 0L, Limit.of(11));
+        verify(teamMapper, times(1)).teamViewToTeamDTO(team1);
+        verify(teamMapper, times(1)).teamViewToTeamDTO(team2);
     }
 
     @Test
@@ -88,16 +106,14 @@ class TeamServiceImplTest {
         // Arrange
         Long teamId = 1L;
 
-        Team team = new Team();
-        team.setId(teamId);
-        team.setName("Team A");
+        TeamView team = projections.createProjection(TeamView.class, Map.of("id", teamId, "name", "Team A"));
 
         TeamDTO teamDTO = new TeamDTO();
         teamDTO.setId(teamId);
         teamDTO.setName("Team A");
 
-        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
-        when(teamMapper.teamToTeamDTO(team)).thenReturn(teamDTO);
+        when(teamRepository.findViewById(teamId)).thenReturn(Optional.of(team));
+        when(teamMapper.teamViewToTeamDTO(team)).thenReturn(teamDTO);
 
         // Act
         TeamDTO result = teamService.getTeamById(teamId);
@@ -107,8 +123,8 @@ class TeamServiceImplTest {
         assertEquals(teamId, result.getId());
         assertEquals("Team A", result.getName());
 
-        verify(teamRepository, times(1)).findById(teamId);
-        verify(teamMapper, times(1)).teamToTeamDTO(team);
+        verify(teamRepository, times(1)).findViewById(teamId);
+        verify(teamMapper, times(1)).teamViewToTeamDTO(team);
     }
 
     @Test
@@ -116,7 +132,7 @@ class TeamServiceImplTest {
         // Arrange
         Long teamId = 1L;
 
-        when(teamRepository.findById(teamId)).thenReturn(Optional.empty());
+        when(teamRepository.findViewById(teamId)).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -124,7 +140,7 @@ class TeamServiceImplTest {
         });
 
         assertEquals("Team not found", exception.getMessage());
-        verify(teamRepository, times(1)).findById(teamId);
+        verify(teamRepository, times(1)).findViewById(teamId);
         verifyNoInteractions(teamMapper);
     }
 
@@ -168,6 +184,7 @@ class TeamServiceImplTest {
         verify(teamMapper, times(1)).teamDTOToTeam(teamDTO);
         verify(teamRepository, times(1)).save(team);
         verify(teamMapper, times(1)).teamToTeamDTO(savedTeam);
+        verify(childrenVersions, times(1)).moveDepartment(eq(departmentId), any());
     }
 
     @Test
@@ -215,7 +232,7 @@ class TeamServiceImplTest {
         when(teamMapper.teamToTeamDTO(updatedTeam)).thenReturn(updatedTeamDTO);
 
         // Act
-        TeamDTO result = teamService.updateTeam(teamId, teamDTO);
+        TeamDTO result = teamService.updateTeam(teamId, teamDTO, null);
 
         // Assert
         assertNotNull(result);
@@ -232,11 +249,92 @@ class TeamServiceImplTest {
         // Arrange
         Long teamId = 1L;
 
+        when(subtreeDeleter.deleteTeam(teamId, null)).thenReturn(true);
+
         // Act
-        teamService.deleteTeam(teamId);
+        teamService.deleteTeam(teamId, null);
 
         // Assert
-        verify(teamRepository, times(1)).deleteById(teamId);
+        verify(subtreeDeleter, times(1)).deleteTeam(teamId, null);
+        verify(teamRepository, never()).findById(any());
     }
 
+    @Test
+    void testPatchTeam_TouchesDepartment() {
+        // Arrange
+        Long teamId = 1L;
+
+        when(teamRepository.updateName(eq(teamId), eq("Renamed"), any())).thenReturn(1);
+
+        // Act
+        teamService.patchTeam(teamId, new TeamDTO(null, "Renamed", null, null));
+
+        // Assert
+        verify(childrenVersions, times(1)).moveDepartmentOfTeam(eq(teamId), any());
+        verify(teamRepository, never()).findById(any());
+    }
+
+    @Test
+    void testPatchTeam_NotFound() {
+        when(teamRepository.updateName(eq(1L), eq("Renamed"), any())).thenReturn(0);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> teamService.patchTeam(1L, new TeamDTO(null, "Renamed", null, null)));
+
+        assertEquals("Team not found", exception.getMessage());
+    }
+
+    @Test
+    void testPatchTeam_Negative_NameTooLong() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> teamService.patchTeam(1L, new TeamDTO(null, "x".repeat(256), null, null)));
+
+        assertEquals("Name must be at most 255 characters", exception.getMessage());
+        verifyNoInteractions(teamRepository, departmentRepository, childrenVersions);
+    }
+
+    @Test
+    void testGetTeamVersion() {
+        // Arrange
+        Long teamId = 1L;
+        Instant teamModified = Instant.parse("2026-10-18T10:00:00Z");
+        Instant departmentModified = Instant.parse("2026-10-18T11:00:00Z");
+
+        VersionView version = projections.createProjection(VersionView.class, Map.of(
+                "version", 7L, "lastModified", teamModified,
+                "parentVersion", 5L, "parentLastModified", departmentModified));
+
+        when(teamRepository.findVersionById(teamId)).thenReturn(Optional.of(version));
+
+        // Act
+        VersionDTO result = teamService.getTeamVersion(teamId);
+
+        // Assert
+        assertEquals("7-5", result.getEntityTag());
+        assertEquals(departmentModified, result.getLastModified());
+        verify(teamRepository, times(1)).findVersionById(teamId);
+        verifyNoInteractions(teamMapper);
+    }
+
+
+    @Test
+    void testGetTeamsByIds_InRequestOrder() {
+        // Arrange
+        TeamView team1 = projections.createProjection(TeamView.class, Map.of("id", 1L, "name", "Team A"));
+        TeamView team2 = projections.createProjection(TeamView.class, Map.of("id", 2L, "name", "Team B"));
+        TeamDTO teamDTO1 = new TeamDTO(1L, "Team A", null, null);
+        TeamDTO teamDTO2 = new TeamDTO(2L, "Team B", null, null);
+        List<Long> ids = List.of(2L, 3L, 1L);
+
+        when(teamRepository.findViewsByIdIn(ids)).thenReturn(List.of(team1, team2));
+        when(teamMapper.teamViewToTeamDTO(team1)).thenReturn(teamDTO1);
+        when(teamMapper.teamViewToTeamDTO(team2)).thenReturn(teamDTO2);
+
+        // Act
+        List<TeamDTO> result = teamService.getTeamsByIds(ids);
+
+        // Assert
+        assertEquals(List.of(teamDTO2, teamDTO1), result);
+        verify(teamRepository, times(1)).findViewsByIdIn(ids);
+    }
 }
@@ -0,0 +1,196 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.dao.Manager;
+import com.company.management.company_crud.model.dao.Project;
+import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.model.dto.CompanyTreeDTO;
+import com.company.management.company_crud.model.dto.DepartmentTreeDTO;
+import com.company.management.company_crud.model.dto.TeamTreeDTO;
+import com.company.management.company_crud.repository.CompanyRepository;
+import com.company.management.company_crud.repository.DepartmentRepository;
+import com.company.management.company_crud.repository.ProjectRepository;
+import com.company.management.company_crud.repository.TeamRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction, since the parallel reads use their own transactions on other
+ * threads and must see committed data.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TreeServiceImplTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size}")
+    private int poolSize;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private Statistics statistics;
+    private Company company;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        company = new Company();
+        company.setName("Company A");
+        for (String name : List.of("Sales", "Support")) {
+            Department department = new Department();
+            department.setName(name);
+            department.setCompany(company);
+            company.getDepartments().add(department);
+            for (int i = 1; i <= 3; i++) {
+                Team team = new Team();
+                team.setName(name + " Team " + i);
+                team.setDepartment(department);
+                department.getTeams().add(team);
+            }
+        }
+        company = companyRepository.save(company);
+
+        Team team = company.getDepartments().get(0).getTeams().get(0);
+        Manager manager = new Manager();
+        manager.setName("Anna");
+        manager.setEmail("anna@test.com");
+        Project project = new Project();
+        project.setName("Project X");
+        project.setTeam(team);
+        project.setManager(manager);
+        projectRepository.save(project);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        projectRepository.deleteAll();
+        companyRepository.deleteAll();
+    }
+
+    @Test
+    void testGetCompanyTree_Parallel_OneQueryPerLevel() {
+        statistics.clear();
+
+        CompanyTreeDTO tree = service(true).getCompanyTree(company.getId());
+
+        assertTree(tree);
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetCompanyTree_Sequential_OneQueryPerLevel() {
+        statistics.clear();
+
+        CompanyTreeDTO tree = service(false).getCompanyTree(company.getId());
+
+        assertTree(tree);
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetCompanyTree_Parallel_MoreCallersThanConnections() throws Exception {
+        TreeServiceImpl service = service(true);
+
+        List<CompanyTreeDTO> trees = runConcurrently(2 * poolSize, () -> service.getCompanyTree(company.getId()));
+
+        trees.forEach(TreeServiceImplTest::assertTree);
+    }
+
+    @Test
+    void testGetCompanyTree_Parallel_CallersHoldingConnections() throws Exception {
+        TreeServiceImpl service = service(true);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // each caller keeps its connection until it is done, as it would with open-in-view, so with
+        // the levels fanned out to the executor the callers would hold every connection they wait for
+        List<CompanyTreeDTO> trees = runConcurrently(2 * poolSize,
+                () -> transaction.execute(status -> service.getCompanyTree(company.getId())));
+
+        trees.forEach(TreeServiceImplTest::assertTree);
+    }
+
+    @Test
+    void testGetCompanyTree_Negative_NotFound() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> service(true).getCompanyTree(-1L));
+
+        assertEquals("Company not found", exception.getMessage());
+    }
+
+    private <T> List<T> runConcurrently(int callers, Callable<T> call) throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(threads.submit(call));
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(20, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private TreeServiceImpl service(boolean parallel) {
+        return new TreeServiceImpl(entityManagerFactory, companyRepository, departmentRepository, teamRepository, projectRepository,
+                transactionManager, executor, parallel);
+    }
+
+    private static void assertTree(CompanyTreeDTO tree) {
+        assertEquals("Company A", tree.getName());
+        assertEquals(List.of("Sales", "Support"), tree.getDepartments().stream().map(DepartmentTreeDTO::getName).toList());
+        DepartmentTreeDTO sales = tree.getDepartments().get(0);
+        assertEquals(List.of("Sales Team 1", "Sales Team 2", "Sales Team 3"),
+                sales.getTeams().stream().map(TeamTreeDTO::getName).toList());
+        assertEquals("Project X", sales.getTeams().get(0).getProject().getName());
+        assertEquals("anna@test.com", sales.getTeams().get(0).getProject().getManager().getEmail());
+        assertNull(sales.getTeams().get(1).getProject());
+        assertEquals(3, tree.getDepartments().get(1).getTeams().size());
+    }
+}
@@ -0,0 +1,209 @@
+package com.company.management.company_crud.service.impl;
+
+import com.company.management.company_crud.exception.WriteBehindQueueFullException;
+import com.company.management.company_crud.model.dao.Company;
+import com.company.management.company_crud.model.dao.Department;
+import com.company.management.company_crud.model.dao.Team;
+import com.company.management.company_crud.model.dto.EntityType;
+import com.company.management.company_crud.model.dto.SearchHitDTO;
+import com.company.management.company_crud.model.dto.WriteBehindStatusDTO;
+import com.company.management.company_crud.repository.CompanyRepository;
+import com.company.management.company_crud.repository.DepartmentRepository;
+import com.company.management.company_crud.repository.TeamRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction, since flushes commit their own.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(ChangeLog.class)
+class WriteBehindServiceImplTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    private final NameIndex nameIndex = new NameIndex();
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private WriteBehindServiceImpl service;
+    private Department department;
+    private Team team;
+
+    @BeforeEach
+    void setUp() {
+        Company company = new Company();
+        company.setName("Company A");
+        Department newDepartment = new Department();
+        newDepartment.setName("Sales");
+        newDepartment.setCompany(company);
+        company.getDepartments().add(newDepartment);
+        Team newTeam = new Team();
+        newTeam.setName("Team A");
+        newTeam.setDepartment(newDepartment);
+        newDepartment.getTeams().add(newTeam);
+        company = companyRepository.save(company);
+        department = company.getDepartments().get(0);
+        team = department.getTeams().get(0);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (service != null) {
+            service.stop();
+        }
+        companyRepository.deleteAll();
+    }
+
+    @Test
+    void testEnqueueRename_CoalescesAndFlushesInBatches() {
+        // Arrange
+        service = service(true, 100);
+        long teamVersion = teamRepository.findById(team.getId()).orElseThrow().getVersion();
+        // loads the department into the second-level cache, which the flush has to evict
+        Department before = departmentRepository.findById(department.getId()).orElseThrow();
+
+        nameIndex.put(EntityType.TEAM, team.getId(), "Team A", department.getId());
+
+        // Act
+        service.enqueueRename(EntityType.TEAM, team.getId(), "Team B");
+        service.enqueueRename(EntityType.TEAM, team.getId(), "Team C");
+        service.enqueueRename(EntityType.DEPARTMENT, department.getId(), "Marketing");
+        service.enqueueRename(EntityType.TEAM, team.getId(), "Team D");
+        WriteBehindStatusDTO queued = service.getStatus();
+        int rows = service.flush();
+
+        // Assert
+        assertEquals(2, queued.getDepth());
+        assertEquals(4, queued.getAccepted());
+        assertEquals(2, queued.getCoalesced());
+        assertEquals(2, rows);
+        Team renamedTeam = teamRepository.findById(team.getId()).orElseThrow();
+        assertEquals("Team D", renamedTeam.getName());
+        assertEquals(List.of(new SearchHitDTO(EntityType.TEAM, team.getId(), "Team D")),
+                nameIndex.search("team", EnumSet.of(EntityType.TEAM), 10));
+        assertEquals(teamVersion + 1, renamedTeam.getVersion());
+        Department renamedDepartment = departmentRepository.findById(department.getId()).orElseThrow();
+        assertEquals("Marketing", renamedDepartment.getName());
+        assertEquals(before.getVersion() + 1, renamedDepartment.getVersion());
+        assertEquals(before.getChildrenVersion() + 1, renamedDepartment.getChildrenVersion());
+        WriteBehindStatusDTO flushed = service.getStatus();
+        assertEquals(0, flushed.getDepth());
+        assertEquals(2, flushed.getWritten());
+        assertEquals(0, flushed.getDropped());
+    }
+
+    @Test
+    void testFlush_MissingRowIsDropped() {
+        service = service(true, 100);
+
+        service.enqueueRename(EntityType.TEAM, -1L, "Nobody");
+
+        assertEquals(0, service.flush());
+        assertEquals(1, service.getStatus().getDropped());
+    }
+
+    @Test
+    void testFlush_RowFailingAloneIsGivenUp() {
+        service = service(true, 100);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("alter table team add constraint team_name_not_rejected check (name <> 'Rejected')");
+        try {
+            service.enqueueRename(EntityType.TEAM, team.getId(), "Rejected");
+            service.enqueueRename(EntityType.DEPARTMENT, department.getId(), "Marketing");
+
+            assertEquals(1, service.flush());
+        } finally {
+            jdbcTemplate.execute("alter table team drop constraint team_name_not_rejected");
+        }
+
+        WriteBehindStatusDTO status = service.getStatus();
+        assertEquals(0, status.getDepth());
+        assertEquals(1, status.getWritten());
+        assertEquals(1, status.getFailed());
+        assertEquals(1, status.getFailedFlushes());
+        assertEquals("Team A", teamRepository.findById(team.getId()).orElseThrow().getName());
+        assertEquals("Marketing", departmentRepository.findById(department.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void testEnqueueRename_Negative_InvalidName() {
+        service = service(true, 100);
+
+        assertThrows(IllegalArgumentException.class, () -> service.enqueueRename(EntityType.TEAM, team.getId(), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.enqueueRename(EntityType.DEPARTMENT, department.getId(), "x".repeat(256)));
+        assertEquals(0, service.getStatus().getAccepted());
+    }
+
+    @Test
+    void testEnqueueRename_Negative_BufferFull() {
+        service = service(true, 1);
+        service.enqueueRename(EntityType.TEAM, team.getId(), "Team B");
+
+        service.enqueueRename(EntityType.TEAM, team.getId(), "Team C");
+        WriteBehindQueueFullException exception = assertThrows(WriteBehindQueueFullException.class,
+                () -> service.enqueueRename(EntityType.DEPARTMENT, department.getId(), "Marketing"));
+
+        assertEquals("Write-behind buffer is full", exception.getMessage());
+        assertEquals(1, service.getStatus().getDepth());
+    }
+
+    @Test
+    void testEnqueueRename_Negative_Disabled() {
+        service = service(false, 100);
+
+        assertThrows(IllegalStateException.class, () -> service.enqueueRename(EntityType.TEAM, team.getId(), "Team B"));
+        assertFalse(service.getStatus().isEnabled());
+    }
+
+    private WriteBehindServiceImpl service(boolean enabled, int capacity) {
+        WriteBehindServiceImpl writeBehind = new WriteBehindServiceImpl(new JdbcTemplate(dataSource),
+                new TransactionTemplate(transactionManager), entityManagerFactory, nameIndex, changeLog, validator, enabled,
+                capacity,
+                Duration.ofMillis(10), Duration.ofHours(1), 500, false);
+        writeBehind.start();
+        return writeBehind;
+    }
+}